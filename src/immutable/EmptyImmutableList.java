@@ -60,7 +60,7 @@ public class EmptyImmutableList<E> implements ImmutableList<E> {
 
 	@Override
 	public boolean equals (Object o) {
-		return o instanceof EmptyImmutableList;
+		return o instanceof ImmutableList && ((ImmutableList<?>) o).isEmpty();
 	}
 
 	@Override
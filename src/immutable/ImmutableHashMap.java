@@ -0,0 +1,318 @@
+package immutable;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of immutable generic map as a hash array mapped trie (HAMT). See
+ * Map for specification.<br>
+ * The trie branches on five bits of the hash code of the keys per level, and every
+ * branch only allocates room for the children it has, as told by a bitmap. So get,
+ * containsKey and put take time proportional to the depth of the trie, at most seven
+ * levels and about log32 of the size of the map, rather than to the size of the map
+ * as with ImmutableListMap; and put copies one path of the trie, sharing every other
+ * node with the original map.<br>
+ * Keys must implement hashCode consistently with equals.
+ */
+public class ImmutableHashMap<K, V> implements ImmutableMap<K, V> {
+
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+
+	/*
+	 * Rep invariant
+	 *     root == null iff size == 0
+	 *     every node of the trie obeys the invariant of its class, no key or value is null
+	 *     size is the number of keys bound in the trie
+	 *
+	 * Abstraction function
+	 *     the bindings of the leaves and collision nodes of the trie under root
+	 */
+	private final Node<K, V> root;
+	private final int size;
+
+	public ImmutableHashMap () {
+		this(null, 0);
+	}
+
+	private ImmutableHashMap (Node<K, V> root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	@Override
+	public boolean containsKey (Object k) {
+		return get(k) != null;
+	}
+
+	@Override
+	public V get (Object k) {
+		return root == null ? null : root.get(k, k.hashCode(), 0);
+	}
+
+	@Override
+	public ImmutableMap<K, V> put (K key, V value) {
+		final boolean[] added = {false};
+		final Node<K, V> result;
+
+		assert key != null && value != null : "ImmutableHashMap.put(null)";
+
+		if (root == null) {
+			return new ImmutableHashMap<>(new Leaf<>(key.hashCode(), key, value), 1);
+		}
+
+		result = root.put(key, value, key.hashCode(), 0, added);
+
+		return result == root ? this : new ImmutableHashMap<>(result, added[0] ? size + 1 : size);
+	}
+
+	@Override
+	public int size () {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty () {
+		return size == 0;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public ImmutableList<K> keys () {
+		final ImmutableList<K>[] result = (ImmutableList<K>[]) new ImmutableList<?>[]{new EmptyImmutableList<K>()};
+
+		if (root != null) {
+			root.forEach((k, v) -> result[0] = result[0].add(k));
+		}
+
+		return result[0];
+	}
+
+	@Override
+	public String toString () {
+		final StringBuilder b = new StringBuilder("[");
+
+		if (root != null) {
+			root.forEach((k, v) -> b.append(b.length() > 1 ? ", " : "").append(k).append("->").append(v));
+		}
+
+		return b.append("]").toString();
+	}
+
+	private static int index (int hash, int shift) {
+		return (hash >>> shift) & MASK;
+	}
+
+	/**
+	 * @requires a and b have different hashes
+	 * @return a branch of level shift holding a and b.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K, V> Node<K, V> join (Hashed<K, V> a, Hashed<K, V> b, int shift) {
+		final int i = index(a.hash, shift), j = index(b.hash, shift);
+
+		if (i == j) {
+			return new Branch<>(1 << i, (Node<K, V>[]) new Node<?, ?>[]{join(a, b, shift + BITS)});
+		} else if (i < j) {
+			return new Branch<>((1 << i) | (1 << j), (Node<K, V>[]) new Node<?, ?>[]{a, b});
+		} else {
+			return new Branch<>((1 << i) | (1 << j), (Node<K, V>[]) new Node<?, ?>[]{b, a});
+		}
+	}
+
+	private interface Visitor<K, V> {
+		void visit (K key, V value);
+	}
+
+	private static abstract class Node<K, V> {
+
+		/**
+		 * @return the value bound to key, of hash code hash, or null if there is none.
+		 */
+		abstract V get (Object key, int hash, int shift);
+
+		/**
+		 * @return this node with key bound to value; this itself if it already is.
+		 * added[0] is set if key was not bound yet.
+		 */
+		abstract Node<K, V> put (K key, V value, int hash, int shift, boolean[] added);
+
+		abstract void forEach (Visitor<K, V> visitor);
+	}
+
+	/**
+	 * A node whose keys all share one hash code, that is a leaf or a collision node.
+	 */
+	private static abstract class Hashed<K, V> extends Node<K, V> {
+		final int hash;
+
+		Hashed (int hash) {
+			this.hash = hash;
+		}
+	}
+
+	/**
+	 * A single binding.
+	 */
+	private static final class Leaf<K, V> extends Hashed<K, V> {
+		final K key;
+		final V value;
+
+		Leaf (int hash, K key, V value) {
+			super(hash);
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		V get (Object key, int hash, int shift) {
+			return hash == this.hash && key.equals(this.key) ? value : null;
+		}
+
+		@Override
+		Node<K, V> put (K key, V value, int hash, int shift, boolean[] added) {
+			if (hash == this.hash && key.equals(this.key)) {
+				return value == this.value ? this : new Leaf<>(hash, key, value);
+			}
+
+			added[0] = true;
+
+			if (hash == this.hash) {
+				return new Collision<>(hash, new Object[]{this.key, key}, new Object[]{this.value, value});
+			}
+
+			return join(this, new Leaf<>(hash, key, value), shift);
+		}
+
+		@Override
+		void forEach (Visitor<K, V> visitor) {
+			visitor.visit(key, value);
+		}
+	}
+
+	/**
+	 * The bindings of two or more keys sharing a hash code.
+	 */
+	private static final class Collision<K, V> extends Hashed<K, V> {
+		final Object[] keys;
+		final Object[] values;
+
+		Collision (int hash, Object[] keys, Object[] values) {
+			super(hash);
+			this.keys = keys;
+			this.values = values;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		V get (Object key, int hash, int shift) {
+			if (hash == this.hash) {
+				for (int i = 0; i < keys.length; i++) {
+					if (key.equals(keys[i])) {
+						return (V) values[i];
+					}
+				}
+			}
+
+			return null;
+		}
+
+		@Override
+		Node<K, V> put (K key, V value, int hash, int shift, boolean[] added) {
+			final Object[] newValues;
+
+			if (hash != this.hash) {
+				added[0] = true;
+				return join(this, new Leaf<>(hash, key, value), shift);
+			}
+
+			for (int i = 0; i < keys.length; i++) {
+				if (key.equals(keys[i])) {
+					if (value == values[i]) {
+						return this;
+					}
+
+					newValues = values.clone();
+					newValues[i] = value;
+
+					return new Collision<>(hash, keys, newValues);
+				}
+			}
+
+			added[0] = true;
+			newValues = Arrays.copyOf(values, values.length + 1);
+			newValues[values.length] = value;
+
+			final Object[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+			newKeys[keys.length] = key;
+
+			return new Collision<>(hash, newKeys, newValues);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		void forEach (Visitor<K, V> visitor) {
+			for (int i = 0; i < keys.length; i++) {
+				visitor.visit((K) keys[i], (V) values[i]);
+			}
+		}
+	}
+
+	/**
+	 * An inner node, with a child for every bit set in bitmap, in order of index.
+	 */
+	private static final class Branch<K, V> extends Node<K, V> {
+		final int bitmap;
+		final Node<K, V>[] children;
+
+		Branch (int bitmap, Node<K, V>[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+
+		@Override
+		V get (Object key, int hash, int shift) {
+			final int bit = 1 << index(hash, shift);
+
+			if ((bitmap & bit) == 0) {
+				return null;
+			}
+
+			return children[Integer.bitCount(bitmap & (bit - 1))].get(key, hash, shift + BITS);
+		}
+
+		@Override
+		Node<K, V> put (K key, V value, int hash, int shift, boolean[] added) {
+			final int bit = 1 << index(hash, shift);
+			final int position = Integer.bitCount(bitmap & (bit - 1));
+			final Node<K, V>[] newChildren;
+
+			if ((bitmap & bit) == 0) {
+				added[0] = true;
+				newChildren = Arrays.copyOf(children, children.length + 1);
+				System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+				newChildren[position] = new Leaf<>(hash, key, value);
+
+				return new Branch<>(bitmap | bit, newChildren);
+			}
+
+			final Node<K, V> child = children[position].put(key, value, hash, shift + BITS, added);
+
+			if (child == children[position]) {
+				return this;
+			}
+
+			newChildren = children.clone();
+			newChildren[position] = child;
+
+			return new Branch<>(bitmap, newChildren);
+		}
+
+		@Override
+		void forEach (Visitor<K, V> visitor) {
+			for (Node<K, V> child: children) {
+				child.forEach(visitor);
+			}
+		}
+	}
+
+}
@@ -7,6 +7,10 @@
 package immutable;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface ImmutableList<E> extends Iterable<E> {
 
@@ -32,6 +36,54 @@ public interface ImmutableList<E> extends Iterable<E> {
 	 */
 	public ImmutableList<E> rest ();
 
+	/**
+	 * Get an element of this list by index. Takes time linear in i, unless the
+	 * implementation tells otherwise.
+	 *
+	 * @requires 0 <= i < size()
+	 * @return e_i where this list = [e_0,...,e_n]
+	 */
+	public default E get (int i) {
+		ImmutableList<E> l = this;
+
+		assert 0 <= i && i < size() : "ImmutableList.get(" + i + ")";
+
+		while (i-- > 0) {
+			l = l.rest();
+		}
+
+		return l.first();
+	}
+
+	/**
+	 * Replace an element of this list by index. Takes time linear in i, unless the
+	 * implementation tells otherwise.
+	 *
+	 * @requires 0 <= i < size(), e != null
+	 * @return [e_0, ..., e_{i-1}, e, e_{i+1}, ..., e_n] where this list = [e_0,...,e_n]
+	 */
+	public default ImmutableList<E> set (int i, E e) {
+		@SuppressWarnings("unchecked")
+		final E[] prefix = (E[]) new Object[i];
+		ImmutableList<E> l = this;
+
+		assert 0 <= i && i < size() : "ImmutableList.set(" + i + ")";
+		assert e != null : "ImmutableList.set(null)";
+
+		for (int j = 0; j < i; j++) {
+			prefix[j] = l.first();
+			l = l.rest();
+		}
+
+		l = l.rest().add(e);
+
+		while (i > 0) {
+			l = l.add(prefix[--i]);
+		}
+
+		return l;
+	}
+
 	/**
 	 * Remove the first occurrence of an element from the list, if present.
 	 *
@@ -64,4 +116,30 @@ public interface ImmutableList<E> extends Iterable<E> {
 	@Override
 	public Iterator<E> iterator ();
 
+	/**
+	 * see Iterable.spliterator(). Unlike the default of Iterable, the spliterator
+	 * knows the size of the list; it splits by copying batches of elements to arrays,
+	 * unless the implementation tells otherwise.
+	 */
+	@Override
+	public default Spliterator<E> spliterator () {
+		return Spliterators.spliterator(
+				iterator(), size(), Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL
+		);
+	}
+
+	/**
+	 * @return a sequential stream of the elements of this list, in order
+	 */
+	public default Stream<E> stream () {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * @return a possibly parallel stream of the elements of this list, in order
+	 */
+	public default Stream<E> parallelStream () {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
 }
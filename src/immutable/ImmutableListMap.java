@@ -29,12 +29,12 @@ public class ImmutableListMap<K, V> implements ImmutableMap<K, V> {
     }
 
     void checkRep(ImmutableList<Binding> bs) {
-        if (!bs.isEmpty()) {
+        while (!bs.isEmpty()) {
             Binding b = bs.first();
             assert b.key != null : "ListMap, Rep invariant: keys non-null";
             assert b.value != null : "ListMap, Rep invariant: values non-null";
             assert !new ImmutableListMap<K, V>(bs.rest()).containsKey(b.key);
-            checkRep(bs.rest());
+            bs = bs.rest();
         }
     }
 
@@ -77,16 +77,15 @@ public class ImmutableListMap<K, V> implements ImmutableMap<K, V> {
     }
 
     /*
-     * search through list recursively to find binding with matching key
+     * search through list to find binding with matching key. Iterative, as
+     * a recursive search would overflow the stack on large maps.
      */
     private Binding get(ImmutableList<Binding> bindings, Object key) {
-        if (bindings.size() == 0)
-            return null;
-        Binding b = bindings.first();
-        if (b.key.equals(key))
-            return b;
-        else
-            return get(bindings.rest(), key);
+        for (Binding b : bindings) {
+            if (b.key.equals(key))
+                return b;
+        }
+        return null;
     }
 
     public ImmutableMap<K, V> put(K key, V value) {
@@ -94,19 +93,29 @@ public class ImmutableListMap<K, V> implements ImmutableMap<K, V> {
     }
 
     /*
-     * recursively construct new list with binding for given key replaced or
-     * added
+     * construct new list with binding for given key replaced or added at
+     * the end. The bindings before it are copied onto an explicit stack
+     * rather than onto the call stack.
      */
     private ImmutableList<Binding> put(ImmutableList<Binding> bindings, K key, V value) {
-        if (bindings.size() == 0)
-            return new NonEmptyImmutableList<Binding>(new Binding(key, value));
-        Binding b = bindings.first();
-        if (b.key.equals(key)) {
-            b = new Binding(key, value);
-            return bindings.rest().add(b);
-        } else {
-            return put(bindings.rest(), key, value).add(b);
+        @SuppressWarnings("unchecked")
+        final Binding[] prefix = (Binding[]) new ImmutableListMap<?, ?>.Binding[bindings.size()];
+        ImmutableList<Binding> rest = bindings;
+        int prefixSize = 0;
+
+        while (!rest.isEmpty() && !rest.first().key.equals(key)) {
+            prefix[prefixSize++] = rest.first();
+            rest = rest.rest();
+        }
+
+        ImmutableList<Binding> result = rest.isEmpty()
+                ? new NonEmptyImmutableList<Binding>(new Binding(key, value))
+                : rest.rest().add(new Binding(key, value));
+
+        while (prefixSize > 0) {
+            result = result.add(prefix[--prefixSize]);
         }
+        return result;
     }
 
     public int size() {
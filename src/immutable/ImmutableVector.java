@@ -0,0 +1,560 @@
+package immutable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of immutable list as a bit-partitioned persistent vector. See
+ * ImmutableList for specification.<br>
+ * The elements are stored in a trie of arrays of 32, the last at most 32 of them
+ * apart in a tail array. Elements are kept in reverse order, the first element of
+ * the list last, so that add, first and rest work on the tail: they take constant
+ * amortized time, as with a cons list, and add copies the tail or one path of the
+ * trie, sharing every other node with the original list. get and set take time
+ * proportional to the depth of the trie, about log32 of the size of the list, where
+ * a cons list walks the elements preceding the index.<br>
+ * rest shares the tail of the list it is applied to rather than copying it, so a
+ * tail may hold up to WIDTH - 1 elements past the end of the list, which are
+ * ignored.
+ */
+public class ImmutableVector<E> implements ImmutableList<E> {
+
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+
+	/*
+	 * Rep invariant
+	 *     size >= 0, shift >= BITS and is a multiple of BITS
+	 *     root != null, tail != null, size - tailOffset() <= tail.length <= WIDTH
+	 *     the trie under root, of depth shift / BITS, holds the tailOffset() first
+	 *     elements in full leaves of WIDTH elements; its other slots are null
+	 *     no element is null
+	 *
+	 * Abstraction function
+	 *     [e_0, ..., e_n] where n = size - 1 and e_i is the element of vector index
+	 *     n - i, the elements of the trie in order followed by those of tail
+	 */
+	private final int size;
+	private final int shift;
+	private final Object[] root;
+	private final Object[] tail;
+
+	public ImmutableVector () {
+		this(0, BITS, new Object[WIDTH], new Object[0]);
+	}
+
+	private ImmutableVector (int size, int shift, Object[] root, Object[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	@Override
+	public ImmutableList<E> add (E e) {
+		if (e != null) {
+			return push(e);
+		}
+		return this;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E first () {
+		assert size > 0 : "ImmutableVector.first";
+		return (E) tail[(size - 1) & MASK];
+	}
+
+	@Override
+	public ImmutableList<E> rest () {
+		assert size > 0 : "ImmutableVector.rest";
+		return pop();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get (int i) {
+		assert 0 <= i && i < size : "ImmutableVector.get(" + i + ")";
+		final int v = size - 1 - i;
+
+		return (E) leafFor(v)[v & MASK];
+	}
+
+	@Override
+	public ImmutableList<E> set (int i, E e) {
+		assert 0 <= i && i < size : "ImmutableVector.set(" + i + ")";
+		assert e != null : "ImmutableVector.set(null)";
+		final int v = size - 1 - i;
+
+		if (v >= tailOffset()) {
+			final Object[] newTail = Arrays.copyOf(tail, size - tailOffset());
+
+			newTail[v & MASK] = e;
+
+			return new ImmutableVector<>(size, shift, root, newTail);
+		}
+
+		return new ImmutableVector<>(size, shift, assoc(shift, root, v, e), tail);
+	}
+
+	@Override
+	public ImmutableList<E> remove (E e) {
+		assert e != null : "ImmutableVector.remove(null)";
+		Object[] prefix = new Object[Math.min(size, WIDTH)];
+		int index = 0;
+
+		for (E i: this) {
+			if (i.equals(e)) {
+				// The elements preceding e, last in the vector, are appended back to the
+				// vector cut before e.
+				for (int j = 0; j < index / 2; j++) {
+					final Object swap = prefix[j];
+
+					prefix[j] = prefix[index - 1 - j];
+					prefix[index - 1 - j] = swap;
+				}
+
+				return take(size - 1 - index).appendAll(prefix, index);
+			}
+
+			if (index == prefix.length) {
+				prefix = Arrays.copyOf(prefix, 2 * index);
+			}
+
+			prefix[index++] = i;
+		}
+
+		return this;
+	}
+
+	@Override
+	public boolean contains (E e) {
+		assert e != null : "ImmutableVector.contains(null)";
+
+		for (E i: this) {
+			if (i.equals(e)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public int size () {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty () {
+		return size == 0;
+	}
+
+	/**
+	 * Iterates from the first element of the list, that is the last of the vector,
+	 * fetching one leaf for every WIDTH elements.
+	 */
+	@Override
+	public Iterator<E> iterator () {
+		return new Iterator<E>() {
+			private int v = size - 1;
+			private Object[] leaf = null;
+
+			@Override
+			public boolean hasNext () {
+				return v >= 0;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next () {
+				if (v < 0) {
+					throw new NoSuchElementException();
+				}
+
+				if (leaf == null || (v & MASK) == MASK) {
+					leaf = leafFor(v);
+				}
+
+				return (E) leaf[v-- & MASK];
+			}
+		};
+	}
+
+	/**
+	 * The spliterator splits in halves by index, without copying, so that parallel
+	 * streams of the list share it out evenly between threads.
+	 */
+	@Override
+	public Spliterator<E> spliterator () {
+		return new Splitter(0, size);
+	}
+
+	/**
+	 * Same as NonEmptyImmutableList.equals(): o is a list of the same elements in
+	 * the same order.
+	 */
+	@Override
+	public boolean equals (Object o) {
+		final ImmutableList<?> l;
+
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof ImmutableList)) {
+			return false;
+		}
+
+		l = (ImmutableList<?>) o;
+
+		if (l.size() != size) {
+			return false;
+		}
+
+		final Iterator<?> it = l.iterator();
+
+		for (E e: this) {
+			if (!e.equals(it.next())) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Same as NonEmptyImmutableList.hashCode(): the sum of the hash codes of the
+	 * elements.
+	 */
+	@Override
+	public int hashCode () {
+		int hash = 0;
+
+		for (E e: this) {
+			hash += e.hashCode();
+		}
+
+		return hash;
+	}
+
+	@Override
+	public String toString () {
+		final StringBuilder b = new StringBuilder("[");
+
+		for (E e: this) {
+			b.append(b.length() > 1 ? ", " : "").append(e);
+		}
+
+		return b.append("]").toString();
+	}
+
+	/**
+	 * Spliterator of the elements of list indexes from to end - 1.
+	 */
+	private final class Splitter implements Spliterator<E> {
+
+		/*
+		 * Rep invariant
+		 *     0 <= index <= end <= size
+		 *     leaf is null, or the leaf of the element of list index index - 1
+		 */
+		private int index;
+		private final int end;
+		private Object[] leaf = null;
+
+		Splitter (int from, int end) {
+			this.index = from;
+			this.end = end;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean tryAdvance (Consumer<? super E> action) {
+			final int v = size - 1 - index;
+
+			if (index >= end) {
+				return false;
+			}
+
+			if (leaf == null || (v & MASK) == MASK) {
+				leaf = leafFor(v);
+			}
+
+			index++;
+			action.accept((E) leaf[v & MASK]);
+
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining (Consumer<? super E> action) {
+			while (tryAdvance(action)) {
+				// Every element is passed to action.
+			}
+		}
+
+		@Override
+		public Spliterator<E> trySplit () {
+			final int middle = (index + end) >>> 1;
+			final Splitter prefix;
+
+			if (middle - index < 2) {
+				return null;
+			}
+
+			prefix = new Splitter(index, middle);
+			index = middle;
+			leaf = null;
+
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize () {
+			return end - index;
+		}
+
+		@Override
+		public int characteristics () {
+			return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+		}
+	}
+
+	/**
+	 * @return vector index of the first element of tail.
+	 */
+	private int tailOffset () {
+		return tailOffset(size);
+	}
+
+	private static int tailOffset (int size) {
+		return size == 0 ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+
+	/**
+	 * @requires 0 <= v < size
+	 * @return the leaf, or the tail, holding the element of vector index v, at v & MASK.
+	 */
+	private Object[] leafFor (int v) {
+		Object[] node = root;
+
+		if (v >= tailOffset()) {
+			return tail;
+		}
+
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(v >>> level) & MASK];
+		}
+
+		return node;
+	}
+
+	/**
+	 * @return this vector with e appended, that is this list with e first.
+	 */
+	private ImmutableVector<E> push (E e) {
+		final int length = size - tailOffset();
+		final Object[] newTail;
+
+		if (length < WIDTH) {
+			newTail = Arrays.copyOf(tail, length + 1);
+			newTail[length] = e;
+
+			return new ImmutableVector<>(size + 1, shift, root, newTail);
+		}
+
+		return pushLeaf(new Object[]{e});
+	}
+
+	/**
+	 * @return this vector with the first length elements of elements appended.
+	 */
+	private ImmutableVector<E> appendAll (Object[] elements, int length) {
+		final int used = size - tailOffset(), n = Math.min(WIDTH - used, length);
+		ImmutableVector<E> result = this;
+		int i = n;
+
+		// Fill the tail, then move it into the trie a full leaf at a time.
+		if (n > 0) {
+			final Object[] newTail = Arrays.copyOf(tail, used + n);
+
+			System.arraycopy(elements, 0, newTail, used, n);
+			result = new ImmutableVector<>(size + n, shift, root, newTail);
+		}
+
+		for (; i < length; i += WIDTH) {
+			result = result.pushLeaf(Arrays.copyOfRange(elements, i, Math.min(i + WIDTH, length)));
+		}
+
+		return result;
+	}
+
+	/**
+	 * @requires size > 0, the tail is full, newTail.length <= WIDTH
+	 * @return this vector with its tail moved into the trie, and the elements of
+	 * newTail appended.
+	 */
+	private ImmutableVector<E> pushLeaf (Object[] newTail) {
+		// The trie grows a level if it is full.
+		if ((size >>> BITS) > (1 << shift)) {
+			final Object[] newRoot = new Object[WIDTH];
+
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+
+			return new ImmutableVector<>(size + newTail.length, shift + BITS, newRoot, newTail);
+		}
+
+		return new ImmutableVector<>(size + newTail.length, shift, pushTail(shift, root), newTail);
+	}
+
+	/**
+	 * @return a copy of node, of the given level, with the path to the current tail added.
+	 */
+	private Object[] pushTail (int level, Object[] node) {
+		final int i = ((size - 1) >>> level) & MASK;
+		final Object[] result = node.clone();
+
+		if (level == BITS) {
+			result[i] = tail;
+		} else {
+			result[i] = node[i] == null ? newPath(level - BITS, tail) : pushTail(level - BITS, (Object[]) node[i]);
+		}
+
+		return result;
+	}
+
+	private static Object[] newPath (int level, Object[] leaf) {
+		Object[] node = leaf;
+
+		for (; level > 0; level -= BITS) {
+			final Object[] parent = new Object[WIDTH];
+
+			parent[0] = node;
+			node = parent;
+		}
+
+		return node;
+	}
+
+	/**
+	 * @requires size > 0
+	 * @return this vector without its last element, that is this list without its first.
+	 */
+	private ImmutableVector<E> pop () {
+		Object[] newRoot;
+
+		if (size == 1) {
+			return new ImmutableVector<>();
+		}
+
+		if (size - tailOffset() > 1) {
+			return new ImmutableVector<>(size - 1, shift, root, tail);
+		}
+
+		// The tail empties: the last leaf of the trie takes its place.
+		newRoot = popTail(shift, root);
+
+		if (newRoot == null) {
+			newRoot = new Object[WIDTH];
+		}
+
+		if (shift > BITS && newRoot[1] == null) {
+			return new ImmutableVector<>(size - 1, shift - BITS, (Object[]) newRoot[0], leafFor(size - 2));
+		}
+
+		return new ImmutableVector<>(size - 1, shift, newRoot, leafFor(size - 2));
+	}
+
+	/**
+	 * @return a copy of node, of the given level, without the path to its last leaf,
+	 * or null if that leaves it empty.
+	 */
+	private Object[] popTail (int level, Object[] node) {
+		final int i = ((size - 2) >>> level) & MASK;
+		final Object[] result;
+
+		if (level > BITS) {
+			final Object[] child = popTail(level - BITS, (Object[]) node[i]);
+
+			if (child == null && i == 0) {
+				return null;
+			}
+
+			result = node.clone();
+			result[i] = child;
+
+			return result;
+		}
+
+		if (i == 0) {
+			return null;
+		}
+
+		result = node.clone();
+		result[i] = null;
+
+		return result;
+	}
+
+	/**
+	 * @requires 0 <= n <= size
+	 * @return the vector of the first n elements of this vector, that is this list
+	 * without its size - n first elements.
+	 */
+	private ImmutableVector<E> take (int n) {
+		final int offset = tailOffset(n);
+		Object[] newRoot;
+		int newShift = shift;
+
+		if (n == 0) {
+			return new ImmutableVector<>();
+		}
+
+		if (offset == 0) {
+			return new ImmutableVector<>(n, BITS, new Object[WIDTH], leafFor(n - 1));
+		}
+
+		newRoot = trim(shift, root, offset - 1);
+
+		while (newShift > BITS && offset <= 1 << newShift) {
+			newRoot = (Object[]) newRoot[0];
+			newShift -= BITS;
+		}
+
+		return new ImmutableVector<>(n, newShift, newRoot, leafFor(n - 1));
+	}
+
+	/**
+	 * @return a copy of node, of the given level, without the leaves following the
+	 * one holding the element of vector index last.
+	 */
+	private static Object[] trim (int level, Object[] node, int last) {
+		final int i = (last >>> level) & MASK;
+		final Object[] result = new Object[WIDTH];
+
+		System.arraycopy(node, 0, result, 0, i);
+		result[i] = level == BITS ? node[i] : trim(level - BITS, (Object[]) node[i], last);
+
+		return result;
+	}
+
+	private static Object[] assoc (int level, Object[] node, int v, Object e) {
+		final Object[] result = node.clone();
+
+		if (level == 0) {
+			result[v & MASK] = e;
+		} else {
+			final int i = (v >>> level) & MASK;
+
+			result[i] = assoc(level - BITS, (Object[]) node[i], v, e);
+		}
+
+		return result;
+	}
+
+}
@@ -0,0 +1,130 @@
+package immutable;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Times the operations of ImmutableList on a cons list and on a persistent vector
+ * of the same elements, and prints wall time per operation:
+ * <pre>
+ *     java immutable.ListBenchmark
+ * </pre>
+ */
+public class ListBenchmark {
+
+	private static final int[] SIZES = {100, 10000, 100000};
+
+	/**
+	 * Number of times each operation is timed; the fastest run is reported, so as to
+	 * leave out JIT warm-up.
+	 */
+	private static final int RUNS = 5;
+
+	/**
+	 * Number of random indexes, or elements, every indexed operation is timed on.
+	 */
+	private static final int SAMPLES = 1000;
+
+	// Keeps the results of timed operations alive, so the JIT cannot drop them.
+	private static long sink;
+
+	public static void main (String[] args) {
+		System.out.format(
+				"%-12s %-10s %10s %14s %14s\n", "operation", "size", "samples", "cons (ns/op)", "vector (ns/op)"
+		);
+
+		for (int size: SIZES) {
+			run("add", size, size, EmptyImmutableList::new, ImmutableVector::new, (l, random) -> {
+				for (int i = 0; i < size; i++) {
+					l = l.add(i);
+				}
+
+				sink += l.size();
+			});
+
+			final ImmutableList<Integer> cons = fill(new EmptyImmutableList<>(), size);
+			final ImmutableList<Integer> vector = fill(new ImmutableVector<>(), size);
+
+			run("iterate", size, size, () -> cons, () -> vector, (l, random) -> {
+				for (Integer e: l) {
+					sink += e;
+				}
+			});
+			run("rest", size, size, () -> cons, () -> vector, (l, random) -> {
+				while (!l.isEmpty()) {
+					l = l.rest();
+				}
+			});
+
+			final int samples = Math.min(SAMPLES, size);
+
+			run("get", size, samples, () -> cons, () -> vector, (l, random) -> {
+				for (int i = 0; i < samples; i++) {
+					sink += l.get(random.nextInt(size));
+				}
+			});
+			run("set", size, samples, () -> cons, () -> vector, (l, random) -> {
+				for (int i = 0; i < samples; i++) {
+					sink += l.set(random.nextInt(size), -1).size();
+				}
+			});
+			run("contains", size, samples, () -> cons, () -> vector, (l, random) -> {
+				for (int i = 0; i < samples; i++) {
+					sink += l.contains(random.nextInt(size)) ? 1 : 0;
+				}
+			});
+			run("remove", size, samples, () -> cons, () -> vector, (l, random) -> {
+				for (int i = 0; i < samples; i++) {
+					sink += l.remove(random.nextInt(size)).size();
+				}
+			});
+		}
+
+		System.out.println("c " + sink);
+	}
+
+	private interface Operation {
+		void apply (ImmutableList<Integer> list, Random random);
+	}
+
+	private static ImmutableList<Integer> fill (ImmutableList<Integer> list, int size) {
+		for (int i = 0; i < size; i++) {
+			list = list.add(i);
+		}
+
+		return list;
+	}
+
+	/**
+	 * Time operation, doing samples elementary operations, on the lists of cons
+	 * and vector, and print one line of results.
+	 */
+	private static void run (
+			String label, int size, int samples,
+			Supplier<ImmutableList<Integer>> cons, Supplier<ImmutableList<Integer>> vector, Operation operation
+	) {
+		System.out.format(
+				"%-12s %-10d %10d %14.1f %14.1f\n", label, size, samples,
+				time(cons, operation) / samples, time(vector, operation) / samples
+		);
+	}
+
+	/**
+	 * @return the fastest of RUNS timings of operation, in nanoseconds.
+	 */
+	private static double time (Supplier<ImmutableList<Integer>> list, Operation operation) {
+		long best = Long.MAX_VALUE, started;
+
+		for (int run = 0; run < RUNS; run++) {
+			final ImmutableList<Integer> l = list.get();
+			final Random random = new Random(run);
+
+			started = System.nanoTime();
+			operation.apply(l, random);
+			best = Math.min(best, System.nanoTime() - started);
+		}
+
+		return best;
+	}
+
+}
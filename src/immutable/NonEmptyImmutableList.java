@@ -53,13 +53,29 @@ public class NonEmptyImmutableList<E> implements ImmutableList<E> {
 
 	public ImmutableList<E> remove (E e) {
 		assert e != null : "NonEmptyList.remove(null)";
-		if (element.equals(e)) {
-			return rest;
-		} else {
-			ImmutableList<E> l = rest.remove(e);
-			if (l == rest) return this;
-			else return new NonEmptyImmutableList<>(element, l);
+		// Iterative, so that removing from a long list does not overflow the stack: the elements
+		// preceding e are stacked up, then put back in front of the list following e.
+		@SuppressWarnings("unchecked")
+		final E[] prefix = (E[]) new Object[size];
+		ImmutableList<E> l = this;
+		int prefixSize = 0;
+
+		while (!l.isEmpty() && !l.first().equals(e)) {
+			prefix[prefixSize++] = l.first();
+			l = l.rest();
+		}
+
+		if (l.isEmpty()) {
+			return this;
+		}
+
+		l = l.rest();
+
+		while (prefixSize > 0) {
+			l = l.add(prefix[--prefixSize]);
 		}
+
+		return l;
 	}
 
 	public ImmutableList<E> rest () {
@@ -118,7 +134,16 @@ public class NonEmptyImmutableList<E> implements ImmutableList<E> {
 			return false;
 		}
 
-		return first().equals(l.first()) && rest().equals(l.rest());
+		// Walk both lists side by side instead of recursing on rest().
+		final Iterator<?> it = l.iterator();
+
+		for (E e: this) {
+			if (!e.equals(it.next())) {
+				return false;
+			}
+		}
+
+		return true;
 	}
 
 	/**
@@ -130,7 +155,13 @@ public class NonEmptyImmutableList<E> implements ImmutableList<E> {
 	 */
 	@Override
 	public int hashCode () {
-		return rest.hashCode() + (element == null ? 0 : element.hashCode());
+		int hash = 0;
+
+		for (E e: this) {
+			hash += (e == null ? 0 : e.hashCode());
+		}
+
+		return hash;
 	}
 
 	/**
@@ -0,0 +1,499 @@
+package immutable.primitive;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable list of ints, with the operations of immutable.ImmutableList on
+ * primitive elements: nothing is boxed, and the elements take four bytes each
+ * rather than a node and an Integer apiece as in a cons list.<br>
+ * The list is a bit-partitioned persistent vector, as ImmutableVector, whose
+ * leaves are int arrays of 32: the elements are kept in reverse order, the first
+ * element of the list last, so that add, first and rest take constant amortized
+ * time, and get and set take time proportional to about log32 of the size of the
+ * list, copying one path of the trie. rest shares the tail of the list it is
+ * applied to, which may then hold ignored elements past the end of the list.
+ */
+public final class ImmutableIntList {
+
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+
+	/*
+	 * Rep invariant
+	 *     size >= 0, shift >= BITS and is a multiple of BITS
+	 *     root != null, tail != null, size - tailOffset() <= tail.length <= WIDTH
+	 *     the trie under root, of depth shift / BITS, holds the tailOffset() first
+	 *     elements in full int[] leaves of WIDTH elements, under Object[] inner nodes;
+	 *     its other slots are null
+	 *
+	 * Abstraction function
+	 *     [e_0, ..., e_n] where n = size - 1 and e_i is the element of vector index
+	 *     n - i, the elements of the trie in order followed by those of tail
+	 */
+	private final int size;
+	private final int shift;
+	private final Object[] root;
+	private final int[] tail;
+
+	public ImmutableIntList () {
+		this(0, BITS, new Object[WIDTH], new int[0]);
+	}
+
+	private ImmutableIntList (int size, int shift, Object[] root, int[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	/**
+	 * @return the list of elements, in order.
+	 */
+	public static ImmutableIntList of (int... elements) {
+		final int[] reversed = new int[elements.length];
+
+		for (int i = 0; i < elements.length; i++) {
+			reversed[i] = elements[elements.length - 1 - i];
+		}
+
+		return new ImmutableIntList().appendAll(reversed, reversed.length);
+	}
+
+	/**
+	 * @return [e, e_0, ..., e_n] where this list = [e_0, ..., e_n].
+	 */
+	public ImmutableIntList add (int e) {
+		final int length = size - tailOffset();
+		final int[] newTail;
+
+		if (length < WIDTH) {
+			newTail = Arrays.copyOf(tail, length + 1);
+			newTail[length] = e;
+
+			return new ImmutableIntList(size + 1, shift, root, newTail);
+		}
+
+		return pushLeaf(new int[]{e});
+	}
+
+	/**
+	 * @requires this list is nonempty
+	 * @return e_0 where this list = [e_0,...,e_n]
+	 */
+	public int first () {
+		assert size > 0 : "ImmutableIntList.first";
+		return tail[(size - 1) & MASK];
+	}
+
+	/**
+	 * @requires this list is nonempty
+	 * @return [e_1, ..., e_n] where this list = [e_0,...,e_n]
+	 */
+	public ImmutableIntList rest () {
+		final Object[] newRoot;
+
+		assert size > 0 : "ImmutableIntList.rest";
+
+		if (size == 1) {
+			return new ImmutableIntList();
+		}
+
+		if (size - tailOffset() > 1) {
+			return new ImmutableIntList(size - 1, shift, root, tail);
+		}
+
+		// The tail empties: the last leaf of the trie takes its place.
+		final Object[] popped = popTail(shift, root);
+
+		newRoot = popped == null ? new Object[WIDTH] : popped;
+
+		if (shift > BITS && newRoot[1] == null) {
+			return new ImmutableIntList(size - 1, shift - BITS, (Object[]) newRoot[0], leafFor(size - 2));
+		}
+
+		return new ImmutableIntList(size - 1, shift, newRoot, leafFor(size - 2));
+	}
+
+	/**
+	 * @requires 0 <= i < size()
+	 * @return e_i where this list = [e_0,...,e_n]
+	 */
+	public int get (int i) {
+		assert 0 <= i && i < size : "ImmutableIntList.get(" + i + ")";
+		final int v = size - 1 - i;
+
+		return leafFor(v)[v & MASK];
+	}
+
+	/**
+	 * @requires 0 <= i < size()
+	 * @return [e_0, ..., e_{i-1}, e, e_{i+1}, ..., e_n] where this list = [e_0,...,e_n]
+	 */
+	public ImmutableIntList set (int i, int e) {
+		assert 0 <= i && i < size : "ImmutableIntList.set(" + i + ")";
+		final int v = size - 1 - i;
+
+		if (v >= tailOffset()) {
+			final int[] newTail = Arrays.copyOf(tail, size - tailOffset());
+
+			newTail[v & MASK] = e;
+
+			return new ImmutableIntList(size, shift, root, newTail);
+		}
+
+		return new ImmutableIntList(size, shift, assoc(shift, root, v, e), tail);
+	}
+
+	/**
+	 * @return this list without its first occurrence of e, this list itself if e
+	 * does not occur in it.
+	 */
+	public ImmutableIntList remove (int e) {
+		final int index = indexOf(e);
+		final int[] prefix;
+
+		if (index < 0) {
+			return this;
+		}
+
+		// The elements preceding e, last in the vector, are appended back to the
+		// vector cut before e.
+		prefix = new int[index];
+
+		for (int i = 0; i < index; i++) {
+			prefix[index - 1 - i] = get(i);
+		}
+
+		return take(size - 1 - index).appendAll(prefix, index);
+	}
+
+	/**
+	 * @return the least i such that e_i == e, or -1 if there is none.
+	 */
+	public int indexOf (int e) {
+		final PrimitiveIterator.OfInt it = iterator();
+
+		for (int i = 0; i < size; i++) {
+			if (it.nextInt() == e) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	public boolean contains (int e) {
+		return indexOf(e) >= 0;
+	}
+
+	/**
+	 * @return number of elements in this
+	 */
+	public int size () {
+		return size;
+	}
+
+	/**
+	 * @return true if this contains no elements
+	 */
+	public boolean isEmpty () {
+		return size == 0;
+	}
+
+	/**
+	 * @return an iterator yielding e_0, ..., e_n in order, fetching one leaf for
+	 * every WIDTH elements.
+	 */
+	public PrimitiveIterator.OfInt iterator () {
+		return new PrimitiveIterator.OfInt() {
+			private int v = size - 1;
+			private int[] leaf = null;
+
+			@Override
+			public boolean hasNext () {
+				return v >= 0;
+			}
+
+			@Override
+			public int nextInt () {
+				if (v < 0) {
+					throw new NoSuchElementException();
+				}
+
+				if (leaf == null || (v & MASK) == MASK) {
+					leaf = leafFor(v);
+				}
+
+				return leaf[v-- & MASK];
+			}
+		};
+	}
+
+	/**
+	 * @return a new array of e_0, ..., e_n.
+	 */
+	public int[] toArray () {
+		final int[] result = new int[size];
+		final PrimitiveIterator.OfInt it = iterator();
+
+		for (int i = 0; i < size; i++) {
+			result[i] = it.nextInt();
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return a sequential stream of the elements of this list, in order.
+	 */
+	public IntStream stream () {
+		return StreamSupport.intStream(
+				Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.IMMUTABLE), false
+		);
+	}
+
+	@Override
+	public boolean equals (Object o) {
+		final ImmutableIntList l;
+
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof ImmutableIntList)) {
+			return false;
+		}
+
+		l = (ImmutableIntList) o;
+
+		if (l.size != size) {
+			return false;
+		}
+
+		final PrimitiveIterator.OfInt it = iterator(), other = l.iterator();
+
+		while (it.hasNext()) {
+			if (it.nextInt() != other.nextInt()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the sum of the elements, as the hash code of an ImmutableList of
+	 * the same elements boxed.
+	 */
+	@Override
+	public int hashCode () {
+		int hash = 0;
+
+		for (PrimitiveIterator.OfInt it = iterator(); it.hasNext(); ) {
+			hash += it.nextInt();
+		}
+
+		return hash;
+	}
+
+	@Override
+	public String toString () {
+		return Arrays.toString(toArray());
+	}
+
+	private int tailOffset () {
+		return tailOffset(size);
+	}
+
+	/**
+	 * @return vector index of the first element of the tail of a list of size elements.
+	 */
+	private static int tailOffset (int size) {
+		return size == 0 ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+
+	/**
+	 * @requires 0 <= v < size
+	 * @return the leaf, or the tail, holding the element of vector index v, at v & MASK.
+	 */
+	private int[] leafFor (int v) {
+		Object[] node = root;
+
+		if (v >= tailOffset()) {
+			return tail;
+		}
+
+		for (int level = shift; level > BITS; level -= BITS) {
+			node = (Object[]) node[(v >>> level) & MASK];
+		}
+
+		return (int[]) node[(v >>> BITS) & MASK];
+	}
+
+	/**
+	 * @return this vector with the first length elements of elements appended.
+	 */
+	private ImmutableIntList appendAll (int[] elements, int length) {
+		final int used = size - tailOffset(), n = Math.min(WIDTH - used, length);
+		ImmutableIntList result = this;
+		int i = n;
+
+		// Fill the tail, then move it into the trie a full leaf at a time.
+		if (n > 0) {
+			final int[] newTail = Arrays.copyOf(tail, used + n);
+
+			System.arraycopy(elements, 0, newTail, used, n);
+			result = new ImmutableIntList(size + n, shift, root, newTail);
+		}
+
+		for (; i < length; i += WIDTH) {
+			result = result.pushLeaf(Arrays.copyOfRange(elements, i, Math.min(i + WIDTH, length)));
+		}
+
+		return result;
+	}
+
+	/**
+	 * @requires size > 0, the tail is full, newTail.length <= WIDTH
+	 * @return this vector with its tail moved into the trie, and the elements of
+	 * newTail appended.
+	 */
+	private ImmutableIntList pushLeaf (int[] newTail) {
+		// The trie grows a level if it is full.
+		if ((size >>> BITS) > (1 << shift)) {
+			final Object[] newRoot = new Object[WIDTH];
+
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+
+			return new ImmutableIntList(size + newTail.length, shift + BITS, newRoot, newTail);
+		}
+
+		return new ImmutableIntList(size + newTail.length, shift, pushTail(shift, root), newTail);
+	}
+
+	/**
+	 * @return a copy of node, of the given level, with the path to the current tail added.
+	 */
+	private Object[] pushTail (int level, Object[] node) {
+		final int i = ((size - 1) >>> level) & MASK;
+		final Object[] result = node.clone();
+
+		if (level == BITS) {
+			result[i] = tail;
+		} else {
+			result[i] = node[i] == null ? newPath(level - BITS, tail) : pushTail(level - BITS, (Object[]) node[i]);
+		}
+
+		return result;
+	}
+
+	private static Object newPath (int level, int[] leaf) {
+		Object node = leaf;
+
+		for (; level > 0; level -= BITS) {
+			final Object[] parent = new Object[WIDTH];
+
+			parent[0] = node;
+			node = parent;
+		}
+
+		return node;
+	}
+
+	/**
+	 * @return a copy of node, of the given level, without the path to its last leaf,
+	 * or null if that leaves it empty.
+	 */
+	private Object[] popTail (int level, Object[] node) {
+		final int i = ((size - 2) >>> level) & MASK;
+		final Object[] result;
+
+		if (level > BITS) {
+			final Object[] child = popTail(level - BITS, (Object[]) node[i]);
+
+			if (child == null && i == 0) {
+				return null;
+			}
+
+			result = node.clone();
+			result[i] = child;
+
+			return result;
+		}
+
+		if (i == 0) {
+			return null;
+		}
+
+		result = node.clone();
+		result[i] = null;
+
+		return result;
+	}
+
+	/**
+	 * @requires 0 <= n <= size
+	 * @return the vector of the first n elements of this vector, that is this list
+	 * without its size - n first elements.
+	 */
+	private ImmutableIntList take (int n) {
+		final int offset = tailOffset(n);
+		Object[] newRoot;
+		int newShift = shift;
+
+		if (n == 0) {
+			return new ImmutableIntList();
+		}
+
+		if (offset == 0) {
+			return new ImmutableIntList(n, BITS, new Object[WIDTH], leafFor(n - 1));
+		}
+
+		newRoot = trim(shift, root, offset - 1);
+
+		while (newShift > BITS && offset <= 1 << newShift) {
+			newRoot = (Object[]) newRoot[0];
+			newShift -= BITS;
+		}
+
+		return new ImmutableIntList(n, newShift, newRoot, leafFor(n - 1));
+	}
+
+	/**
+	 * @return a copy of node, of the given level, without the leaves following the
+	 * one holding the element of vector index last.
+	 */
+	private static Object[] trim (int level, Object[] node, int last) {
+		final int i = (last >>> level) & MASK;
+		final Object[] result = new Object[WIDTH];
+
+		System.arraycopy(node, 0, result, 0, i);
+		result[i] = level == BITS ? node[i] : trim(level - BITS, (Object[]) node[i], last);
+
+		return result;
+	}
+
+	private static Object[] assoc (int level, Object[] node, int v, int e) {
+		final Object[] result = node.clone();
+		final int i = (v >>> level) & MASK;
+
+		if (level == BITS) {
+			final int[] leaf = ((int[]) node[i]).clone();
+
+			leaf[v & MASK] = e;
+			result[i] = leaf;
+		} else {
+			result[i] = assoc(level - BITS, (Object[]) node[i], v, e);
+		}
+
+		return result;
+	}
+
+}
@@ -0,0 +1,285 @@
+package immutable.primitive;
+
+import java.util.Arrays;
+
+/**
+ * An immutable map from ints to ints, with the operations of immutable.ImmutableMap
+ * on primitive keys and values: nothing is boxed, and a binding takes a leaf of two
+ * ints rather than a node, a binding and two Integers.<br>
+ * The map is a hash array mapped trie, as ImmutableHashMap, branching on five bits
+ * of a hash of the keys per level. The hash is a bijection of the keys, so distinct
+ * keys never collide, and get, containsKey and put take time proportional to about
+ * log32 of the size of the map; put copies one path of the trie.
+ */
+public final class ImmutableIntMap {
+
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+
+	/*
+	 * Rep invariant
+	 *     root == null iff size == 0
+	 *     every node is a Leaf, or a Branch of at least one child, with one child
+	 *     for every bit of its bitmap, in order of index
+	 *     size is the number of leaves of the trie under root
+	 *
+	 * Abstraction function
+	 *     the bindings key -> value of the leaves of the trie under root
+	 */
+	private final Object root;
+	private final int size;
+
+	public ImmutableIntMap () {
+		this(null, 0);
+	}
+
+	private ImmutableIntMap (Object root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * @return true iff the key k has a value associated with it in this map
+	 */
+	public boolean containsKey (int k) {
+		return find(k) != null;
+	}
+
+	/**
+	 * @return value associated with key k in this map, or otherwise if k is not bound
+	 */
+	public int get (int k, int otherwise) {
+		final Leaf leaf = find(k);
+
+		return leaf == null ? otherwise : leaf.value;
+	}
+
+	/**
+	 * @return new map obtained by binding k to v in this, replacing any existing
+	 * binding for k; this map itself if k is already bound to v
+	 */
+	public ImmutableIntMap put (int k, int v) {
+		final boolean[] added = {false};
+		final Object result;
+
+		if (root == null) {
+			return new ImmutableIntMap(new Leaf(k, v), 1);
+		}
+
+		result = put(root, k, v, hash(k), 0, added);
+
+		return result == root ? this : new ImmutableIntMap(result, added[0] ? size + 1 : size);
+	}
+
+	/**
+	 * @return number of keys bound in this map
+	 */
+	public int size () {
+		return size;
+	}
+
+	/**
+	 * @return true iff this map binds no keys
+	 */
+	public boolean isEmpty () {
+		return size == 0;
+	}
+
+	/**
+	 * @return the keys bound in this map, in no particular order
+	 */
+	public int[] keys () {
+		final int[] result = new int[size];
+
+		collect(root, result, 0);
+
+		return result;
+	}
+
+	@Override
+	public boolean equals (Object o) {
+		final ImmutableIntMap m;
+
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof ImmutableIntMap)) {
+			return false;
+		}
+
+		m = (ImmutableIntMap) o;
+
+		if (m.size != size) {
+			return false;
+		}
+
+		for (int k: keys()) {
+			final Leaf leaf = m.find(k);
+
+			if (leaf == null || leaf.value != get(k, 0)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode () {
+		int hash = 0;
+
+		for (int k: keys()) {
+			hash += k ^ get(k, 0);
+		}
+
+		return hash;
+	}
+
+	@Override
+	public String toString () {
+		final StringBuilder b = new StringBuilder("[");
+		final int[] keys = keys();
+
+		Arrays.sort(keys);
+
+		for (int k: keys) {
+			b.append(b.length() > 1 ? ", " : "").append(k).append("->").append(get(k, 0));
+		}
+
+		return b.append("]").toString();
+	}
+
+	/**
+	 * A bijection of the ints which spreads consecutive keys over the branches of
+	 * every level of the trie.
+	 */
+	private static int hash (int k) {
+		return k * 0x9E3779B9;
+	}
+
+	private static int index (int hash, int shift) {
+		return (hash >>> shift) & MASK;
+	}
+
+	private Leaf find (int k) {
+		final int hash = hash(k);
+		Object node = root;
+
+		for (int shift = 0; node instanceof Branch; shift += BITS) {
+			final Branch branch = (Branch) node;
+			final int bit = 1 << index(hash, shift);
+
+			if ((branch.bitmap & bit) == 0) {
+				return null;
+			}
+
+			node = branch.children[Integer.bitCount(branch.bitmap & (bit - 1))];
+		}
+
+		return node != null && ((Leaf) node).key == k ? (Leaf) node : null;
+	}
+
+	/**
+	 * @return node, of level shift, with k bound to v; node itself if it already is.
+	 * added[0] is set if k was not bound yet.
+	 */
+	private static Object put (Object node, int k, int v, int hash, int shift, boolean[] added) {
+		if (node instanceof Leaf) {
+			final Leaf leaf = (Leaf) node;
+
+			if (leaf.key == k) {
+				return leaf.value == v ? leaf : new Leaf(k, v);
+			}
+
+			added[0] = true;
+
+			return join(leaf, new Leaf(k, v), shift);
+		}
+
+		final Branch branch = (Branch) node;
+		final int bit = 1 << index(hash, shift);
+		final int position = Integer.bitCount(branch.bitmap & (bit - 1));
+		final Object[] children;
+
+		if ((branch.bitmap & bit) == 0) {
+			added[0] = true;
+			children = new Object[branch.children.length + 1];
+			System.arraycopy(branch.children, 0, children, 0, position);
+			System.arraycopy(branch.children, position, children, position + 1, branch.children.length - position);
+			children[position] = new Leaf(k, v);
+
+			return new Branch(branch.bitmap | bit, children);
+		}
+
+		final Object child = put(branch.children[position], k, v, hash, shift + BITS, added);
+
+		if (child == branch.children[position]) {
+			return branch;
+		}
+
+		children = branch.children.clone();
+		children[position] = child;
+
+		return new Branch(branch.bitmap, children);
+	}
+
+	/**
+	 * @requires a.key != b.key
+	 * @return a branch of level shift holding a and b.
+	 */
+	private static Branch join (Leaf a, Leaf b, int shift) {
+		final int i = index(hash(a.key), shift), j = index(hash(b.key), shift);
+
+		if (i == j) {
+			return new Branch(1 << i, new Object[]{join(a, b, shift + BITS)});
+		} else if (i < j) {
+			return new Branch((1 << i) | (1 << j), new Object[]{a, b});
+		} else {
+			return new Branch((1 << i) | (1 << j), new Object[]{b, a});
+		}
+	}
+
+	/**
+	 * Copy the keys under node to keys, from index from.
+	 *
+	 * @return index following the last key copied.
+	 */
+	private static int collect (Object node, int[] keys, int from) {
+		if (node instanceof Leaf) {
+			keys[from++] = ((Leaf) node).key;
+		} else if (node != null) {
+			for (Object child: ((Branch) node).children) {
+				from = collect(child, keys, from);
+			}
+		}
+
+		return from;
+	}
+
+	/**
+	 * A single binding.
+	 */
+	private static final class Leaf {
+		final int key;
+		final int value;
+
+		Leaf (int key, int value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * An inner node, with a child for every bit set in bitmap, in order of index.
+	 */
+	private static final class Branch {
+		final int bitmap;
+		final Object[] children;
+
+		Branch (int bitmap, Object[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+	}
+
+}
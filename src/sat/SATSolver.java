@@ -3,10 +3,27 @@ package sat;
 import immutable.EmptyImmutableList;
 import immutable.ImmutableList;
 import sat.env.Environment;
+import sat.env.Variable;
 import sat.formula.Clause;
 import sat.formula.Formula;
 import sat.formula.Literal;
 import sat.formula.NegatedLiteral;
+import sat.solver.Budget;
+import sat.solver.CubeAndConquer;
+import sat.solver.DratProof;
+import sat.solver.ModelEnumerator;
+import sat.solver.Portfolio;
+import sat.solver.Solver;
+import sat.solver.SolverOptions;
+import sat.solver.SolverResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.stream.Stream;
 
 import static sat.env.Boolean.FALSE;
 import static sat.env.Boolean.TRUE;
@@ -32,8 +49,139 @@ public class SATSolver {
 	}
 
 	/**
-	 * Takes a partial assignment of variables to values, and recursively
-	 * searches for a complete satisfying assignment.
+	 * Solve the problem with the conflict-driven clause-learning engine of
+	 * {@link sat.solver.Solver}, rather than with the DPLL of solve(Formula). The
+	 * contract is the same, except that the returned environment binds every variable
+	 * of the formula.
+	 *
+	 * @return an environment for which the problem evaluates to Bool.TRUE, or
+	 * null if no such environment exists.
+	 */
+	public static Environment solveCDCL (Formula formula) {
+		return new Solver(formula).solve();
+	}
+
+	/**
+	 * Solve the problem with {@link sat.solver.Solver}, configured by options. This
+	 * is how the trail-based SearchMode.DPLL is selected, for instance.
+	 *
+	 * @return an environment for which the problem evaluates to Bool.TRUE, or
+	 * null if no such environment exists.
+	 */
+	public static Environment solve (Formula formula, SolverOptions options) {
+		return new Solver(formula, options).solve();
+	}
+
+	/**
+	 * Solve the problem with {@link sat.solver.Solver}, streaming a proof of
+	 * unsatisfiability in binary DRAT format (see {@link DratProof}) to proof. If
+	 * there is no solution, the proof ends with the empty clause, and can be checked
+	 * against the problem as written by {@link sat.dimacs.Dimacs#write}.
+	 * The channel is left open.
+	 *
+	 * @return an environment for which the problem evaluates to Bool.TRUE, or
+	 * null if no such environment exists.
+	 * @throws IOException if the proof could not be written.
+	 */
+	public static Environment solve (Formula formula, WritableByteChannel proof) throws IOException {
+		try {
+			return new Solver(formula, new SolverOptions(), new DratProof(proof)).solve();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Solve the problem with {@link sat.solver.Solver}, giving up once budget runs
+	 * out: past a deadline, after a number of conflicts or decisions, or once a
+	 * {@link sat.solver.CancellationToken} is cancelled from another thread.
+	 *
+	 * @return SATISFIABLE together with an environment for which the problem
+	 * evaluates to Bool.TRUE, UNSATISFIABLE, or UNKNOWN if the budget ran out first.
+	 */
+	public static SolverResult solve (Formula formula, Budget budget) {
+		return solve(formula, new SolverOptions(), budget);
+	}
+
+	/**
+	 * Solve the problem with {@link sat.solver.Solver} configured by options, giving
+	 * up once budget runs out. The contract is the same as for solve(Formula, Budget).
+	 */
+	public static SolverResult solve (Formula formula, SolverOptions options, Budget budget) {
+		return new Solver(formula, options).solve(budget);
+	}
+
+	/**
+	 * Solve the problem with a {@link sat.solver.Portfolio} of differently configured
+	 * solvers, one per available processor, racing each other. The contract is the
+	 * same as for solveCDCL(Formula).
+	 *
+	 * @return an environment for which the problem evaluates to Bool.TRUE, or
+	 * null if no such environment exists.
+	 * @throws InterruptedException if the calling thread was interrupted while
+	 * waiting for an answer.
+	 */
+	public static Environment solvePortfolio (Formula formula) throws InterruptedException {
+		return solvePortfolio(formula, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Solve the problem with a {@link sat.solver.Portfolio} of the given number of
+	 * solvers.
+	 *
+	 * @requires workers > 0
+	 * @return an environment for which the problem evaluates to Bool.TRUE, or
+	 * null if no such environment exists.
+	 * @throws InterruptedException if the calling thread was interrupted while
+	 * waiting for an answer.
+	 */
+	public static Environment solvePortfolio (Formula formula, int workers) throws InterruptedException {
+		return new Portfolio(formula, workers).solve();
+	}
+
+	/**
+	 * Solve the problem with {@link sat.solver.CubeAndConquer}: split it into cubes of
+	 * up to depth decisions, and solve them in parallel, one thread per available
+	 * processor. The contract is the same as for solveCDCL(Formula).
+	 *
+	 * @requires depth >= 0
+	 * @return an environment for which the problem evaluates to Bool.TRUE, or
+	 * null if no such environment exists.
+	 */
+	public static Environment solveCubeAndConquer (Formula formula, int depth) {
+		return new CubeAndConquer(formula, depth).solve();
+	}
+
+	/**
+	 * Enumerate the models of the problem lazily, each one binding every variable of
+	 * the formula. No two models agree on every variable of projection; so, for
+	 * instance, solveAll(formula, projection).limit(2).count() tells in two solves
+	 * whether the problem has a unique solution up to projection.
+	 *
+	 * @return a sequential stream of environments for which the problem evaluates to
+	 * Bool.TRUE, computed as the stream is consumed.
+	 */
+	public static Stream<Environment> solveAll (Formula formula, Collection<Variable> projection) {
+		return new ModelEnumerator(new Solver(formula), projection).stream();
+	}
+
+	/**
+	 * Enumerate the models of the problem lazily, no two of them agreeing on every
+	 * variable of the formula.
+	 *
+	 * @return a sequential stream of environments for which the problem evaluates to
+	 * Bool.TRUE, computed as the stream is consumed.
+	 */
+	public static Stream<Environment> solveAll (Formula formula) {
+		return new ModelEnumerator(new Solver(formula)).stream();
+	}
+
+	/**
+	 * Takes a partial assignment of variables to values, and searches for a
+	 * complete satisfying assignment.<br>
+	 * The search is depth-first, but runs on an explicit stack of pending branches
+	 * rather than on the call stack, so that its depth is bounded by the heap and not
+	 * by the thread stack size.
 	 *
 	 * @param clauses formula in conjunctive normal form
 	 * @param env     assignment of some or all variables in clauses to true or
@@ -42,56 +190,64 @@ public class SATSolver {
 	 * or null if no such environment exists.
 	 */
 	private static Environment solve (ImmutableList<Clause> clauses, Environment env) {
-		Environment resultEnv;
+		// Branches still to be explored, the most recent on top.
+		final Deque<Branch> pending = new ArrayDeque<>();
+		Branch alternative;
 		Clause shortest;
 		Literal toReduce;
+		boolean conflict;
 
-		if (clauses.isEmpty()) {
-			return env;
-		} else {
-			shortest = clauses.first();
-		}
-
-		/* For performance sake, I'm not going to use the findShortestClause() method below, as I noticed that
-		copy-pasting that code inside the calling method (here) and doing additional, mixed operations, even if a little
-		bit untidy, sensibly speeds up the program. */
-		if (shortest.isEmpty()) {
-			return null;
-		}
-		for (Clause c: clauses.rest()) {
-			if (c.isEmpty()) {
-				return null;
-			} else if (c.size() < shortest.size()) {
-				shortest = c;
+		while (true) {
+			if (clauses.isEmpty()) {
+				return env;
 			}
-		}
 
-		toReduce = shortest.chooseLiteral();
+			/* For performance sake, I'm not going to use the findShortestClause() method below, as I noticed that
+			copy-pasting that code inside the calling method (here) and doing additional, mixed operations, even if a
+			little bit untidy, sensibly speeds up the program. */
+			shortest = clauses.first();
+			conflict = shortest.isEmpty();
 
-		if (shortest.size() == 1) {
-			resultEnv = solve(
-					substitute(clauses, toReduce),
-					env.put(toReduce.getVariable(), (toReduce instanceof NegatedLiteral) ? FALSE: TRUE)
-			);
-		} else {
-			if (toReduce instanceof NegatedLiteral) {
-				resultEnv = solve(substitute(clauses, toReduce), env.putFalse(toReduce.getVariable()));
+			for (Clause c: clauses.rest()) {
+				if (conflict) {
+					break;
+				}
 
-				if (resultEnv == null) {
-					resultEnv = solve(substitute(clauses, toReduce.getNegation()), env.putTrue(toReduce.getVariable()));
+				if (c.isEmpty()) {
+					conflict = true;
+				} else if (c.size() < shortest.size()) {
+					shortest = c;
 				}
-			} else {
-				resultEnv = solve(substitute(clauses, toReduce), env.putTrue(toReduce.getVariable()));
+			}
 
-				if (resultEnv == null) {
-					resultEnv = solve(
-							substitute(clauses, toReduce.getNegation()), env.putFalse(toReduce.getVariable())
-					);
+			if (conflict) {
+				if (pending.isEmpty()) {
+					return null;
 				}
+
+				alternative = pending.pop();
+				clauses = substitute(alternative.clauses, alternative.literal);
+				env = assign(alternative.env, alternative.literal);
+				continue;
 			}
+
+			toReduce = shortest.chooseLiteral();
+
+			// A unit clause leaves no choice; otherwise remember to try the negation if toReduce fails.
+			if (shortest.size() > 1) {
+				pending.push(new Branch(clauses, env, toReduce.getNegation()));
+			}
+
+			clauses = substitute(clauses, toReduce);
+			env = assign(env, toReduce);
 		}
+	}
 
-		return resultEnv;
+	/**
+	 * @return env with the variable of l bound so as to make l true.
+	 */
+	private static Environment assign (Environment env, Literal l) {
+		return env.put(l.getVariable(), (l instanceof NegatedLiteral) ? FALSE: TRUE);
 	}
 
 	/**
@@ -134,4 +290,22 @@ public class SATSolver {
 		return result;
 	}
 
+	/**
+	 * A branch of the search tree not yet explored: the clauses and environment of
+	 * a decision point, and the literal to set to true from there.
+	 */
+	private static class Branch {
+
+		final ImmutableList<Clause> clauses;
+		final Environment env;
+		final Literal literal;
+
+		Branch (ImmutableList<Clause> clauses, Environment env, Literal literal) {
+			this.clauses = clauses;
+			this.env = env;
+			this.literal = literal;
+		}
+
+	}
+
 }
@@ -0,0 +1,89 @@
+package sat.dimacs;
+
+import sat.env.Variable;
+
+/**
+ * A formula in conjunctive normal form stored as flat arrays of DIMACS literals,
+ * as read by {@link Dimacs#read}: variables are numbered from 1, and literal -v is
+ * the negation of variable v. Unlike a {@link sat.formula.Formula}, it takes no
+ * object per clause or literal, so that large instances fit in memory and load
+ * quickly into a {@link sat.solver.Solver}.<br>
+ * Variable v stands for the {@link Variable} named after v, as in
+ * <pre>
+ *     new Variable("17")
+ * </pre>
+ * This datatype is immutable.
+ */
+public class Cnf {
+
+	/*
+	 * Rep invariant
+	 *     starts.length == clauseCount + 1, starts[0] == 0, starts is non-decreasing
+	 *     and starts[clauseCount] <= literals.length
+	 *     every literal l of literals[0 ... starts[clauseCount] - 1] has
+	 *     0 < |l| <= variableCount
+	 *
+	 * Abstraction function
+	 *     the conjunction of clauses 0 ... clauseCount - 1, clause c being the
+	 *     disjunction of literals[starts[c] ... starts[c + 1] - 1]
+	 */
+	private final int variableCount;
+	private final int clauseCount;
+	private final int[] literals;
+	private final int[] starts;
+
+	/**
+	 * @requires the arrays make up a valid representation, and are not modified
+	 * afterwards
+	 */
+	Cnf (int variableCount, int clauseCount, int[] literals, int[] starts) {
+		this.variableCount = variableCount;
+		this.clauseCount = clauseCount;
+		this.literals = literals;
+		this.starts = starts;
+	}
+
+	/**
+	 * @return number of variables, including any declared by the header and never used.
+	 */
+	public int variableCount () {
+		return variableCount;
+	}
+
+	/**
+	 * @return number of clauses.
+	 */
+	public int clauseCount () {
+		return clauseCount;
+	}
+
+	/**
+	 * @requires 0 <= clause < clauseCount()
+	 * @return number of literals of the given clause.
+	 */
+	public int clauseSize (int clause) {
+		return starts[clause + 1] - starts[clause];
+	}
+
+	/**
+	 * @requires 0 <= clause < clauseCount(), 0 <= position < clauseSize(clause)
+	 * @return the DIMACS literal at the given position of the given clause.
+	 */
+	public int literal (int clause, int position) {
+		return literals[starts[clause] + position];
+	}
+
+	/**
+	 * @requires var > 0
+	 * @return the variable numbered var.
+	 */
+	public static Variable variable (int var) {
+		return new Variable(Integer.toString(var));
+	}
+
+	@Override
+	public String toString () {
+		return String.format("Cnf[variables=%d, clauses=%d]", variableCount, clauseCount);
+	}
+
+}
@@ -0,0 +1,279 @@
+package sat.dimacs;
+
+import sat.env.Variable;
+import sat.formula.Clause;
+import sat.formula.Formula;
+import sat.formula.Literal;
+import sat.formula.NegatedLiteral;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reading and writing of formulas in the DIMACS CNF format, the one of the SAT
+ * competitions:
+ * <pre>
+ *     c a comment
+ *     p cnf 3 2
+ *     1 -3 0
+ *     2 3 -1 0
+ * </pre>
+ * The header gives the number of variables and of clauses; then every clause is a
+ * sequence of non-zero integers ended by 0, v standing for variable v and -v for its
+ * negation. Clauses may span lines, or share them.
+ */
+public class Dimacs {
+
+	/**
+	 * Files are mapped this many bytes at a time, since a mapping is indexed by int.
+	 */
+	private static final long WINDOW_SIZE = 1L << 30;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private Dimacs () {
+	}
+
+	/**
+	 * Read a CNF file, through a memory mapping of it. The reader is lenient about
+	 * the counts of the header: a variable above the declared count raises it, and
+	 * the number of clauses is the number found. Everything after a line starting
+	 * with %, as in the SATLIB benchmarks, is ignored.
+	 *
+	 * @return the formula of the file.
+	 * @throws IOException     if the file cannot be read.
+	 * @throws DimacsException if the file is not in DIMACS CNF format.
+	 */
+	public static Cnf read (Path path) throws IOException, DimacsException {
+		final Parser parser = new Parser();
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+
+			for (long position = 0; position < size && !parser.done; position += WINDOW_SIZE) {
+				parser.parse(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position)));
+			}
+		}
+
+		return parser.finish();
+	}
+
+	/**
+	 * Write formula in DIMACS CNF format to out, which is flushed but left open.
+	 * Variables are numbered in order of first appearance in formula, as {@link
+	 * sat.solver.Solver} numbers them too, so that the proofs it records can be
+	 * checked against the output. A comment line before the header gives the name
+	 * of every variable.
+	 *
+	 * @throws IOException if out cannot be written to.
+	 */
+	public static void write (Formula formula, Writer out) throws IOException {
+		final Map<Variable, Integer> ids = new LinkedHashMap<>();
+		final BufferedWriter w = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out, BUFFER_SIZE);
+		int clauses = 0;
+
+		for (Clause c: formula) {
+			clauses++;
+
+			for (Literal l: c) {
+				ids.putIfAbsent(l.getVariable(), ids.size() + 1);
+			}
+		}
+
+		for (Map.Entry<Variable, Integer> e: ids.entrySet()) {
+			w.write("c " + e.getValue() + " " + e.getKey() + "\n");
+		}
+
+		w.write("p cnf " + ids.size() + " " + clauses + "\n");
+
+		for (Clause c: formula) {
+			for (Literal l: c) {
+				if (l instanceof NegatedLiteral) {
+					w.write('-');
+				}
+
+				w.write(Integer.toString(ids.get(l.getVariable())));
+				w.write(' ');
+			}
+
+			w.write("0\n");
+		}
+
+		w.flush();
+	}
+
+	/**
+	 * Write formula in DIMACS CNF format to a file, as write(Formula, Writer) does.
+	 *
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void write (Formula formula, Path path) throws IOException {
+		try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			write(formula, out);
+		}
+	}
+
+	/**
+	 * A push parser of DIMACS CNF, fed a buffer at a time. Tokens may span buffers.
+	 */
+	private static class Parser {
+		/*
+		 * Rep invariant
+		 *     0 == starts[0] <= ... <= starts[clauses] == size <= literals.length
+		 *     header != null iff the header line is being read
+		 *     digits iff a number is being read, its absolute value in value
+		 */
+		int[] literals = new int[BUFFER_SIZE];
+		int size = 0;
+		int[] starts = new int[BUFFER_SIZE];
+		int clauses = 0;
+		int variables = -1;
+
+		int line = 1;
+		boolean lineStart = true;
+		boolean comment = false;
+		boolean done = false;
+		StringBuilder header = null;
+		long value = 0;
+		boolean negative = false;
+		boolean digits = false;
+
+		void parse (ByteBuffer buffer) throws DimacsException {
+			byte b;
+
+			while (buffer.hasRemaining() && !done) {
+				b = buffer.get();
+
+				if (comment) {
+					if (b == '\n') {
+						newLine();
+					}
+				} else if (header != null) {
+					if (b == '\n') {
+						parseHeader();
+						newLine();
+					} else {
+						header.append((char) b);
+					}
+				} else if (b >= '0' && b <= '9') {
+					value = 10 * value + (b - '0');
+					digits = true;
+					lineStart = false;
+
+					if (value > Integer.MAX_VALUE) {
+						throw new DimacsException(line, "variable out of range");
+					}
+				} else if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+					endNumber();
+
+					if (b == '\n') {
+						newLine();
+					}
+				} else if (b == '-' && !digits && !negative) {
+					negative = true;
+					lineStart = false;
+				} else if (lineStart && b == 'c') {
+					comment = true;
+				} else if (lineStart && b == 'p') {
+					header = new StringBuilder("p");
+				} else if (lineStart && b == '%') {
+					done = true;
+				} else {
+					throw new DimacsException(line, String.format("unexpected character '%c'", (char) b));
+				}
+			}
+		}
+
+		Cnf finish () throws DimacsException {
+			if (header != null) {
+				parseHeader();
+			}
+
+			endNumber();
+
+			if (variables < 0) {
+				throw new DimacsException(line, "missing header");
+			}
+			if (size > starts[clauses]) {
+				// The last clause lacks its closing 0.
+				endClause();
+			}
+
+			return new Cnf(variables, clauses, Arrays.copyOf(literals, size), Arrays.copyOf(starts, clauses + 1));
+		}
+
+		private void newLine () {
+			line++;
+			lineStart = true;
+			comment = false;
+		}
+
+		private void parseHeader () throws DimacsException {
+			final String[] fields = header.toString().trim().split("\\s+");
+
+			header = null;
+
+			if (variables >= 0) {
+				throw new DimacsException(line, "duplicate header");
+			}
+			if (fields.length != 4 || !fields[0].equals("p") || !fields[1].equals("cnf")) {
+				throw new DimacsException(line, "malformed header, expected 'p cnf <variables> <clauses>'");
+			}
+
+			try {
+				variables = Integer.parseInt(fields[2]);
+				Integer.parseInt(fields[3]);
+			} catch (NumberFormatException e) {
+				throw new DimacsException(line, "malformed header, expected 'p cnf <variables> <clauses>'");
+			}
+
+			if (variables < 0) {
+				throw new DimacsException(line, "negative number of variables");
+			}
+		}
+
+		private void endNumber () throws DimacsException {
+			if (negative && !digits) {
+				throw new DimacsException(line, "'-' without a number");
+			} else if (digits) {
+				if (variables < 0) {
+					throw new DimacsException(line, "clause before the header");
+				}
+
+				if (value == 0) {
+					endClause();
+				} else {
+					if (size == literals.length) {
+						literals = Arrays.copyOf(literals, 2 * size);
+					}
+
+					literals[size++] = negative ? (int) -value : (int) value;
+					variables = Math.max(variables, (int) value);
+				}
+			}
+
+			value = 0;
+			negative = false;
+			digits = false;
+		}
+
+		private void endClause () {
+			if (clauses + 1 == starts.length) {
+				starts = Arrays.copyOf(starts, 2 * starts.length);
+			}
+
+			starts[++clauses] = size;
+		}
+	}
+
+}
@@ -0,0 +1,14 @@
+package sat.dimacs;
+
+/**
+ * Exception used for signaling grammatical errors in DIMACS CNF files.
+ */
+public class DimacsException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	public DimacsException (int line, String message) {
+		super(String.format("line %d: %s", line, message));
+	}
+
+}
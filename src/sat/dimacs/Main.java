@@ -0,0 +1,73 @@
+package sat.dimacs;
+
+import sat.solver.Budget;
+import sat.solver.DratProof;
+import sat.solver.Solver;
+import sat.solver.SolverOptions;
+import sat.solver.SolverResult;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Solves a DIMACS CNF file, such as a SAT competition instance, and prints the
+ * outcome in the format of the competitions: 's SATISFIABLE' or 's UNSATISFIABLE',
+ * after comment lines telling the time spent parsing and solving and the search
+ * statistics. The model itself is not printed. Given a second file name, a binary
+ * DRAT proof is written to it:
+ * <pre>
+ *     java sat.dimacs.Main instance.cnf [proof.drat]
+ * </pre>
+ */
+public class Main {
+
+	public static void main (String[] args) throws IOException {
+		final long started = System.nanoTime(), parsed;
+		final Cnf cnf;
+		final Solver solver;
+		final SolverResult result;
+		FileChannel proof = null;
+
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Usage: java sat.dimacs.Main <instance.cnf> [<proof.drat>]");
+			System.exit(1);
+		}
+
+		try {
+			cnf = Dimacs.read(Paths.get(args[0]));
+		} catch (DimacsException e) {
+			System.err.println(args[0] + ": " + e.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		parsed = System.nanoTime();
+		System.out.format("c parsed %d variables, %d clauses in %.2fms\n",
+				cnf.variableCount(), cnf.clauseCount(), (parsed - started) / Math.pow(10, 6));
+
+		try {
+			if (args.length == 2) {
+				proof = FileChannel.open(
+						Paths.get(args[1]),
+						StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+				);
+			}
+
+			solver = new Solver(cnf, new SolverOptions(), proof == null ? null : new DratProof(proof));
+			result = solver.solve(Budget.UNLIMITED);
+		} finally {
+			if (proof != null) {
+				proof.close();
+			}
+		}
+
+		System.out.format("c solved in %.2fms\n", (System.nanoTime() - parsed) / Math.pow(10, 6));
+		System.out.println("c " + solver.getStatistics());
+		System.out.println(
+				result.getStatus() == SolverResult.Status.SATISFIABLE ? "s SATISFIABLE" : "s UNSATISFIABLE"
+		);
+	}
+
+}
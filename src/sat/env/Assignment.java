@@ -0,0 +1,192 @@
+package sat.env;
+
+import java.util.Arrays;
+
+import static sat.env.Boolean.FALSE;
+import static sat.env.Boolean.TRUE;
+import static sat.env.Boolean.UNDEFINED;
+
+/**
+ * An immutable three-valued assignment of variables identified by dense int ids,
+ * as exported by {@link Environment#pack}. The assignment is packed in two bit
+ * vectors, one telling which ids are bound and one telling which of those are
+ * true, so that comparing two assignments works on 64 variables per operation
+ * rather than one binding at a time.<br>
+ * Assignments packed with different id mappings cannot be compared meaningfully.
+ */
+public final class Assignment {
+
+	private static final int SHIFT = 6;
+
+	/*
+	 * Rep invariant
+	 *     defined != null, values != null, defined.length == values.length
+	 *     defined.length == 0 or defined[defined.length - 1] != 0
+	 *     values[w] & ~defined[w] == 0 for every word w
+	 *
+	 * Abstraction function
+	 *     id i is bound iff bit i of defined is set, to TRUE iff bit i of values is set
+	 */
+	private final long[] defined;
+	private final long[] values;
+
+	private Assignment (long[] defined, long[] values) {
+		int length = defined.length;
+
+		while (length > 0 && defined[length - 1] == 0) {
+			length--;
+		}
+
+		this.defined = length == defined.length ? defined : Arrays.copyOf(defined, length);
+		this.values = length == values.length ? values : Arrays.copyOf(values, length);
+		checkRepresentation();
+	}
+
+	/**
+	 * Build an assignment from the bound ids and the values of theirs.
+	 *
+	 * @requires ids.length == values.length, every id >= 0, no id repeated,
+	 * no value null
+	 */
+	static Assignment of (int[] ids, Boolean[] values) {
+		int max = -1;
+
+		for (int id: ids) {
+			max = Math.max(max, id);
+		}
+
+		final long[] d = new long[(max >> SHIFT) + 1], v = new long[d.length];
+
+		for (int i = 0; i < ids.length; i++) {
+			if (values[i] != UNDEFINED) {
+				d[ids[i] >> SHIFT] |= 1L << ids[i];
+
+				if (values[i] == TRUE) {
+					v[ids[i] >> SHIFT] |= 1L << ids[i];
+				}
+			}
+		}
+
+		return new Assignment(d, v);
+	}
+
+	/**
+	 * @requires id >= 0
+	 * @return the value of id, UNDEFINED if it is not bound.
+	 */
+	public Boolean get (int id) {
+		final int w = id >> SHIFT;
+
+		if (w >= defined.length || (defined[w] & (1L << id)) == 0) {
+			return UNDEFINED;
+		}
+
+		return (values[w] & (1L << id)) != 0 ? TRUE : FALSE;
+	}
+
+	/**
+	 * @return number of bound ids.
+	 */
+	public int size () {
+		int result = 0;
+
+		for (long word: defined) {
+			result += Long.bitCount(word);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Same as {@link Environment#isEquivalentTo}, one word at a time: every id
+	 * bound in this is bound to the same value in other.
+	 */
+	public boolean isEquivalentTo (Assignment other) {
+		if (other == null) {
+			return false;
+		}
+
+		if (defined.length > other.defined.length) {
+			return false;
+		}
+
+		for (int w = 0; w < defined.length; w++) {
+			if ((defined[w] & ~other.defined[w]) != 0 || ((values[w] ^ other.values[w]) & defined[w]) != 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return in increasing order, the ids which this and other give different
+	 * values, counting UNDEFINED as a value.
+	 */
+	public int[] differences (Assignment other) {
+		final int length = Math.max(defined.length, other.defined.length);
+		int[] result = new int[16];
+		int n = 0;
+
+		for (int w = 0; w < length; w++) {
+			final long d = word(defined, w), e = word(other.defined, w);
+			long diff = (d ^ e) | ((word(values, w) ^ word(other.values, w)) & d & e);
+
+			while (diff != 0) {
+				if (n == result.length) {
+					result = Arrays.copyOf(result, 2 * n);
+				}
+
+				result[n++] = (w << SHIFT) + Long.numberOfTrailingZeros(diff);
+				diff &= diff - 1;
+			}
+		}
+
+		return Arrays.copyOf(result, n);
+	}
+
+	private static long word (long[] words, int w) {
+		return w < words.length ? words[w] : 0;
+	}
+
+	@Override
+	public boolean equals (Object o) {
+		if (!(o instanceof Assignment)) {
+			return false;
+		}
+
+		final Assignment a = (Assignment) o;
+
+		return Arrays.equals(defined, a.defined) && Arrays.equals(values, a.values);
+	}
+
+	@Override
+	public int hashCode () {
+		return 31 * Arrays.hashCode(defined) + Arrays.hashCode(values);
+	}
+
+	@Override
+	public String toString () {
+		final StringBuilder b = new StringBuilder("Assignment:[");
+
+		for (int w = 0; w < defined.length; w++) {
+			for (long bits = defined[w]; bits != 0; bits &= bits - 1) {
+				final int id = (w << SHIFT) + Long.numberOfTrailingZeros(bits);
+
+				b.append(b.length() > "Assignment:[".length() ? ", " : "").append(id).append("->").append(get(id));
+			}
+		}
+
+		return b.append("]").toString();
+	}
+
+	private void checkRepresentation () {
+		assert defined.length == values.length : "Assignment, Rep invariant: lengths match";
+		assert defined.length == 0 || defined[defined.length - 1] != 0 : "Assignment, Rep invariant: trimmed";
+
+		for (int w = 0; w < defined.length; w++) {
+			assert (values[w] & ~defined[w]) == 0 : "Assignment, Rep invariant: values are bound";
+		}
+	}
+
+}
@@ -6,9 +6,12 @@
  */
 package sat.env;
 
-import immutable.ImmutableListMap;
+import immutable.ImmutableHashMap;
+import immutable.ImmutableList;
 import immutable.ImmutableMap;
 
+import java.util.function.ToIntFunction;
+
 import static sat.env.Boolean.UNDEFINED;
 
 /**
@@ -21,6 +24,10 @@ import static sat.env.Boolean.UNDEFINED;
  * to return a boolean value for an unbound variable. But this
  * implementation does not prevent a variable from being explicitly
  * bound to UNDEFINED.
+ * <p>
+ * Bindings are kept in a hash array mapped trie, so get and put take time
+ * logarithmic in base 32 of the number of bindings, and put shares all but one
+ * path of the trie with the environment it extends.
  */
 public class Environment {
 
@@ -28,14 +35,14 @@ public class Environment {
 	 * Rep invariant
 	 *     bindings != null
 	 */
-	private ImmutableMap<Variable, Boolean> bindings;
+	private final ImmutableMap<Variable, Boolean> bindings;
 
 	private Environment (ImmutableMap<Variable, Boolean> bindings) {
 		this.bindings = bindings;
 	}
 
 	public Environment () {
-		this(new ImmutableListMap<>());
+		this(new ImmutableHashMap<>());
 	}
 
 	/**
@@ -111,6 +118,29 @@ public class Environment {
 		return true;
 	}
 
+	/**
+	 * Export this environment as a packed assignment, for comparing many
+	 * environments with each other quickly. ids gives the dense id of every
+	 * variable, as VariableIndex::idOf does; the same mapping must be used for all
+	 * the environments compared.
+	 *
+	 * @requires ids maps distinct variables to distinct ids >= 0
+	 * @return the assignment binding the id of every variable bound here.
+	 */
+	public Assignment pack (ToIntFunction<? super Variable> ids) {
+		final ImmutableList<Variable> keys = bindings.keys();
+		final int[] packedIds = new int[keys.size()];
+		final Boolean[] values = new Boolean[packedIds.length];
+		int i = 0;
+
+		for (Variable v: keys) {
+			packedIds[i] = ids.applyAsInt(v);
+			values[i++] = bindings.get(v);
+		}
+
+		return Assignment.of(packedIds, values);
+	}
+
 	@Override
 	public String toString () {
 		return "Environment:" + bindings;
@@ -56,4 +56,9 @@ public class Variable {
 		return v.name.equals(name);
 	}
 
+	@Override
+	public int hashCode () {
+		return name.hashCode();
+	}
+
 }
@@ -6,11 +6,18 @@
  */
 package sat.formula;
 
-import immutable.EmptyImmutableList;
 import immutable.ImmutableList;
-import immutable.NonEmptyImmutableList;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A class for clauses in a CNF representation of a logic formula.
@@ -18,62 +25,90 @@ import java.util.Iterator;
  * a literal and its negation. (Note: as of the current implementation, it is not anymore true
  * that a clause can not contain a variable and its negation.)
  * <p>
+ * A clause keeps its literals sorted in a canonical order, from the most recently
+ * made literal to the oldest (the order in which clauses built by adding literals
+ * one at a time used to list them), so that equal clauses have equal
+ * representations: equals compares the hash codes, computed once and for all,
+ * before the literals themselves. intern() returns a single canonical instance per
+ * clause, so that equals tells two canonical instances apart in constant time, by
+ * identity; comparing other equal instances stays linear in their size.
+ * <p>
  * Note: reduce returns null; a questionable design decision. (Note from the implementor: wow!, we
  * had the same observation. I was thinking about modifying the code...)
  */
 public class Clause implements Iterable<Literal> {
 
-	private ImmutableList<Literal> literals;
+	private static final Literal[] NO_LITERALS = new Literal[0];
+	private static final Comparator<Literal> CANONICAL_ORDER = Comparator.comparingLong((Literal l) -> l.id).reversed();
+
+	// The canonical instance of every clause interned and still in use. Both keys and
+	// values are held weakly, so that clauses no longer used can be collected.
+	private static final Map<Clause, WeakReference<Clause>> interned = new WeakHashMap<>();
+
+	private final Literal[] literals;
+	private final int hash;
+	// Set once this is the canonical instance returned by intern().
+	private volatile boolean canonical = false;
 
 	public Clause (ImmutableList<Literal> literals) {
-		this.literals = literals;
-		checkRepresentation();
+		this(toArray(literals), -1);
 	}
 
 	public Clause (Literal ... literals) {
-		this.literals = new EmptyImmutableList<>();
-
-		for (Literal l: literals) {
-			this.literals = this.literals.add(l);
-		}
-
-		checkRepresentation();
+		this(literals.clone(), -1);
 	}
 
 	/**
 	 * @return a clause contain a single literal
 	 */
 	public Clause (Literal literal) {
-		this(new NonEmptyImmutableList<>(literal));
-		checkRepresentation();
+		this(new Literal[]{literal}, 1);
 	}
 
 	/**
 	 * @return an empty clause
 	 */
 	public Clause () {
-		this(new EmptyImmutableList<>());
+		this(NO_LITERALS, 0);
+	}
+
+	/**
+	 * Create the clause of literals[0 ... size - 1], or of every literal of literals
+	 * if size == -1.
+	 *
+	 * @requires literals is not used afterwards; and if size != -1,
+	 * literals[0 ... size - 1] is sorted in canonical order without duplicates
+	 */
+	private Clause (Literal[] literals, int size) {
+		int hash = 1;
+
+		this.literals = size == -1 ? canonical(literals) : size == literals.length ? literals : Arrays.copyOf(literals, size);
+
+		for (Literal l: this.literals) {
+			hash = 31 * hash + Long.hashCode(l.id);
+		}
+
+		this.hash = hash;
 		checkRepresentation();
 	}
 
 	/**
 	 * Rep invariant:
 	 *       literals is non null but may be empty
-	 *       contains no duplicate literals
-	 *		 contains no literal and its negation
 	 *       contains no null elements
+	 *       literals is sorted by decreasing id, hence contains no duplicate literals
+	 *       hash is the hash code of the sequence of the ids of literals
 	 *
 	 * Abstraction function:
-	 *     The list of literals l1, l2, ..., ln represents
+	 *     The array of literals l1, l2, ..., ln represents
 	 *     the boolean formula (l1 or l2 or ... or ln)
 	 *
-	 *     For example, if the list contains a, b, !c, d then the
+	 *     For example, if the array contains a, b, !c, d then the
 	 *     corresponding formula is (a or b or !c or d).
 	 */
 	void checkRepresentation () {
 		// check whether assertions are turned on.
-		// if they're not on, we want to avoid all the recursive
-		// traversal that checkRepresentation(literals) would do.
+		// if they're not on, we want to avoid the traversal of the literals.
 		try {
 			assert false;
 		} catch (AssertionError e) {
@@ -81,18 +116,81 @@ public class Clause implements Iterable<Literal> {
 		}
 	}
 
-	void checkRepresentation (ImmutableList<Literal> literals) {
-		assert literals != null : "Clause, Rep invariant: literals non-null";
+	void checkRepresentation (Literal[] literals) {
+		for (int i = 0; i < literals.length; i++) {
+			assert literals[i] != null : "Clause, Rep invariant: no null elements";
+			assert i == 0 || literals[i - 1].id > literals[i].id : "Clause, Rep invariant: sorted, no dups";
+		}
+	}
+
+	private static Literal[] toArray (ImmutableList<Literal> literals) {
+		final Literal[] result = new Literal[literals.size()];
+		int i = 0;
 
-		if (!literals.isEmpty()) {
-			Literal first = literals.first();
-			assert first != null : "Clause, Rep invariant: no null elements";
+		for (Literal l: literals) {
+			result[i++] = l;
+		}
 
-			ImmutableList<Literal> rest = literals.rest();
-			assert !rest.contains(first) : "Clause, Rep invariant: no dups";
-			//assert !rest.contains(first.getNegation()) : "Clause, Rep invariant: no literal and its negation";
+		return result;
+	}
 
-			checkRepresentation(rest);
+	/**
+	 * @return the literals of array in canonical order, without duplicates. array
+	 * itself is sorted in the process.
+	 */
+	private static Literal[] canonical (Literal[] array) {
+		int size = 0;
+
+		Arrays.sort(array, CANONICAL_ORDER);
+
+		for (int i = 0; i < array.length; i++) {
+			if (size == 0 || array[size - 1] != array[i]) {
+				array[size++] = array[i];
+			}
+		}
+
+		return size == array.length ? array : Arrays.copyOf(array, size);
+	}
+
+	/**
+	 * @return the position of l in literals if it is there, otherwise
+	 * -(insertion point) - 1 as with Arrays.binarySearch.
+	 */
+	private int find (Literal l) {
+		int low = 0, high = literals.length - 1, middle;
+
+		while (low <= high) {
+			middle = (low + high) >>> 1;
+
+			if (literals[middle].id > l.id) {
+				low = middle + 1;
+			} else if (literals[middle].id < l.id) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+
+		return -(low + 1);
+	}
+
+	/**
+	 * @return the canonical instance of this clause: a clause equal to this, the same
+	 * one for every equal clause interned, as long as it is in use.
+	 */
+	public Clause intern () {
+		synchronized (interned) {
+			final WeakReference<Clause> reference = interned.get(this);
+			final Clause result = reference == null ? null : reference.get();
+
+			if (result != null) {
+				return result;
+			}
+
+			interned.put(this, new WeakReference<>(this));
+			canonical = true;
+
+			return this;
 		}
 	}
 
@@ -103,7 +201,7 @@ public class Clause implements Iterable<Literal> {
 	 * @return a literal belonging to the clause
 	 */
 	public Literal chooseLiteral () {
-		return literals.first();
+		return literals[0];
 	}
 
 	/**
@@ -124,7 +222,7 @@ public class Clause implements Iterable<Literal> {
 	 * @return number of literals in this clause
 	 */
 	public int size () {
-		return literals.size();
+		return literals.length;
 	}
 
 	/**
@@ -134,7 +232,7 @@ public class Clause implements Iterable<Literal> {
 	 * @return true iff this contains the literal l
 	 */
 	public boolean contains (Literal l) {
-		return literals.contains(l);
+		return find(l) >= 0;
 	}
 
 	/**
@@ -145,14 +243,22 @@ public class Clause implements Iterable<Literal> {
 	 * @return the new clause with the literal added, or null
 	 */
 	public Clause add (Literal l) {
-		if (literals.contains(l)) {
+		final int position = find(l);
+		final Literal[] result;
+
+		if (position >= 0) {
 			return this;
 		}
-		// if (literals.contains(l.getNegation())) {
+		// if (contains(l.getNegation())) {
 		// 	return null;
 		// }
 
-		return new Clause(literals.add(l));
+		result = new Literal[literals.length + 1];
+		System.arraycopy(literals, 0, result, 0, -position - 1);
+		result[-position - 1] = l;
+		System.arraycopy(literals, -position - 1, result, -position, literals.length + position + 1);
+
+		return new Clause(result, result.length);
 	}
 
 	/**
@@ -182,13 +288,28 @@ public class Clause implements Iterable<Literal> {
 	 * @return the merge of this clause and c
 	 */
 	public Clause merge (Clause c) {
-		Clause result = this;
+		final Literal[] result = new Literal[literals.length + c.literals.length];
+		int i = 0, j = 0, size = 0;
+
+		// Both are sorted: merge them as in merge sort.
+		while (i < literals.length || j < c.literals.length) {
+			if (j == c.literals.length || (i < literals.length && literals[i].id > c.literals[j].id)) {
+				result[size++] = literals[i++];
+			} else if (i == literals.length || c.literals[j].id > literals[i].id) {
+				result[size++] = c.literals[j++];
+			} else {
+				result[size++] = literals[i++];
+				j++;
+			}
+		}
 
-		for (Literal l: c) {
-			result = result.add(l);
+		if (size == literals.length) {
+			return this;
+		} else if (size == c.literals.length) {
+			return c;
 		}
 
-		return result;
+		return new Clause(result, size);
 	}
 
 	/**
@@ -196,7 +317,32 @@ public class Clause implements Iterable<Literal> {
 	 * in an arbitrary order
 	 */
 	public Iterator<Literal> iterator () {
-		return literals.iterator();
+		return Arrays.asList(literals).iterator();
+	}
+
+	/**
+	 * @return a sized spliterator of the literals of this clause, which splits
+	 * without copying
+	 */
+	@Override
+	public Spliterator<Literal> spliterator () {
+		return Spliterators.spliterator(
+				literals, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL
+		);
+	}
+
+	/**
+	 * @return a sequential stream of the literals of this clause
+	 */
+	public Stream<Literal> stream () {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * @return a possibly parallel stream of the literals of this clause
+	 */
+	public Stream<Literal> parallelStream () {
+		return StreamSupport.stream(spliterator(), true);
 	}
 
 	/**
@@ -206,40 +352,34 @@ public class Clause implements Iterable<Literal> {
 	 * or null if the entire clause becomes true
 	 */
 	public Clause reduce (Literal literal) {
-		ImmutableList<Literal> reducedLiterals = reduce(literals, literal);
+		final int position;
+		final Literal[] result;
 
-		if (reducedLiterals == null) {
+		if (contains(literal)) {
 			return null;
-		} else {
-			return new Clause(reducedLiterals);
 		}
-	}
 
-	private static ImmutableList<Literal> reduce (ImmutableList<Literal> literals, Literal l) {
-		if (literals.isEmpty()) {
-			return literals;
+		position = find(literal.getNegation());
+
+		if (position < 0) {
+			return this;
 		}
 
-		Literal first = literals.first();
-		ImmutableList<Literal> rest = literals.rest();
+		result = new Literal[literals.length - 1];
+		System.arraycopy(literals, 0, result, 0, position);
+		System.arraycopy(literals, position + 1, result, position, result.length - position);
 
-		if (first.equals(l)) {
-			return null;
-		} else if (first.equals(l.getNegation())) {
-			return rest;
-		} else {
-			ImmutableList<Literal> restR = reduce(rest, l);
+		return new Clause(result, result.length);
+	}
 
-			if (restR == null) {
-				return null;
-			}
+	public String toString () {
+		final StringBuilder b = new StringBuilder("Clause[");
 
-			return restR.add(first);
+		for (int i = 0; i < literals.length; i++) {
+			b.append(i > 0 ? ", " : "").append(literals[i]);
 		}
-	}
 
-	public String toString () {
-		return "Clause" + literals + "\n";
+		return b.append("]\n").toString();
 	}
 
 	@Override
@@ -251,17 +391,17 @@ public class Clause implements Iterable<Literal> {
 
 		Clause c = (Clause) that;
 
-		if (size() != c.size()) {
+		// There is one canonical instance per clause, so two distinct ones differ.
+		if (canonical && c.canonical)
 			return false;
-		}
 
-		for (Literal l: literals) {
-			if (!(c.contains(l))) {
-				return false;
-			}
-		}
+		// Literals are interned, so the arrays of equal clauses hold the same objects.
+		return hash == c.hash && Arrays.equals(literals, c.literals);
+	}
 
-		return true;
+	@Override
+	public int hashCode () {
+		return hash;
 	}
 
 }
@@ -6,12 +6,16 @@
  */
 package sat.formula;
 
-import immutable.EmptyImmutableList;
+import immutable.ImmutableHashMap;
 import immutable.ImmutableList;
-import immutable.NonEmptyImmutableList;
+import immutable.ImmutableMap;
+import immutable.ImmutableVector;
 import sat.env.Variable;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * <p>
@@ -23,8 +27,8 @@ import java.util.Iterator;
  * <p>
  * Point a. of Problem 2.
  *     <ul>
- *         <li>Formula = ImmutableList&lt;Clause&gt;;</li>
- *         <li>Clause = ImmutableList&lt;Literal&gt;;</li>
+ *         <li>Formula = ImmutableList&lt;Clause&gt;, indexed by an ImmutableMap&lt;Clause, Clause&gt;;</li>
+ *         <li>Clause = Literal[], sorted in a canonical order;</li>
  *         <li>Literal = PositiveLiteral(Variable v) + NegativeLiteral(Variable v);</li>
  *     </ul>
  * </p>
@@ -32,7 +36,17 @@ import java.util.Iterator;
  */
 public class Formula implements Iterable<Clause> {
 
+	/**
+	 * Prefix of the names of the auxiliary variables introduced by tseitinOr() and
+	 * tseitinNot(). Variables of other formulas should not use it.
+	 */
+	public static final String AUXILIARY_PREFIX = "#aux";
+
+	private static final AtomicLong auxiliaryCount = new AtomicLong();
+
 	private ImmutableList<Clause> clauses;
+	// Every clause of clauses, bound to itself.
+	private ImmutableMap<Clause, Clause> index;
 
 	/**
 	 * Create a new problem for solving that contains no clauses (that is the
@@ -41,7 +55,8 @@ public class Formula implements Iterable<Clause> {
 	 * @return the true problem.
 	 */
 	public Formula () {
-		clauses = new EmptyImmutableList<>();
+		clauses = new ImmutableVector<>();
+		index = new ImmutableHashMap<>();
 		checkRepresentation();
 	}
 
@@ -52,36 +67,61 @@ public class Formula implements Iterable<Clause> {
 	 * @return the problem with a single clause containing the literal l.
 	 */
 	public Formula (Variable l) {
-		clauses = new NonEmptyImmutableList<>(new Clause(PositiveLiteral.make(l)));
-		checkRepresentation();
+		this();
+		insert(new Clause(PositiveLiteral.make(l)));
 	}
 
+	/**
+	 * Create a new problem with the clauses of the list, in the same order, once
+	 * each.
+	 */
 	public Formula (ImmutableList<Clause> clauses) {
-		this.clauses = clauses;
+		final Clause[] array = new Clause[clauses.size()];
+		int i = 0;
+
+		this.clauses = new ImmutableVector<>();
+		this.index = new ImmutableHashMap<>();
+
+		for (Clause c: clauses) {
+			array[i++] = c;
+		}
+
+		// Lists grow at the front: add the last clause first.
+		while (i > 0) {
+			insert(array[--i]);
+		}
+
 		checkRepresentation();
 	}
 
 	public Formula (Clause... clauses) {
-		this.clauses = new EmptyImmutableList<>();
+		this();
 
 		for (Clause c: clauses) {
-			this.clauses = this.clauses.add(c);
+			insert(c);
 		}
+	}
 
+	private Formula (ImmutableList<Clause> clauses, ImmutableMap<Clause, Clause> index) {
+		this.clauses = clauses;
+		this.index = index;
 		checkRepresentation();
 	}
 
 	/**
 	 * <p>
 	 * Rep invariant:
-	 *      clauses != null
+	 *      clauses != null, index != null
 	 *      clauses contains no null elements (ensured by spec of ImmutableList)
+	 *      clauses contains no duplicates, and only interned clauses
+	 *      index binds exactly the clauses of clauses, each one to itself
 	 * </p>
 	 *
 	 * <p>
-	 * Note: although a formula is intended to be a set,
-	 * the list may include duplicate clauses without any problems.
-	 * The cost of ensuring that the list has no duplicates is not worth paying.
+	 * Note: a formula is intended to be a set, and duplicate clauses are dropped as
+	 * they are added, through a lookup in index. So redundant clauses, such as those
+	 * of the overlapping constraints of a puzzle or those that merges yield more
+	 * than once, never reach a solver.
 	 *
 	 *    Abstraction function:
 	 *        The list of clauses c1, c2, ..., cn represents
@@ -92,19 +132,42 @@ public class Formula implements Iterable<Clause> {
 	 * </p>
 	 */
 	private void checkRepresentation () {
-		if (clauses == null) {
+		if (clauses == null || index == null) {
 			throw new IllegalStateException("clauses must not be null");
 		}
+
+		assert clauses.size() == index.size() : "Formula, Rep invariant: no duplicates";
+	}
+
+	/**
+	 * Add c to the clauses of this formula, unless it is already there. Only meant
+	 * for formulas under construction, since it modifies this.
+	 */
+	private void insert (Clause c) {
+		if (!index.containsKey(c)) {
+			c = c.intern();
+			clauses = clauses.add(c);
+			index = index.put(c, c);
+		}
 	}
 
 	/**
 	 * Add a clause to this problem.<br>
 	 * The current instance is not modified.<br>
 	 *
-	 * @return a new problem with the clauses of this, but c added.
+	 * @return a new problem with the clauses of this, but c added; this itself if it
+	 * already has c.
 	 */
 	public Formula addClause (Clause c) {
-		return new Formula(clauses.add(c));
+		final Clause canonical;
+
+		if (index.containsKey(c)) {
+			return this;
+		}
+
+		canonical = c.intern();
+
+		return new Formula(clauses.add(canonical), index.put(canonical, canonical));
 	}
 
 	/**
@@ -117,7 +180,7 @@ public class Formula implements Iterable<Clause> {
 	}
 
 	public boolean contains (Clause c) {
-		return clauses.contains(c);
+		return index.containsKey(c);
 	}
 
 	/**
@@ -130,16 +193,41 @@ public class Formula implements Iterable<Clause> {
 		return clauses.iterator();
 	}
 
+	/**
+	 * @return a sized spliterator of the clauses of this, which splits without
+	 * copying.
+	 */
+	@Override
+	public Spliterator<Clause> spliterator () {
+		return clauses.spliterator();
+	}
+
+	/**
+	 * @return a sequential stream of the clauses of this.
+	 */
+	public Stream<Clause> stream () {
+		return clauses.stream();
+	}
+
+	/**
+	 * Stream of clauses for passes over large formulas, run on the common
+	 * ForkJoinPool.<br>
+	 *
+	 * @return a possibly parallel stream of the clauses of this.
+	 */
+	public Stream<Clause> parallelStream () {
+		return clauses.parallelStream();
+	}
+
 	/**
 	 * @param p Formula instance in CNF.
 	 * @return a new problem corresponding to the conjunction of this and p.
 	 */
 	public Formula and (Formula p) {
-		final Formula result = new Formula();
-		result.clauses = this.clauses;
+		final Formula result = new Formula(clauses, index);
 
 		for (Clause c: p) {
-			result.clauses = result.clauses.add(c);
+			result.insert(c);
 		}
 
 		return result;
@@ -196,6 +284,89 @@ public class Formula implements Iterable<Clause> {
 		return result;
 	}
 
+	/**
+	 * Like or(), but linear in the size of this and p instead of quadratic, and so
+	 * usable on large formulas, or repeatedly: a fresh auxiliary variable x selects
+	 * which side has to hold, the result being
+	 * <pre>
+	 *     (¬x v c1) ^ ... ^ (¬x v cn) ^ (x v d1) ^ ... ^ (x v dm)
+	 * </pre>
+	 * for the clauses c1 ... cn of this and d1 ... dm of p (Plaisted-Greenbaum
+	 * encoding). The result is equisatisfiable with the disjunction rather than
+	 * equivalent to it: an environment satisfies the disjunction iff it can be
+	 * extended over the auxiliary variable to satisfy the result. No variable is
+	 * introduced when either side has at most one clause, since distributing is
+	 * linear then.
+	 *
+	 * @param p Formula instance in CNF.
+	 * @return a new problem equisatisfiable with the disjunction of this and p.
+	 */
+	public Formula tseitinOr (Formula p) {
+		final Literal x;
+		Formula result = new Formula();
+
+		if (clauses.size() <= 1 || p.clauses.size() <= 1) {
+			return or(p);
+		}
+
+		x = auxiliary();
+
+		for (Clause c: clauses) {
+			result = result.addClause(c.add(x.getNegation()));
+		}
+		for (Clause d: p.clauses) {
+			result = result.addClause(d.add(x));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Like not(), but linear in the size of this instead of exponential: the
+	 * negation of every clause ci of more than one literal is named by a fresh
+	 * auxiliary variable yi, implying the negation of each of its literals, and the
+	 * result requires one of the negated clauses to hold:
+	 * <pre>
+	 *     (y1 v ... v yn) ^ (¬y1 v ¬l) for every literal l of c1 ^ ...
+	 * </pre>
+	 * Clauses of a single literal l take ¬l in place of their yi. As for
+	 * tseitinOr(), the result is equisatisfiable with the negation of this rather
+	 * than equivalent to it. Unlike not(), the negation of the empty formula, which
+	 * is true, is false: the formula of the empty clause.
+	 *
+	 * @return a new problem equisatisfiable with the negation of this.
+	 */
+	public Formula tseitinNot () {
+		Formula result = new Formula();
+		Clause some = new Clause();
+		Literal y;
+
+		for (Clause c: clauses) {
+			if (c.isEmpty()) {
+				// The negation of false is true.
+				return new Formula();
+			} else if (c.isUnit()) {
+				some = some.add(c.chooseLiteral().getNegation());
+			} else {
+				y = auxiliary();
+				some = some.add(y);
+
+				for (Literal l: c) {
+					result = result.addClause(new Clause(y.getNegation(), l.getNegation()));
+				}
+			}
+		}
+
+		return result.addClause(some);
+	}
+
+	/**
+	 * @return the positive literal of a variable never returned before.
+	 */
+	private static Literal auxiliary () {
+		return PositiveLiteral.make(AUXILIARY_PREFIX + auxiliaryCount.incrementAndGet());
+	}
+
 	/**
 	 * @return number of clauses in this.
 	 */
@@ -216,20 +387,32 @@ public class Formula implements Iterable<Clause> {
 
 		cThat = (Formula) that;
 
+		// Neither has duplicates: same size and inclusion make the same set.
+		if (getSize() != cThat.getSize()) {
+			return false;
+		}
+
 		for (Clause c: clauses) {
 			if (!cThat.contains(c)) {
 				return false;
 			}
 		}
-		for (Clause c: cThat.clauses) {
-			if (!this.contains(c)) {
-				return false;
-			}
-		}
 
 		return true;
 	}
 
+	@Override
+	public int hashCode () {
+		int result = 0;
+
+		// Order-independent, as equals is.
+		for (Clause c: clauses) {
+			result += c.hashCode();
+		}
+
+		return result;
+	}
+
 	/**
 	 * @return string representation of this formula.
 	 */
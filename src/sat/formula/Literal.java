@@ -21,6 +21,11 @@ public abstract class Literal {
 	// Not private, so it can be set in PositiveLiteral's factory method.
 	Literal negation;
 
+	// Rank of this literal in the canonical order of the literals of a clause: 2 * n
+	// for the nth positive literal made, 2 * n + 1 for its negation. Set along with negation.
+	// A long, so that ids are never reused however many literals are made and collected.
+	long id;
+
 	/**
 	 * Rep invariant:
 	 * 		this.negation.negation == this
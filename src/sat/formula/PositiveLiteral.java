@@ -6,22 +6,33 @@
  */
 package sat.formula;
 
-import immutable.ImmutableListMap;
-import immutable.ImmutableMap;
 import sat.env.Variable;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Class representing positive literals.
  * Works with NegatedLiteral to ensure interning of literals.
- * PositiveLiteral objects are immutable.
+ * PositiveLiteral objects are immutable.<br>
+ * The table of interned literals is a concurrent hash map, so that make takes
+ * constant time and can be called from many threads at once; it holds literals
+ * weakly, so that the literals of problems no longer in use are collected rather
+ * than kept for as long as the program runs.
  */
 public class PositiveLiteral extends Literal {
 
 	/*
 	 * Mapping of positive literals that have already been allocated, keyed on their names
-	 * Invariant: non null, and no key or value is null
+	 * Invariant: non null, and no key or value is null; a cleared reference is
+	 * removed once it shows up in collected
 	 */
-	static ImmutableMap<String, PositiveLiteral> allocatedPosLiterals = new ImmutableListMap<String, PositiveLiteral>();
+	private static final ConcurrentHashMap<String, Entry> allocatedPosLiterals = new ConcurrentHashMap<>();
+	private static final ReferenceQueue<PositiveLiteral> collected = new ReferenceQueue<>();
+	// Number of literals ever allocated, which ranks them for Literal.id.
+	private static final AtomicLong allocatedCount = new AtomicLong();
 
 	private PositiveLiteral (String name) {
 		super(name);
@@ -34,22 +45,68 @@ public class PositiveLiteral extends Literal {
 	/**
 	 * Factory method. Preserves the invariant that only one object
 	 * will exist to represent a literal of a given name.
+	 * Safe to call from several threads.
 	 *
 	 * @return the positive literal with the given name
 	 */
 	public static PositiveLiteral make (String name) {
-		PositiveLiteral literal = allocatedPosLiterals.get(name);
+		final Entry entry = allocatedPosLiterals.get(name);
+		PositiveLiteral literal = entry == null ? null : entry.get();
+
 		if (literal == null) {
-			literal = new PositiveLiteral(name);
-			NegatedLiteral negated = new NegatedLiteral(name);
-			literal.negation = negated;
-			negated.negation = literal;
-			allocatedPosLiterals = allocatedPosLiterals.put(name, literal);
+			// Keeps the literal reachable between its creation and the return.
+			final PositiveLiteral[] made = new PositiveLiteral[1];
+
+			purge();
+			allocatedPosLiterals.compute(name, (key, old) -> {
+				made[0] = old == null ? null : old.get();
+
+				if (made[0] == null) {
+					made[0] = allocate(key);
+					return new Entry(made[0]);
+				}
+
+				return old;
+			});
+			literal = made[0];
 		}
+
+		return literal;
+	}
+
+	private static PositiveLiteral allocate (String name) {
+		final PositiveLiteral literal = new PositiveLiteral(name);
+		final NegatedLiteral negated = new NegatedLiteral(name);
+
+		literal.negation = negated;
+		negated.negation = literal;
+		literal.id = 2 * allocatedCount.getAndIncrement();
+		negated.id = literal.id + 1;
 		literal.checkRepresentation();
+
 		return literal;
 	}
 
+	/**
+	 * Drop the entries of the literals collected since the last call.
+	 */
+	private static void purge () {
+		Entry e;
+
+		while ((e = (Entry) collected.poll()) != null) {
+			allocatedPosLiterals.remove(e.name, e);
+		}
+	}
+
+	private static final class Entry extends WeakReference<PositiveLiteral> {
+		final String name;
+
+		Entry (PositiveLiteral literal) {
+			super(literal, collected);
+			this.name = literal.getVariable().getName();
+		}
+	}
+
 	public String toString () {
 		return var.toString();
 	}
@@ -0,0 +1,44 @@
+package sat.solver;
+
+/**
+ * Base class of the activity-based heuristics: branch on the unassigned variable
+ * of highest activity, as kept by a {@link VariableOrder}. Subclasses decide how
+ * activities grow and decay.<br>
+ * Decisions take the polarity the variable was last assigned, or the default
+ * {@link Polarity} of the solver options if phase saving is off or the variable was
+ * never assigned.
+ */
+abstract class ActivityHeuristic implements BranchingHeuristic {
+
+	protected final VariableOrder order = new VariableOrder();
+
+	@Override
+	public void newVariable (int var) {
+		order.grow(var);
+		order.insert(var);
+	}
+
+	@Override
+	public void unassigned (int var) {
+		if (!order.contains(var)) {
+			order.insert(var);
+		}
+	}
+
+	@Override
+	public int pick (SearchState state) {
+		int var;
+
+		// Assigned variables are only dropped lazily, when they surface at the top.
+		while (!order.isEmpty()) {
+			var = order.removeMax();
+
+			if (!state.isAssigned(var)) {
+				return state.phase(var);
+			}
+		}
+
+		return Lit.UNDEF;
+	}
+
+}
@@ -0,0 +1,42 @@
+package sat.solver;
+
+/**
+ * A BranchingHeuristic decides which literal the solver assigns next when
+ * propagation has reached a fixpoint.<br>
+ * The solver notifies its heuristic of every variable it creates, of every variable
+ * involved in a conflict and of every variable it unassigns, so that activity-based
+ * heuristics can keep their orderings up to date incrementally. Static heuristics
+ * are free to ignore the notifications and work off the SearchState alone.<br>
+ * A heuristic belongs to a single solver: see {@link SolverOptions#withHeuristic}
+ * for how to have one created per solve.
+ */
+public interface BranchingHeuristic {
+
+	/**
+	 * Called when the solver creates variable var. Variables are created in
+	 * increasing order, starting from 0.
+	 */
+	void newVariable (int var);
+
+	/**
+	 * Called for every variable taking part in the analysis of a conflict.
+	 */
+	void bump (int var);
+
+	/**
+	 * Called once at the end of each conflict analysis.
+	 */
+	void decay ();
+
+	/**
+	 * Called for every variable unassigned by backtracking.
+	 */
+	void unassigned (int var);
+
+	/**
+	 * @return an unassigned literal to branch on, or Lit.UNDEF if every
+	 * variable of state is assigned.
+	 */
+	int pick (SearchState state);
+
+}
@@ -0,0 +1,143 @@
+package sat.solver;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Budget is an immutable set of limits on a single solve: a wall-clock deadline,
+ * budgets of conflicts and decisions, and a {@link CancellationToken}. A solve
+ * exceeding any of them gives up with SolverResult.Status.UNKNOWN.<br>
+ * The no-argument constructor yields no limit at all; as for {@link SolverOptions},
+ * every with*() method returns a copy with a single limit changed:
+ * <pre>
+ *     new Budget().withTimeout(Duration.ofSeconds(2)).withConflicts(100000)
+ * </pre>
+ * Conflicts and decisions are counted from the start of each solve.
+ */
+public class Budget {
+
+	/**
+	 * The budget of solves that run until they find an answer, unless interrupted.
+	 */
+	public static final Budget UNLIMITED = new Budget();
+
+	/*
+	 * Rep invariant
+	 *     conflicts >= 0, decisions >= 0
+	 *
+	 * Long.MAX_VALUE stands for no limit, in every field; deadline is in milliseconds
+	 * since the epoch, as given by System.currentTimeMillis().
+	 */
+	private long conflicts = Long.MAX_VALUE;
+	private long decisions = Long.MAX_VALUE;
+	private long deadline = Long.MAX_VALUE;
+	private CancellationToken cancellation = null;
+
+	public Budget () {
+	}
+
+	private Budget (Budget other) {
+		this.conflicts = other.conflicts;
+		this.decisions = other.decisions;
+		this.deadline = other.deadline;
+		this.cancellation = other.cancellation;
+	}
+
+	/**
+	 * @return the number of conflicts a solve may meet, Long.MAX_VALUE if unlimited.
+	 */
+	public long getConflicts () {
+		return conflicts;
+	}
+
+	/**
+	 * @requires conflicts >= 0
+	 * @return a copy of this budget allowing the given number of conflicts.
+	 */
+	public Budget withConflicts (long conflicts) {
+		final Budget result = new Budget(this);
+		result.conflicts = conflicts;
+
+		return result;
+	}
+
+	/**
+	 * @return the number of decisions a solve may take, Long.MAX_VALUE if unlimited.
+	 */
+	public long getDecisions () {
+		return decisions;
+	}
+
+	/**
+	 * @requires decisions >= 0
+	 * @return a copy of this budget allowing the given number of decisions.
+	 */
+	public Budget withDecisions (long decisions) {
+		final Budget result = new Budget(this);
+		result.decisions = decisions;
+
+		return result;
+	}
+
+	/**
+	 * @return the instant by which a solve must be over, or null if there is none.
+	 */
+	public Instant getDeadline () {
+		return deadline == Long.MAX_VALUE ? null : Instant.ofEpochMilli(deadline);
+	}
+
+	/**
+	 * @requires deadline != null
+	 * @return a copy of this budget with the given deadline.
+	 */
+	public Budget withDeadline (Instant deadline) {
+		final Budget result = new Budget(this);
+		result.deadline = deadline.toEpochMilli();
+
+		return result;
+	}
+
+	/**
+	 * Note that the deadline is set from the time this method is called, not from
+	 * the start of the solve.
+	 *
+	 * @requires timeout != null
+	 * @return a copy of this budget with a deadline timeout from now.
+	 */
+	public Budget withTimeout (Duration timeout) {
+		return withDeadline(Instant.now().plus(timeout));
+	}
+
+	/**
+	 * @return the token through which solves can be cancelled, or null if there is none.
+	 */
+	public CancellationToken getCancellation () {
+		return cancellation;
+	}
+
+	/**
+	 * @requires cancellation != null
+	 * @return a copy of this budget which gives up once cancellation is cancelled.
+	 */
+	public Budget withCancellation (CancellationToken cancellation) {
+		final Budget result = new Budget(this);
+		result.cancellation = cancellation;
+
+		return result;
+	}
+
+	/**
+	 * @return true iff the deadline is past or the token cancelled.
+	 */
+	boolean isExpired () {
+		return (cancellation != null && cancellation.isCancelled())
+				|| (deadline != Long.MAX_VALUE && System.currentTimeMillis() >= deadline);
+	}
+
+	@Override
+	public String toString () {
+		return "Budget[conflicts=" + conflicts + ", decisions=" + decisions + ", deadline=" + getDeadline()
+				+ ", cancellation=" + cancellation + "]";
+	}
+
+}
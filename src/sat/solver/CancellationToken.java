@@ -0,0 +1,27 @@
+package sat.solver;
+
+/**
+ * A flag through which any thread can ask the solves given a {@link Budget} holding
+ * this token to give up. Solvers check it as they propagate, so that even a single
+ * long propagation is cut short.<br>
+ * Once cancelled, a token stays cancelled: every later solve using it gives up
+ * right away.<br>
+ * This datatype is thread-safe.
+ */
+public class CancellationToken {
+
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Make every solve using this token return SolverResult.Status.UNKNOWN as soon as
+	 * it notices.
+	 */
+	public void cancel () {
+		cancelled = true;
+	}
+
+	public boolean isCancelled () {
+		return cancelled;
+	}
+
+}
@@ -0,0 +1,163 @@
+package sat.solver;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The clauses of a {@link Solver}, problem and learned ones alike, stored back to
+ * back in a single int array rather than as one object each. A clause is referred
+ * to by the index of its header in the array; the header is followed by the integer
+ * literals of the clause (see {@link Lit}):
+ * <pre>
+ *     | size | lbd, deleted, learnt | activity | literal 0 | ... | literal size - 1 |
+ * </pre>
+ * so that propagation walks primitive memory, with the literals of a clause next to
+ * its header, and adding a clause costs no allocation once the array has grown.
+ * The activity is a float, stored through its bits.<br>
+ * Deleted clauses stay in place, wasting their words, until compact() slides the
+ * live ones down over them; compacting changes the references of the clauses.<br>
+ * This datatype is mutable and not thread-safe.
+ */
+final class ClauseArena {
+
+	/**
+	 * Reference to no clause, as the reason of a decision or of a unit clause.
+	 */
+	static final int NONE = -1;
+
+	static final int HEADER_SIZE = 3;
+
+	private static final int SIZE = 0, FLAGS = 1, ACTIVITY = 2;
+	private static final int LEARNT = 1, DELETED = 2, LBD_SHIFT = 2;
+	private static final int DEFAULT_CAPACITY = 1 << 10;
+
+	/*
+	 * Rep invariant
+	 *     0 <= top <= memory.length
+	 *     memory[0 ... top - 1] is a sequence of clauses, each one a header followed
+	 *     by memory[c + SIZE] >= 2 literals
+	 *     wasted == sum of HEADER_SIZE + size over the deleted clauses
+	 */
+	private int[] memory = new int[DEFAULT_CAPACITY];
+	private int top = 0;
+	private int wasted = 0;
+
+	/**
+	 * Add a clause of the first size literals of lits.
+	 *
+	 * @requires 2 <= size <= lits.length, lbd >= 0
+	 * @return the reference of the new clause.
+	 */
+	int allocate (int[] lits, int size, boolean learnt, int lbd) {
+		final int c = top;
+
+		if (top + HEADER_SIZE + size > memory.length) {
+			memory = Arrays.copyOf(memory, Math.max(2 * memory.length, top + HEADER_SIZE + size));
+		}
+
+		memory[c + SIZE] = size;
+		memory[c + FLAGS] = (lbd << LBD_SHIFT) | (learnt ? LEARNT : 0);
+		memory[c + ACTIVITY] = Float.floatToRawIntBits(0);
+		System.arraycopy(lits, 0, memory, c + HEADER_SIZE, size);
+		top += HEADER_SIZE + size;
+
+		return c;
+	}
+
+	/**
+	 * @return the array the clauses are stored in, literal i of clause c sitting at
+	 * index c + HEADER_SIZE + i. It is replaced as the arena grows or is compacted,
+	 * so it is only valid until the next call to allocate() or compact().
+	 */
+	int[] memory () {
+		return memory;
+	}
+
+	int size (int c) {
+		return memory[c + SIZE];
+	}
+
+	/**
+	 * @requires 0 <= i < size(c)
+	 */
+	int literal (int c, int i) {
+		return memory[c + HEADER_SIZE + i];
+	}
+
+	/**
+	 * @return a copy of the literals of c.
+	 */
+	int[] literals (int c) {
+		return Arrays.copyOfRange(memory, c + HEADER_SIZE, c + HEADER_SIZE + memory[c + SIZE]);
+	}
+
+	boolean isLearnt (int c) {
+		return (memory[c + FLAGS] & LEARNT) != 0;
+	}
+
+	boolean isDeleted (int c) {
+		return (memory[c + FLAGS] & DELETED) != 0;
+	}
+
+	/**
+	 * Flag c as deleted; its words are reclaimed by the next compaction.
+	 */
+	void delete (int c) {
+		memory[c + FLAGS] |= DELETED;
+		wasted += HEADER_SIZE + memory[c + SIZE];
+	}
+
+	int lbd (int c) {
+		return memory[c + FLAGS] >>> LBD_SHIFT;
+	}
+
+	void setLbd (int c, int lbd) {
+		memory[c + FLAGS] = (lbd << LBD_SHIFT) | (memory[c + FLAGS] & (LEARNT | DELETED));
+	}
+
+	float activity (int c) {
+		return Float.intBitsToFloat(memory[c + ACTIVITY]);
+	}
+
+	void setActivity (int c, float activity) {
+		memory[c + ACTIVITY] = Float.floatToRawIntBits(activity);
+	}
+
+	/**
+	 * @return true if deleted clauses take up enough of the arena to be worth a
+	 * compaction, that is more than a fifth of it.
+	 */
+	boolean shouldCompact () {
+		return wasted > top / 5;
+	}
+
+	/**
+	 * Reclaim the words of the deleted clauses, sliding the live ones down in order.
+	 *
+	 * @return a function from the reference of every live clause before compaction
+	 * to its reference after; it must not be applied to deleted clauses.
+	 */
+	IntUnaryOperator compact () {
+		final IntVec from = new IntVec(), to = new IntVec();
+		int free = 0, length;
+
+		for (int c = 0; c < top; c += length) {
+			length = HEADER_SIZE + memory[c + SIZE];
+
+			if (!isDeleted(c)) {
+				from.push(c);
+				to.push(free);
+				System.arraycopy(memory, c, memory, free, length);
+				free += length;
+			}
+		}
+
+		top = free;
+		wasted = 0;
+
+		final int[] before = from.toArray(), after = to.toArray();
+
+		return c -> after[Arrays.binarySearch(before, c)];
+	}
+
+}
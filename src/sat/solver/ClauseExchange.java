@@ -0,0 +1,95 @@
+package sat.solver;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A lock-free buffer through which the workers of a {@link Portfolio} share short
+ * learned clauses.<br>
+ * Clauses are published into a ring of CAPACITY slots, in the order given by a
+ * shared counter; each reader walks the ring with its own cursor. A writer never
+ * waits for readers: a reader that falls more than CAPACITY clauses behind just
+ * skips the ones overwritten in the meantime. Losing a shared clause is harmless,
+ * since sharing only speeds the search up.<br>
+ * Clauses are exchanged as arrays of integer literals (see {@link Lit}), so every
+ * worker must number the variables the same way, as solvers created from the same
+ * formula do.<br>
+ * This datatype is thread-safe.
+ */
+class ClauseExchange {
+
+	private static final int CAPACITY = 1 << 12;
+
+	/**
+	 * A published clause, together with its position in the sequence of all
+	 * published clauses and the worker it comes from.
+	 */
+	private static class Entry {
+		final long sequence;
+		final int source;
+		final int[] literals;
+
+		Entry (long sequence, int source, int[] literals) {
+			this.sequence = sequence;
+			this.source = source;
+			this.literals = literals;
+		}
+	}
+
+	/*
+	 * Rep invariant
+	 *     the entry in slots[i], if any, has sequence % CAPACITY == i, and
+	 *     sequence < published
+	 *
+	 * Abstraction function
+	 *     the last CAPACITY published clauses, of which those still being written
+	 *     are not visible yet
+	 */
+	private final AtomicReferenceArray<Entry> slots = new AtomicReferenceArray<>(CAPACITY);
+	private final AtomicLong published = new AtomicLong();
+
+	/**
+	 * Make lits available to the other workers.
+	 *
+	 * @requires lits is not modified afterwards
+	 */
+	void publish (int source, int[] lits) {
+		final long sequence = published.getAndIncrement();
+
+		slots.set((int) (sequence % CAPACITY), new Entry(sequence, source, lits));
+	}
+
+	/**
+	 * @return the current position of the writers, from which a new reader starts.
+	 */
+	long head () {
+		return published.get();
+	}
+
+	/**
+	 * Pass to consumer every clause published by a worker other than reader, from
+	 * position cursor on.
+	 *
+	 * @return the position to resume reading from.
+	 */
+	long read (int reader, long cursor, Consumer<int[]> consumer) {
+		final long head = published.get();
+		Entry entry;
+
+		// Clauses older than CAPACITY positions from the head may be overwritten.
+		for (cursor = Math.max(cursor, head - CAPACITY); cursor < head; cursor++) {
+			entry = slots.get((int) (cursor % CAPACITY));
+
+			if (entry == null || entry.sequence < cursor) {
+				// Claimed, but not written yet: resume from here next time.
+				return cursor;
+			} else if (entry.sequence == cursor && entry.source != reader) {
+				consumer.accept(entry.literals);
+			}
+		}
+
+		return cursor;
+	}
+
+}
@@ -0,0 +1,359 @@
+package sat.solver;
+
+import sat.env.Environment;
+import sat.formula.Formula;
+import sat.formula.Literal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A parallel solver which splits the search space of a formula into cubes, that is
+ * conjunctions of literals, and solves every cube on a {@link ForkJoinPool}.<br>
+ * Splitting is a lookahead DPLL, run down to a cutoff depth: on every node, the
+ * CANDIDATES unassigned variables occurring in most clauses are probed both ways,
+ * and the one whose two branches propagate most (by the product of their trail
+ * growths) is branched on. Probing also finds failed literals, whose propagation
+ * conflicts: their negation is added to the cube, and a node with a variable failing
+ * both ways is refuted right away.<br>
+ * Each pool thread then solves cubes as assumptions on a CDCL {@link Solver} of its
+ * own, which keeps its learned clauses from cube to cube. The cubes are divided
+ * among the threads recursively, so idle threads steal halves of the cubes left to
+ * busy ones. The first satisfiable cube stops every other one.<br>
+ * This datatype is not thread-safe: solve() may only be running on one thread at a
+ * time.
+ */
+public class CubeAndConquer {
+
+	/**
+	 * Number of variables probed on every node of the splitting tree.
+	 */
+	private static final int CANDIDATES = 32;
+
+	// Result of lookahead() on a node found unsatisfiable.
+	private static final int REFUTED = -2;
+
+	/**
+	 * What it took to solve one cube.
+	 */
+	public static class CubeStatistics {
+		private final List<Literal> cube;
+		private final SolverResult.Status result;
+		private final long time;
+
+		private CubeStatistics (List<Literal> cube, SolverResult.Status result, long time) {
+			this.cube = cube;
+			this.result = result;
+			this.time = time;
+		}
+
+		/**
+		 * @return the literals of the cube, decisions and failed literals alike.
+		 */
+		public List<Literal> getCube () {
+			return cube;
+		}
+
+		/**
+		 * @return the outcome of the cube, UNKNOWN if it was cancelled because
+		 * another cube was satisfiable.
+		 */
+		public SolverResult.Status getResult () {
+			return result;
+		}
+
+		/**
+		 * @return wall time spent solving the cube, in nanoseconds.
+		 */
+		public long getTime () {
+			return time;
+		}
+
+		@Override
+		public String toString () {
+			return String.format("%s %s %.2fms", cube, result, time / Math.pow(10, 6));
+		}
+	}
+
+	/*
+	 * Rep invariant
+	 *     formula != null, options != null
+	 *     depth >= 0, parallelism > 0
+	 */
+	private final Formula formula;
+	private final SolverOptions options;
+	private final int depth;
+	private final int parallelism;
+	private final List<CubeStatistics> cubeStatistics = new ArrayList<>();
+
+	/**
+	 * Create a cube-and-conquer solver using the default solver options and one
+	 * thread per available processor.
+	 *
+	 * @requires depth >= 0
+	 * @param depth cutoff depth of splitting: the number of decisions in every cube
+	 */
+	public CubeAndConquer (Formula formula, int depth) {
+		this(formula, depth, new SolverOptions(), Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Create a cube-and-conquer solver.
+	 *
+	 * @requires depth >= 0, parallelism > 0, !options.isPreprocessing() (cubes may
+	 * not mention eliminated variables)
+	 * @param depth       cutoff depth of splitting: the number of decisions in every cube
+	 * @param options     options of the solvers of the cubes
+	 * @param parallelism number of threads solving cubes
+	 */
+	public CubeAndConquer (Formula formula, int depth, SolverOptions options, int parallelism) {
+		this.formula = formula;
+		this.depth = depth;
+		this.options = options;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Split the formula into cubes, and solve them until one is satisfiable.
+	 *
+	 * @return an environment for which the formula evaluates to Boolean.TRUE, or
+	 * null if no such environment exists.
+	 */
+	public Environment solve () {
+		final Solver splitter = new Solver(formula, options);
+		final List<int[]> cubes = new ArrayList<>();
+		final ForkJoinPool pool;
+		final Conquest conquest;
+
+		cubeStatistics.clear();
+
+		if (!splitter.isOk()) {
+			return null;
+		}
+
+		split(splitter, rankVariables(splitter), new IntVec(), 0, cubes);
+
+		pool = new ForkJoinPool(parallelism);
+		conquest = new Conquest(splitter);
+
+		try {
+			pool.invoke(conquest.task(cubes, 0, cubes.size()));
+		} finally {
+			pool.shutdownNow();
+		}
+
+		cubeStatistics.addAll(conquest.statistics);
+
+		return conquest.model.get();
+	}
+
+	/**
+	 * @return how each cube of the last call to solve() went, in no particular order.
+	 */
+	public List<CubeStatistics> getCubeStatistics () {
+		return Collections.unmodifiableList(cubeStatistics);
+	}
+
+	/**
+	 * Split the subtree under the current node of splitter, whose literals are cube,
+	 * appending its cubes to cubes.
+	 *
+	 * @param decisions number of literals of cube that are branching decisions
+	 */
+	private void split (Solver splitter, int[] ranking, IntVec cube, int decisions, List<int[]> cubes) {
+		final int level = splitter.decisionLevel(), size = cube.size();
+		int branch = Lit.UNDEF;
+
+		if (decisions < depth) {
+			branch = lookahead(splitter, ranking, cube);
+		}
+
+		if (branch == Lit.UNDEF) {
+			cubes.add(cube.toArray());
+		} else if (branch != REFUTED) {
+			for (int lit: new int[]{branch, Lit.not(branch)}) {
+				cube.push(lit);
+
+				if (splitter.assume(lit)) {
+					split(splitter, ranking, cube, decisions + 1, cubes);
+				}
+
+				splitter.backtrack(level);
+				cube.shrink(size);
+			}
+		}
+
+		// Undo the failed literals lookahead may have added to the cube.
+		splitter.backtrack(level);
+		cube.shrink(size);
+	}
+
+	/**
+	 * Probe the best ranked unassigned variables both ways. The negation of every
+	 * failed literal is assumed on a level of its own, and pushed on cube; since
+	 * this invalidates the scores of the other variables, probing then starts over,
+	 * until a round finds no failed literal.
+	 *
+	 * @return the literal to branch on, Lit.UNDEF if there is none left, or REFUTED
+	 * if the current node has been refuted.
+	 */
+	private int lookahead (Solver splitter, int[] ranking, IntVec cube) {
+		long score, bestScore;
+		int best, probed, positive, negative;
+		boolean failed;
+
+		do {
+			bestScore = -1;
+			best = Lit.UNDEF;
+			probed = 0;
+			failed = false;
+
+			for (int i = 0; i < ranking.length && probed < CANDIDATES; i++) {
+				if (splitter.isAssigned(ranking[i])) {
+					continue;
+				}
+
+				positive = probe(splitter, Lit.make(ranking[i], false));
+				negative = probe(splitter, Lit.make(ranking[i], true));
+				probed++;
+
+				if (positive < 0 && negative < 0) {
+					return REFUTED;
+				} else if (positive < 0 || negative < 0) {
+					cube.push(Lit.make(ranking[i], positive < 0));
+					failed = true;
+
+					if (!splitter.assume(cube.last())) {
+						return REFUTED;
+					}
+				} else {
+					score = (long) (positive + 1) * (negative + 1);
+
+					if (score > bestScore) {
+						bestScore = score;
+						best = Lit.make(ranking[i], negative > positive);
+					}
+				}
+			}
+		} while (failed);
+
+		return best;
+	}
+
+	/**
+	 * @return number of literals assigned by propagating lit, or -1 if it fails.
+	 */
+	private static int probe (Solver splitter, int lit) {
+		final int level = splitter.decisionLevel(), before = splitter.trailSize();
+		final int result = splitter.assume(lit) ? splitter.trailSize() - before : -1;
+
+		splitter.backtrack(level);
+
+		return result;
+	}
+
+	/**
+	 * @return every variable, from the one occurring in most clauses down.
+	 */
+	private static int[] rankVariables (Solver splitter) {
+		final int[] occurrences = new int[splitter.variableCount()];
+		final Integer[] order = new Integer[splitter.variableCount()];
+		final int[] result = new int[order.length];
+
+		for (int c = 0; c < splitter.clauseCount(); c++) {
+			for (int i = 0; i < splitter.clauseSize(c); i++) {
+				occurrences[Lit.var(splitter.literal(c, i))]++;
+			}
+		}
+		for (int v = 0; v < order.length; v++) {
+			order[v] = v;
+		}
+
+		Arrays.sort(order, (v, w) -> Integer.compare(occurrences[w], occurrences[v]));
+
+		for (int v = 0; v < order.length; v++) {
+			result[v] = order[v];
+		}
+
+		return result;
+	}
+
+	/**
+	 * The state shared by the tasks solving the cubes of one call to solve().
+	 */
+	private class Conquest {
+		final Solver splitter;
+		final AtomicReference<Environment> model = new AtomicReference<>();
+		final ConcurrentLinkedQueue<CubeStatistics> statistics = new ConcurrentLinkedQueue<>();
+		// Every solver working on a cube, so that they can be interrupted.
+		final ConcurrentLinkedQueue<Solver> solvers = new ConcurrentLinkedQueue<>();
+		final ThreadLocal<Solver> solver = ThreadLocal.withInitial(this::newSolver);
+
+		Conquest (Solver splitter) {
+			this.splitter = splitter;
+		}
+
+		private Solver newSolver () {
+			final Solver result = new Solver(formula, options);
+
+			solvers.add(result);
+
+			if (model.get() != null) {
+				result.interrupt();
+			}
+
+			return result;
+		}
+
+		/**
+		 * @return a task solving cubes from index from to index to, excluded.
+		 */
+		RecursiveAction task (List<int[]> cubes, int from, int to) {
+			return new RecursiveAction() {
+				@Override
+				protected void compute () {
+					final int middle;
+
+					if (to - from > 1) {
+						middle = (from + to) >>> 1;
+						invokeAll(task(cubes, from, middle), task(cubes, middle, to));
+					} else if (to - from == 1) {
+						solveCube(cubes.get(from));
+					}
+				}
+			};
+		}
+
+		private void solveCube (int[] cube) {
+			final long started = System.nanoTime();
+			final Solver s = solver.get();
+			// An interrupt only stops the solve it reaches, so the cubes left once a
+			// model is found are not solved at all.
+			final SolverResult result = model.get() != null ? null : s.solve(cube, Budget.UNLIMITED);
+			final List<Literal> literals = new ArrayList<>();
+
+			for (int lit: cube) {
+				literals.add(splitter.toLiteral(lit));
+			}
+
+			if (result != null && result.getModel() != null && model.compareAndSet(null, result.getModel())) {
+				for (Solver other: solvers) {
+					other.interrupt();
+				}
+			}
+
+			statistics.add(new CubeStatistics(
+					literals,
+					result == null ? SolverResult.Status.UNKNOWN : result.getStatus(),
+					System.nanoTime() - started
+			));
+		}
+	}
+
+}
@@ -0,0 +1,23 @@
+package sat.solver;
+
+/**
+ * Dynamic Largest Individual Sum, as in GRASP: branch on the literal occurring in
+ * the largest number of clauses not yet satisfied.
+ */
+public class DLISHeuristic extends OccurrenceHeuristic {
+
+	@Override
+	protected void weigh (SearchState state) {
+		for (int c = 0; c < state.clauseCount(); c++) {
+			if (openSize(state, c) >= 0) {
+				credit(state, c, 1);
+			}
+		}
+	}
+
+	@Override
+	public String toString () {
+		return "DLIS";
+	}
+
+}
@@ -0,0 +1,118 @@
+package sat.solver;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A sink for a proof of unsatisfiability in binary DRAT format, as checked by
+ * drat-trim: see https://github.com/marijnheule/drat-trim<br>
+ * Every clause added to or deleted from the clause database of a {@link Solver} in
+ * CDCL mode is recorded as a byte 'a' or 'd', then its literals, then a 0 byte.
+ * Literal l of DIMACS variable v is written as the unsigned number 2v, plus one if
+ * l is negated, in 7-bit groups, least significant first, the high bit of each byte
+ * telling whether another group follows. Variable v of the proof is the v-th
+ * variable met by the solver, in the order the clauses were given to it.<br>
+ * Records are buffered, and only reach the channel when the buffer fills up or on
+ * flush(); the channel is never closed by this class.<br>
+ * This datatype is mutable and not thread-safe.
+ */
+public class DratProof implements Flushable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private static final byte ADD = 'a', DELETE = 'd';
+
+	/*
+	 * Rep invariant
+	 *     channel != null
+	 *
+	 * Abstraction function
+	 *     the records written to channel, followed by those in buffer from 0 to
+	 *     buffer.position()
+	 */
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private long size = 0;
+
+	/**
+	 * Create a proof written to channel.
+	 */
+	public DratProof (WritableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * Record the addition of the clause of lits, which must follow from the
+	 * clauses recorded so far by reverse unit propagation.
+	 *
+	 * @throws UncheckedIOException if the channel could not be written to.
+	 */
+	void add (int[] lits) {
+		write(ADD, lits);
+	}
+
+	/**
+	 * Record the deletion of the clause of lits.
+	 *
+	 * @throws UncheckedIOException if the channel could not be written to.
+	 */
+	void delete (int[] lits) {
+		write(DELETE, lits);
+	}
+
+	/**
+	 * @return number of bytes of proof recorded so far, flushed or not.
+	 */
+	public long size () {
+		return size;
+	}
+
+	/**
+	 * Write every buffered record to the channel.
+	 */
+	@Override
+	public void flush () throws IOException {
+		buffer.flip();
+
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+
+		buffer.clear();
+	}
+
+	private void write (byte kind, int[] lits) {
+		put(kind);
+
+		for (int l: lits) {
+			// Our literal 2v + n is DIMACS variable v + 1, so it is written as l + 2.
+			for (int u = l + 2; ; u >>>= 7) {
+				if ((u & ~0x7f) == 0) {
+					put((byte) u);
+					break;
+				}
+
+				put((byte) (u & 0x7f | 0x80));
+			}
+		}
+
+		put((byte) 0);
+	}
+
+	private void put (byte b) {
+		if (!buffer.hasRemaining()) {
+			try {
+				flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		buffer.put(b);
+		size++;
+	}
+
+}
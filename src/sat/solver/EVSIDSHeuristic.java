@@ -0,0 +1,36 @@
+package sat.solver;
+
+/**
+ * Exponential VSIDS, as in MiniSat: rather than periodically decaying every
+ * activity, the bump increment grows by 1 / DECAY after each conflict, which
+ * amounts to decaying all activities at once by DECAY. Activities are rescaled
+ * before they can overflow.
+ */
+public class EVSIDSHeuristic extends ActivityHeuristic {
+
+	private static final double DECAY = 0.95;
+	private static final double RESCALE_LIMIT = 1e100;
+
+	private double increment = 1;
+
+	@Override
+	public void bump (int var) {
+		order.bump(var, increment);
+
+		if (order.activity(var) > RESCALE_LIMIT) {
+			order.rescale(1 / RESCALE_LIMIT);
+			increment /= RESCALE_LIMIT;
+		}
+	}
+
+	@Override
+	public void decay () {
+		increment /= DECAY;
+	}
+
+	@Override
+	public String toString () {
+		return "EVSIDS";
+	}
+
+}
@@ -0,0 +1,36 @@
+package sat.solver;
+
+/**
+ * Restart after FIRST conflicts, then after FACTOR times as many conflicts as the
+ * previous run, and so on.
+ */
+public class GeometricRestartPolicy implements RestartPolicy {
+
+	private static final double FIRST = 100;
+	private static final double FACTOR = 1.5;
+
+	private long conflicts = 0;
+	private double limit = FIRST;
+
+	@Override
+	public void conflict (int lbd, int trailSize) {
+		conflicts++;
+	}
+
+	@Override
+	public boolean shouldRestart () {
+		return conflicts >= limit;
+	}
+
+	@Override
+	public void restarted () {
+		conflicts = 0;
+		limit *= FACTOR;
+	}
+
+	@Override
+	public String toString () {
+		return "geometric";
+	}
+
+}
@@ -0,0 +1,94 @@
+package sat.solver;
+
+/**
+ * Dynamic restarts as in Glucose: restart as soon as the clauses learned over the
+ * last LBD_WINDOW conflicts are markedly worse, by literal block distance, than the
+ * average of all clauses learned so far, the sign that the current branch is
+ * unproductive.<br>
+ * Restarts are blocked when the trail is much longer than usual at a conflict,
+ * which suggests the solver is close to a model.
+ */
+public class GlucoseRestartPolicy implements RestartPolicy {
+
+	private static final int LBD_WINDOW = 50;
+	private static final double K = 0.8;
+	private static final int TRAIL_WINDOW = 5000;
+	private static final double R = 1.4;
+	private static final int BLOCKING_MIN_CONFLICTS = 10000;
+
+	private final BoundedQueue recentLbds = new BoundedQueue(LBD_WINDOW);
+	private final BoundedQueue recentTrails = new BoundedQueue(TRAIL_WINDOW);
+	private long lbdSum = 0;
+	private long conflicts = 0;
+
+	@Override
+	public void conflict (int lbd, int trailSize) {
+		conflicts++;
+		lbdSum += lbd;
+
+		if (conflicts > BLOCKING_MIN_CONFLICTS && recentLbds.isFull() && recentTrails.isFull()
+				&& trailSize > R * recentTrails.average()) {
+			recentLbds.clear();
+		}
+
+		recentLbds.push(lbd);
+		recentTrails.push(trailSize);
+	}
+
+	@Override
+	public boolean shouldRestart () {
+		return recentLbds.isFull() && recentLbds.average() * K > (double) lbdSum / conflicts;
+	}
+
+	@Override
+	public void restarted () {
+		recentLbds.clear();
+	}
+
+	@Override
+	public String toString () {
+		return "glucose";
+	}
+
+	/**
+	 * A fixed-capacity FIFO of ints that keeps the running sum of its elements,
+	 * dropping the oldest one when full.
+	 */
+	private static class BoundedQueue {
+
+		private final int[] elements;
+		private int first = 0, size = 0;
+		private long sum = 0;
+
+		BoundedQueue (int capacity) {
+			elements = new int[capacity];
+		}
+
+		void push (int e) {
+			if (isFull()) {
+				sum -= elements[first];
+				first = (first + 1) % elements.length;
+				size--;
+			}
+
+			elements[(first + size++) % elements.length] = e;
+			sum += e;
+		}
+
+		boolean isFull () {
+			return size == elements.length;
+		}
+
+		double average () {
+			return (double) sum / size;
+		}
+
+		void clear () {
+			first = 0;
+			size = 0;
+			sum = 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,37 @@
+package sat.solver;
+
+import java.util.function.Supplier;
+
+/**
+ * The branching heuristics shipped with the solver, usable wherever a
+ * {@code Supplier<BranchingHeuristic>} is expected, as in
+ * <pre>
+ *     new SolverOptions().withHeuristic(Heuristic.DLIS)
+ * </pre>
+ */
+public enum Heuristic implements Supplier<BranchingHeuristic> {
+
+	VSIDS, EVSIDS, DLIS, MOMS, JEROSLOW_WANG;
+
+	/**
+	 * @return a fresh instance of this heuristic.
+	 */
+	@Override
+	public BranchingHeuristic get () {
+		switch (this) {
+			case VSIDS:
+				return new VSIDSHeuristic();
+			case EVSIDS:
+				return new EVSIDSHeuristic();
+			case DLIS:
+				return new DLISHeuristic();
+			case MOMS:
+				return new MOMSHeuristic();
+			case JEROSLOW_WANG:
+				return new JeroslowWangHeuristic();
+			default:
+				throw new AssertionError(this);
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+package sat.solver;
+
+import java.util.Arrays;
+
+/**
+ * A growable array of primitive ints, used throughout the solver in place of
+ * {@code ArrayList<Integer>} so that the hot loops never box their elements.<br>
+ * This datatype is mutable and not thread-safe.
+ */
+public class IntVec {
+
+	private static final int DEFAULT_CAPACITY = 4;
+
+	/*
+	 * Rep invariant
+	 *     data != null
+	 *     0 <= size <= data.length
+	 */
+	private int[] data;
+	private int size;
+
+	public IntVec () {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public IntVec (int capacity) {
+		data = new int[Math.max(capacity, 1)];
+		size = 0;
+	}
+
+	/**
+	 * Appends e to the end of this vector.
+	 */
+	public void push (int e) {
+		if (size == data.length) {
+			data = Arrays.copyOf(data, data.length * 2);
+		}
+
+		data[size++] = e;
+	}
+
+	/**
+	 * @requires this vector is nonempty
+	 * @return the last element, which is also removed from this vector.
+	 */
+	public int pop () {
+		return data[--size];
+	}
+
+	/**
+	 * @requires this vector is nonempty
+	 * @return the last element of this vector.
+	 */
+	public int last () {
+		return data[size - 1];
+	}
+
+	/**
+	 * @requires 0 <= i < size()
+	 */
+	public int get (int i) {
+		return data[i];
+	}
+
+	/**
+	 * @requires 0 <= i < size()
+	 */
+	public void set (int i, int e) {
+		data[i] = e;
+	}
+
+	/**
+	 * Drops every element at index newSize or beyond.
+	 *
+	 * @requires 0 <= newSize <= size()
+	 */
+	public void shrink (int newSize) {
+		size = newSize;
+	}
+
+	public void clear () {
+		size = 0;
+	}
+
+	public int size () {
+		return size;
+	}
+
+	public boolean isEmpty () {
+		return size == 0;
+	}
+
+	/**
+	 * @return a copy of the elements of this vector, in order.
+	 */
+	public int[] toArray () {
+		return Arrays.copyOf(data, size);
+	}
+
+	@Override
+	public String toString () {
+		return Arrays.toString(toArray());
+	}
+
+}
@@ -0,0 +1,33 @@
+package sat.solver;
+
+/**
+ * The two-sided Jeroslow-Wang rule: each open clause of n unassigned literals
+ * credits each of them with 2^-n, so that short clauses dominate; the solver
+ * branches on the variable of highest total, in its higher-scoring polarity.
+ */
+public class JeroslowWangHeuristic extends OccurrenceHeuristic {
+
+	@Override
+	protected void weigh (SearchState state) {
+		int size;
+
+		for (int c = 0; c < state.clauseCount(); c++) {
+			size = openSize(state, c);
+
+			if (size > 0) {
+				credit(state, c, Math.pow(2, -size));
+			}
+		}
+	}
+
+	@Override
+	protected int select (SearchState state) {
+		return selectVariable(state);
+	}
+
+	@Override
+	public String toString () {
+		return "Jeroslow-Wang";
+	}
+
+}
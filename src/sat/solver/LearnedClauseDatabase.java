@@ -0,0 +1,199 @@
+package sat.solver;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The store of the clauses learned by a {@link Solver}, which would otherwise grow
+ * with every conflict for as long as the search lasts.<br>
+ * Each learned clause carries its LBD (literal block distance, lower is better) and
+ * an activity bumped whenever the clause takes part in a conflict. Every so often,
+ * the worse half of the clauses is deleted, ranked by LBD and then by activity.
+ * The clauses themselves live in the {@link ClauseArena} of the solver, which keeps
+ * their LBD and activity in their headers; this store holds their references:
+ * <ul>
+ *     <li>a reduction is due every REDUCE_FIRST conflicts at first, the interval
+ *     growing by REDUCE_INCREMENT after each reduction, so that the database grows
+ *     slowly over long runs;</li>
+ *     <li>a reduction is also due whenever the learned clauses hold more literals
+ *     than the cap set through {@link SolverOptions#withLearnedLiteralsLimit}. If
+ *     the clauses a reduction cannot delete already exceed the cap, the next such
+ *     reduction waits until as many literals as the cap have been learned again;</li>
+ *     <li>core clauses, whose LBD is at most CORE_LBD, are kept forever.</li>
+ * </ul>
+ * This datatype is mutable and not thread-safe.
+ */
+class LearnedClauseDatabase {
+
+	static final int CORE_LBD = 2;
+
+	private static final int REDUCE_FIRST = 2000;
+	private static final int REDUCE_INCREMENT = 300;
+	private static final double ACTIVITY_DECAY = 0.999;
+	private static final double RESCALE_LIMIT = 1e20;
+
+	/*
+	 * Rep invariant
+	 *     clauses holds references to learned clauses of arena, none of them deleted
+	 *     literals == sum of the sizes of clauses
+	 *     literalsTrigger >= literalsLimit
+	 */
+	private final ClauseArena arena;
+	private final IntVec clauses = new IntVec();
+	private final long literalsLimit;
+	private long literals = 0;
+	private long literalsTrigger;
+	private double increment = 1;
+
+	private long conflictsUntilReduction = REDUCE_FIRST;
+	private long reductionInterval = REDUCE_FIRST;
+
+	/**
+	 * @param literalsLimit number of learned literals beyond which clauses are deleted,
+	 *                      however recent the last reduction.
+	 */
+	LearnedClauseDatabase (ClauseArena arena, long literalsLimit) {
+		this.arena = arena;
+		this.literalsLimit = literalsLimit;
+		this.literalsTrigger = literalsLimit;
+	}
+
+	/**
+	 * @requires c is a learned clause of the arena
+	 */
+	void add (int c) {
+		clauses.push(c);
+		literals += arena.size(c);
+	}
+
+	/**
+	 * Raise the activity of c, which took part in a conflict.
+	 */
+	void bump (int c) {
+		arena.setActivity(c, (float) (arena.activity(c) + increment));
+
+		if (arena.activity(c) > RESCALE_LIMIT) {
+			for (int i = 0; i < clauses.size(); i++) {
+				arena.setActivity(clauses.get(i), (float) (arena.activity(clauses.get(i)) / RESCALE_LIMIT));
+			}
+			increment /= RESCALE_LIMIT;
+		}
+	}
+
+	/**
+	 * Called once per conflict: ages every activity at once, by growing the increment.
+	 */
+	void decay () {
+		increment /= ACTIVITY_DECAY;
+		conflictsUntilReduction--;
+	}
+
+	/**
+	 * @return true if reduce() should be called now.
+	 */
+	boolean shouldReduce () {
+		return conflictsUntilReduction <= 0 || literals > literalsTrigger;
+	}
+
+	/**
+	 * Delete the worse half of the clauses that are neither core nor locked. Deleted
+	 * clauses are flagged as such in the arena, and are left for the caller to detach.
+	 *
+	 * @param locked   tells the clauses that must be kept, because they are the reason
+	 *                 of an assignment on the trail.
+	 * @param deletion is told every clause deleted.
+	 * @return number of clauses deleted.
+	 */
+	int reduce (IntPredicate locked, IntConsumer deletion) {
+		final int[] candidates;
+		final long[] ranks;
+		long threshold;
+		int size = 0, deleted = 0, ties = 0;
+
+		for (int i = 0; i < clauses.size(); i++) {
+			if (arena.lbd(clauses.get(i)) > CORE_LBD && !locked.test(clauses.get(i))) {
+				size++;
+			}
+		}
+
+		candidates = new int[size];
+		size = 0;
+
+		for (int i = 0; i < clauses.size(); i++) {
+			if (arena.lbd(clauses.get(i)) > CORE_LBD && !locked.test(clauses.get(i))) {
+				candidates[size++] = clauses.get(i);
+			}
+		}
+
+		ranks = new long[candidates.length];
+
+		for (int i = 0; i < candidates.length; i++) {
+			ranks[i] = rank(candidates[i]);
+		}
+
+		Arrays.sort(ranks);
+
+		// The worse half: every rank below that of the last clause of the half, and as
+		// many clauses of that very rank as fit.
+		threshold = candidates.length / 2 > 0 ? ranks[candidates.length / 2 - 1] : Long.MIN_VALUE;
+
+		for (int i = 0; i < candidates.length / 2; i++) {
+			if (ranks[i] == threshold) {
+				ties++;
+			}
+		}
+
+		for (int c: candidates) {
+			if (rank(c) < threshold || (rank(c) == threshold && ties-- > 0)) {
+				arena.delete(c);
+				literals -= arena.size(c);
+				deleted++;
+				deletion.accept(c);
+			}
+		}
+
+		size = 0;
+
+		for (int i = 0; i < clauses.size(); i++) {
+			if (!arena.isDeleted(clauses.get(i))) {
+				clauses.set(size++, clauses.get(i));
+			}
+		}
+
+		clauses.shrink(size);
+		reductionInterval += REDUCE_INCREMENT;
+		conflictsUntilReduction = reductionInterval;
+		literalsTrigger = literals > literalsLimit ? literals + literalsLimit : literalsLimit;
+
+		return deleted;
+	}
+
+	/**
+	 * @return a rank of c, lower for worse clauses: highest LBD first, then lowest
+	 * activity. Activities are non-negative, so their bits order them as floats.
+	 */
+	private long rank (int c) {
+		return ((long) (Integer.MAX_VALUE - arena.lbd(c)) << 32) | Float.floatToRawIntBits(arena.activity(c));
+	}
+
+	/**
+	 * Follow a compaction of the arena.
+	 *
+	 * @param relocation maps the old reference of every clause held to its new one.
+	 */
+	void relocate (IntUnaryOperator relocation) {
+		for (int i = 0; i < clauses.size(); i++) {
+			clauses.set(i, relocation.applyAsInt(clauses.get(i)));
+		}
+	}
+
+	/**
+	 * @return number of learned clauses currently held.
+	 */
+	int size () {
+		return clauses.size();
+	}
+
+}
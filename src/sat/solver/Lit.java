@@ -0,0 +1,68 @@
+package sat.solver;
+
+/**
+ * Static helpers for the solver's integer literal encoding.<br>
+ * Variables are dense non-negative ints; the positive literal of variable v is
+ * {@code 2 * v} and the negative literal is {@code 2 * v + 1}, so negation is a
+ * single xor and literals can directly index per-literal arrays such as the
+ * watch lists.
+ */
+public final class Lit {
+
+	/**
+	 * Placeholder for "no literal".
+	 */
+	public static final int UNDEF = -1;
+
+	private Lit () {
+	}
+
+	/**
+	 * @requires var >= 0
+	 * @return the literal of var with the given polarity.
+	 */
+	public static int make (int var, boolean negated) {
+		return (var << 1) | (negated ? 1 : 0);
+	}
+
+	/**
+	 * @return the variable of literal lit.
+	 */
+	public static int var (int lit) {
+		return lit >> 1;
+	}
+
+	/**
+	 * @return the negation of literal lit.
+	 */
+	public static int not (int lit) {
+		return lit ^ 1;
+	}
+
+	/**
+	 * @return true iff lit is a negative literal.
+	 */
+	public static boolean isNegated (int lit) {
+		return (lit & 1) != 0;
+	}
+
+	/**
+	 * @return the DIMACS form of lit, that is var + 1 signed by the polarity of lit.
+	 */
+	public static int toDimacs (int lit) {
+		return isNegated(lit) ? -(var(lit) + 1) : var(lit) + 1;
+	}
+
+	/**
+	 * @requires dimacs != 0
+	 * @return the literal denoted by the DIMACS integer dimacs.
+	 */
+	public static int fromDimacs (int dimacs) {
+		return dimacs < 0 ? make(-dimacs - 1, true) : make(dimacs - 1, false);
+	}
+
+	public static String toString (int lit) {
+		return String.valueOf(toDimacs(lit));
+	}
+
+}
@@ -0,0 +1,60 @@
+package sat.solver;
+
+/**
+ * Restart after UNIT * luby(i) conflicts, where luby is the sequence
+ * 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ... of Luby, Sinclair and Zuckerman,
+ * which is within a constant factor of the optimal strategy when nothing is known
+ * about the distribution of run times.
+ */
+public class LubyRestartPolicy implements RestartPolicy {
+
+	private static final int UNIT = 100;
+
+	private int restarts = 0;
+	private long conflicts = 0;
+	private long limit = UNIT * luby(0);
+
+	@Override
+	public void conflict (int lbd, int trailSize) {
+		conflicts++;
+	}
+
+	@Override
+	public boolean shouldRestart () {
+		return conflicts >= limit;
+	}
+
+	@Override
+	public void restarted () {
+		conflicts = 0;
+		limit = UNIT * luby(++restarts);
+	}
+
+	/**
+	 * @requires i >= 0
+	 * @return the ith element of the Luby sequence, counting from 0.
+	 */
+	static long luby (int i) {
+		int size = 1, sequence = 0;
+
+		// Find the finite subsequence containing index i, and its size.
+		while (size < i + 1) {
+			sequence++;
+			size = 2 * size + 1;
+		}
+
+		while (size - 1 != i) {
+			size = (size - 1) >> 1;
+			sequence--;
+			i = i % size;
+		}
+
+		return 1L << sequence;
+	}
+
+	@Override
+	public String toString () {
+		return "Luby";
+	}
+
+}
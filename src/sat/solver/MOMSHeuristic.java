@@ -0,0 +1,47 @@
+package sat.solver;
+
+/**
+ * Maximum Occurrences in clauses of Minimum Size: only the open clauses with the
+ * fewest unassigned literals are counted, and a variable scores
+ * (f(x) + f(~x)) * 2^K + f(x) * f(~x), which favours variables occurring often
+ * in both polarities.
+ */
+public class MOMSHeuristic extends OccurrenceHeuristic {
+
+	private static final double K = 10;
+
+	@Override
+	protected void weigh (SearchState state) {
+		int minimum = Integer.MAX_VALUE, size;
+
+		for (int c = 0; c < state.clauseCount(); c++) {
+			size = openSize(state, c);
+
+			if (size > 0 && size < minimum) {
+				minimum = size;
+			}
+		}
+
+		for (int c = 0; c < state.clauseCount(); c++) {
+			if (openSize(state, c) == minimum) {
+				credit(state, c, 1);
+			}
+		}
+	}
+
+	@Override
+	protected int select (SearchState state) {
+		return selectVariable(state);
+	}
+
+	@Override
+	protected double combine (double positive, double negative) {
+		return (positive + negative) * Math.pow(2, K) + positive * negative;
+	}
+
+	@Override
+	public String toString () {
+		return "MOMS";
+	}
+
+}
@@ -0,0 +1,156 @@
+package sat.solver;
+
+import sat.env.Environment;
+import sat.env.Variable;
+import sat.formula.Clause;
+import sat.formula.Literal;
+import sat.formula.NegatedLiteral;
+import sat.formula.PositiveLiteral;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static sat.env.Boolean.TRUE;
+
+/**
+ * A lazy iterator over the models of the clauses of a {@link Solver}.<br>
+ * Models are told apart by a projection, that is a set of variables: after each
+ * model, a blocking clause forbidding its values on the projection is added to the
+ * solver, so that no two models returned agree on every variable of the projection.
+ * Each call to hasNext() that does not follow a model yet to be returned costs one
+ * solve, so that taking the first n models costs n solves. For instance, a formula
+ * has a unique model (on the projection) iff
+ * <pre>
+ *     new ModelEnumerator(solver, projection).stream().limit(2).count() == 1
+ * </pre>
+ * The blocking clauses stay in the solver once the enumeration is over. If the
+ * solver is interrupted, hasNext() throws rather than end the enumeration early,
+ * which would pass the models found so far off as all of them.<br>
+ * This datatype is mutable and not thread-safe.
+ */
+public class ModelEnumerator implements Iterator<Environment> {
+
+	/*
+	 * Rep invariant
+	 *     solver != null, assumptions != null
+	 *     if exhausted, next == null
+	 *
+	 * Abstraction function
+	 *     the models of the clauses of solver under assumptions, which differ on the
+	 *     projection (every variable of solver if projection == null) from each other
+	 *     and from those returned so far; next, if not null, is the first of them.
+	 */
+	private final Solver solver;
+	private final List<Variable> projection;
+	private final Literal[] assumptions;
+	private Environment next = null;
+	private boolean exhausted = false;
+
+	/**
+	 * Enumerate the models of solver that differ on any variable known to the solver
+	 * when each model is found.
+	 */
+	public ModelEnumerator (Solver solver) {
+		this.solver = solver;
+		this.projection = null;
+		this.assumptions = new Literal[0];
+	}
+
+	/**
+	 * Enumerate the models of solver under assumptions that differ on projection.
+	 *
+	 * @param assumptions literals that every model must satisfy, see {@link Solver#solve(Literal...)}
+	 */
+	public ModelEnumerator (Solver solver, Collection<Variable> projection, Literal... assumptions) {
+		this.solver = solver;
+		this.projection = new ArrayList<>(projection);
+		this.assumptions = assumptions.clone();
+	}
+
+	/**
+	 * @throws CancellationException if the solver was interrupted before telling
+	 * whether there is another model. The enumeration can then be resumed.
+	 */
+	@Override
+	public boolean hasNext () {
+		final SolverResult result;
+
+		if (next == null && !exhausted) {
+			result = solver.solve(Budget.UNLIMITED, assumptions);
+
+			switch (result.getStatus()) {
+				case SATISFIABLE:
+					next = result.getModel();
+					block(next);
+					break;
+				case UNSATISFIABLE:
+					exhausted = true;
+					break;
+				default:
+					throw new CancellationException("solver interrupted during model enumeration");
+			}
+		}
+
+		return next != null;
+	}
+
+	/**
+	 * @throws CancellationException if the solver was interrupted, see hasNext().
+	 */
+	@Override
+	public Environment next () {
+		final Environment result;
+
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		result = next;
+		next = null;
+
+		return result;
+	}
+
+	/**
+	 * @return a sequential stream of the models of this iterator, computed as the
+	 * stream is consumed.
+	 */
+	public Stream<Environment> stream () {
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+				false
+		);
+	}
+
+	/**
+	 * Add to solver the clause stating that the projection differs from model.
+	 */
+	private void block (Environment model) {
+		final List<Literal> literals = new ArrayList<>();
+
+		if (projection == null) {
+			for (int v = 0; v < solver.variableCount(); v++) {
+				literals.add(blocking(model, solver.toLiteral(Lit.make(v, false)).getVariable()));
+			}
+		} else {
+			for (Variable v: projection) {
+				literals.add(blocking(model, v));
+			}
+		}
+
+		solver.addClause(new Clause(literals.toArray(new Literal[0])));
+	}
+
+	private static Literal blocking (Environment model, Variable v) {
+		return model.get(v) == TRUE ? NegatedLiteral.make(v) : PositiveLiteral.make(v);
+	}
+
+}
@@ -0,0 +1,26 @@
+package sat.solver;
+
+/**
+ * Never restart.
+ */
+public class NoRestartPolicy implements RestartPolicy {
+
+	@Override
+	public void conflict (int lbd, int trailSize) {
+	}
+
+	@Override
+	public boolean shouldRestart () {
+		return false;
+	}
+
+	@Override
+	public void restarted () {
+	}
+
+	@Override
+	public String toString () {
+		return "none";
+	}
+
+}
@@ -0,0 +1,143 @@
+package sat.solver;
+
+import java.util.Arrays;
+
+/**
+ * Base class of the classic heuristics that count occurrences of literals in the
+ * clauses not yet satisfied. Before every decision, subclasses fill in a score for
+ * each literal by scanning the open clauses; the literal of highest score is then
+ * chosen.<br>
+ * These heuristics ignore conflicts altogether, so each pick costs a pass over the
+ * problem clauses.
+ */
+abstract class OccurrenceHeuristic implements BranchingHeuristic {
+
+	/*
+	 * Rep invariant
+	 *     scores.length >= 2 * number of variables created so far
+	 */
+	protected double[] scores = new double[0];
+
+	@Override
+	public void newVariable (int var) {
+		if (2 * var + 2 > scores.length) {
+			scores = Arrays.copyOf(scores, Math.max(2 * var + 2, 2 * scores.length));
+		}
+	}
+
+	@Override
+	public void bump (int var) {
+	}
+
+	@Override
+	public void decay () {
+	}
+
+	@Override
+	public void unassigned (int var) {
+	}
+
+	@Override
+	public int pick (SearchState state) {
+		Arrays.fill(scores, 0);
+		weigh(state);
+
+		return select(state);
+	}
+
+	/**
+	 * Fill in scores, indexed by literal, from the current state.
+	 */
+	protected abstract void weigh (SearchState state);
+
+	/**
+	 * @return the unassigned literal of highest score, or Lit.UNDEF if every
+	 * variable is assigned.
+	 */
+	protected int select (SearchState state) {
+		int best = Lit.UNDEF;
+
+		for (int v = 0; v < state.variableCount(); v++) {
+			if (!state.isAssigned(v)) {
+				for (int l = Lit.make(v, true); l >= Lit.make(v, false); l--) {
+					if (best == Lit.UNDEF || scores[l] > scores[best]) {
+						best = l;
+					}
+				}
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * @return the unassigned literal of the variable maximizing
+	 * combine(score of its positive literal, score of its negative literal),
+	 * taking the literal of higher score; Lit.UNDEF if every variable is assigned.
+	 */
+	protected int selectVariable (SearchState state) {
+		int best = Lit.UNDEF;
+		double bestScore = 0, score;
+		double positive, negative;
+
+		for (int v = 0; v < state.variableCount(); v++) {
+			if (!state.isAssigned(v)) {
+				positive = scores[Lit.make(v, false)];
+				negative = scores[Lit.make(v, true)];
+				score = combine(positive, negative);
+
+				if (best == Lit.UNDEF || score > bestScore) {
+					best = Lit.make(v, negative >= positive);
+					bestScore = score;
+				}
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * @return the score of a variable whose literals score positive and negative.
+	 */
+	protected double combine (double positive, double negative) {
+		return positive + negative;
+	}
+
+	/**
+	 * @return the number of unassigned literals of clause, or -1 if the clause is
+	 * satisfied.
+	 */
+	protected static int openSize (SearchState state, int clause) {
+		final int size = state.clauseSize(clause);
+		int open = 0, l;
+
+		for (int k = 0; k < size; k++) {
+			l = state.literal(clause, k);
+
+			if (state.isTrue(l)) {
+				return -1;
+			} else if (!state.isFalse(l)) {
+				open++;
+			}
+		}
+
+		return open;
+	}
+
+	/**
+	 * Add amount to the score of every unassigned literal of clause.
+	 */
+	protected void credit (SearchState state, int clause, double amount) {
+		final int size = state.clauseSize(clause);
+		int l;
+
+		for (int k = 0; k < size; k++) {
+			l = state.literal(clause, k);
+
+			if (!state.isFalse(l)) {
+				scores[l] += amount;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,203 @@
+package sat.solver;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A phase of the work of a {@link Solver} (encode, preprocess, search or decode)
+ * being timed. While a JDK Flight Recorder recording is on, every phase is also
+ * reported as an event named sat.solver.Phase, in category "SAT Solver", which
+ * carries the name of the phase and the decisions, propagations, conflicts and
+ * restarts counted during it; so recordings show where solves spend their time
+ * next to GC and allocation data.<br>
+ * The event type is defined through jdk.jfr.EventFactory, looked up reflectively,
+ * because the solver targets Java 8, whose API lacks jdk.jfr. Defining it is slow,
+ * so it is only done once the flight recorder is found initialized, which is
+ * checked at most once every RECHECK_INTERVAL while it is not: until then, as on
+ * runtimes without JFR, phases are only timed.<br>
+ * This datatype is mutable and not thread-safe.
+ */
+final class Phase {
+
+	static final String ENCODE = "encode", PREPROCESS = "preprocess", SEARCH = "search", DECODE = "decode";
+
+	private static final long RECHECK_INTERVAL = 1_000_000_000L;
+
+	// Null until the flight recorder is first found initialized.
+	private static volatile EventType eventType = null;
+	// Set once JFR turns out to be missing or unusable, which ends the checks.
+	private static boolean unavailable = false;
+	private static Method isInitialized = null;
+	private static volatile boolean checked = false;
+	private static volatile long lastCheck;
+
+	/**
+	 * The reflective handles on the sat.solver.Phase event type.
+	 */
+	private static final class EventType {
+		final Object factory;
+		final Method newEvent, isEnabled, begin, set, commit;
+
+		private EventType () throws ReflectiveOperationException {
+			final Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+			final Class<?> eventClass = Class.forName("jdk.jfr.Event");
+			final Class<?> annotationClass = Class.forName("jdk.jfr.AnnotationElement");
+			final Class<?> descriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+			final Constructor<?> annotation = annotationClass.getConstructor(Class.class, Object.class);
+			final Constructor<?> descriptor = descriptorClass.getConstructor(Class.class, String.class);
+			final List<Object> annotations = new ArrayList<>(), fields = new ArrayList<>();
+
+			annotations.add(annotation.newInstance(jfrAnnotation("Name"), "sat.solver.Phase"));
+			annotations.add(annotation.newInstance(jfrAnnotation("Label"), "Solver Phase"));
+			annotations.add(annotation.newInstance(jfrAnnotation("Category"), new String[]{"SAT Solver"}));
+			annotations.add(annotation.newInstance(jfrAnnotation("StackTrace"), false));
+			annotations.add(annotation.newInstance(
+					jfrAnnotation("Description"), "A phase of the work of a SAT solver, with the search counted during it"
+			));
+
+			fields.add(descriptor.newInstance(String.class, "phase"));
+
+			for (String counter: Arrays.asList("decisions", "propagations", "conflicts", "restarts")) {
+				fields.add(descriptor.newInstance(long.class, counter));
+			}
+
+			factory = factoryClass.getMethod("create", List.class, List.class).invoke(null, annotations, fields);
+			newEvent = factoryClass.getMethod("newEvent");
+			isEnabled = eventClass.getMethod("isEnabled");
+			begin = eventClass.getMethod("begin");
+			set = eventClass.getMethod("set", int.class, Object.class);
+			commit = eventClass.getMethod("commit");
+		}
+	}
+
+	/*
+	 * Rep invariant
+	 *     name != null, statistics != null
+	 *     event is null, or a jdk.jfr.Event begun when this phase started
+	 */
+	private final String name;
+	private final Statistics statistics;
+	private final long started;
+	private final long decisions, propagations, conflicts, restarts;
+	private final Object event;
+
+	private Phase (String name, Statistics statistics) {
+		final long now = System.nanoTime();
+
+		this.name = name;
+		this.statistics = statistics;
+		this.decisions = statistics.decisions;
+		this.propagations = statistics.propagations;
+		this.conflicts = statistics.conflicts;
+		this.restarts = statistics.restarts;
+		this.event = beginEvent(now);
+		this.started = now;
+	}
+
+	/**
+	 * Start timing a phase of the solver keeping statistics.
+	 */
+	static Phase start (String name, Statistics statistics) {
+		return new Phase(name, statistics);
+	}
+
+	/**
+	 * End the phase, and report it to the flight recorder if it is on.
+	 *
+	 * @requires end() has not been called on this phase yet
+	 * @return the duration of the phase, in nanoseconds.
+	 */
+	long end () {
+		final long result = System.nanoTime() - started;
+
+		if (event != null) {
+			final EventType type = eventType;
+
+			try {
+				type.set.invoke(event, 0, name);
+				type.set.invoke(event, 1, statistics.decisions - decisions);
+				type.set.invoke(event, 2, statistics.propagations - propagations);
+				type.set.invoke(event, 3, statistics.conflicts - conflicts);
+				type.set.invoke(event, 4, statistics.restarts - restarts);
+				type.commit.invoke(event);
+			} catch (ReflectiveOperationException e) {
+				// The event is lost, which does not affect the solve.
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @param now the current System.nanoTime().
+	 * @return a begun event, or null if no recording would take it.
+	 */
+	private static Object beginEvent (long now) {
+		EventType type = eventType;
+		Object result;
+
+		if (type == null) {
+			if (checked && now - lastCheck < RECHECK_INTERVAL) {
+				return null;
+			}
+
+			type = defineEventType(now);
+
+			if (type == null) {
+				return null;
+			}
+		}
+
+		try {
+			result = type.newEvent.invoke(type.factory);
+
+			if ((Boolean) type.isEnabled.invoke(result)) {
+				type.begin.invoke(result);
+			} else {
+				result = null;
+			}
+		} catch (ReflectiveOperationException e) {
+			result = null;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Define the event type if the flight recorder is initialized, unless that was
+	 * checked less than RECHECK_INTERVAL ago.
+	 *
+	 * @return the event type, or null if it is not defined.
+	 */
+	private static synchronized EventType defineEventType (long now) {
+		if (eventType != null || unavailable || (checked && now - lastCheck < RECHECK_INTERVAL)) {
+			return eventType;
+		}
+
+		checked = true;
+		lastCheck = now;
+
+		try {
+			if (isInitialized == null) {
+				isInitialized = Class.forName("jdk.jfr.FlightRecorder").getMethod("isInitialized");
+			}
+			if ((Boolean) isInitialized.invoke(null)) {
+				eventType = new EventType();
+			}
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			unavailable = true;
+		}
+
+		return eventType;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Annotation> jfrAnnotation (String name) throws ClassNotFoundException {
+		return (Class<? extends Annotation>) Class.forName("jdk.jfr." + name);
+	}
+
+}
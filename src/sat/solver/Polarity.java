@@ -0,0 +1,34 @@
+package sat.solver;
+
+/**
+ * The polarities a variable can be branched on before phase saving has anything to
+ * go by, that is before the variable is first assigned, or always if phase saving
+ * is disabled. Selected as in
+ * <pre>
+ *     new SolverOptions().withPolarity(Polarity.POSITIVE)
+ * </pre>
+ * Only heuristics branching on the saved phase, as Heuristic.VSIDS and
+ * Heuristic.EVSIDS do, follow the polarity; the others pick a polarity of their own.
+ */
+public enum Polarity {
+
+	/**
+	 * Branch on the negative literal: the best guess for formulae in which most
+	 * variables are false in a model, such as a Sudoku, where only one of the
+	 * values of a cell is.
+	 */
+	NEGATIVE,
+
+	/**
+	 * Branch on the positive literal.
+	 */
+	POSITIVE,
+
+	/**
+	 * Draw the polarity of every variable once, at random from the seed of the
+	 * options. Solvers with different seeds explore the search space in different
+	 * orders.
+	 */
+	RANDOM
+
+}
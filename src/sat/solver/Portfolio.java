@@ -0,0 +1,142 @@
+package sat.solver;
+
+import sat.env.Environment;
+import sat.formula.Formula;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A parallel solver which races several differently configured {@link Solver}s on
+ * the same formula, one per thread. Since the running time of a SAT solver varies
+ * wildly with its configuration, the fastest of a few diverse solvers usually beats
+ * any single one of them.<br>
+ * The first worker to finish decides the answer; the others are then interrupted.
+ * Optionally, workers share their short learned clauses through a
+ * {@link ClauseExchange}, and so prune each other's search.<br>
+ * This datatype is not thread-safe: solve() may only be running on one thread at a
+ * time.
+ */
+public class Portfolio {
+
+	private static final Heuristic[] HEURISTICS = {Heuristic.EVSIDS, Heuristic.VSIDS};
+	private static final Restart[] RESTARTS = {Restart.LUBY, Restart.GLUCOSE, Restart.GEOMETRIC};
+
+	/*
+	 * Rep invariant
+	 *     formula != null
+	 *     configurations is nonempty and contains no null
+	 */
+	private final Formula formula;
+	private final List<SolverOptions> configurations;
+	private final boolean sharing;
+	private final List<Solver> workers = new ArrayList<>();
+
+	/**
+	 * Create a portfolio of workers configured by diversify(workers), sharing
+	 * learned clauses.
+	 *
+	 * @requires workers > 0
+	 */
+	public Portfolio (Formula formula, int workers) {
+		this(formula, diversify(workers), true);
+	}
+
+	/**
+	 * Create a portfolio with one worker per configuration.
+	 *
+	 * @requires configurations is nonempty
+	 * @param sharing whether workers share their short learned clauses
+	 */
+	public Portfolio (Formula formula, List<SolverOptions> configurations, boolean sharing) {
+		this.formula = formula;
+		this.configurations = Collections.unmodifiableList(new ArrayList<>(configurations));
+		this.sharing = sharing;
+	}
+
+	/**
+	 * @return n solver configurations, the first one being the default, that differ
+	 * in branching heuristic, restart policy and random polarities.
+	 */
+	public static List<SolverOptions> diversify (int n) {
+		final List<SolverOptions> result = new ArrayList<>();
+
+		result.add(new SolverOptions());
+
+		for (int i = 1; i < n; i++) {
+			result.add(new SolverOptions()
+					.withHeuristic(HEURISTICS[i % HEURISTICS.length])
+					.withRestartPolicy(RESTARTS[i / HEURISTICS.length % RESTARTS.length])
+					.withPolarity(Polarity.RANDOM)
+					.withSeed(i));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Solve the formula on as many threads as there are configurations.
+	 *
+	 * @return an environment for which the formula evaluates to Boolean.TRUE, or
+	 * null if no such environment exists.
+	 * @throws InterruptedException if the calling thread was interrupted while
+	 * waiting for the workers, which are then interrupted as well.
+	 */
+	public Environment solve () throws InterruptedException {
+		final ExecutorService executor = Executors.newFixedThreadPool(configurations.size(), r -> {
+			final Thread t = new Thread(r, "portfolio-worker");
+			t.setDaemon(true);
+
+			return t;
+		});
+		final CompletionService<Environment> completion = new ExecutorCompletionService<>(executor);
+		final ClauseExchange exchange = sharing ? new ClauseExchange() : null;
+		Solver solver;
+
+		workers.clear();
+
+		try {
+			for (int i = 0; i < configurations.size(); i++) {
+				solver = new Solver(formula, configurations.get(i));
+
+				if (exchange != null) {
+					solver.share(exchange, i);
+				}
+
+				workers.add(solver);
+				completion.submit(solver::solve);
+			}
+
+			return completion.take().get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("portfolio worker failed", e.getCause());
+		} finally {
+			for (Solver s: workers) {
+				s.interrupt();
+			}
+
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return the statistics of each worker of the last call to solve(), in the
+	 * order of the configurations.
+	 */
+	public List<Statistics> getStatistics () {
+		final List<Statistics> result = new ArrayList<>();
+
+		for (Solver s: workers) {
+			result.add(s.getStatistics());
+		}
+
+		return result;
+	}
+
+}
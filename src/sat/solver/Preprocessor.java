@@ -0,0 +1,616 @@
+package sat.solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A SatELite-style simplifier of clause sets over integer literals (see {@link Lit}),
+ * run by {@link Solver} before search when {@link SolverOptions#withPreprocessing}
+ * is set. In order, it applies:
+ * <ul>
+ *     <li>unit propagation to fixpoint: satisfied clauses are removed, false
+ *     literals dropped;</li>
+ *     <li>subsumption, removing any clause D that is a superset of another clause C,
+ *     and strengthening (self-subsuming resolution), removing ¬l from D whenever
+ *     C = (l ∨ A) and A ⊆ D;</li>
+ *     <li>bounded variable elimination: a variable v is replaced by all
+ *     non-tautological resolvents of the clauses containing v with those containing
+ *     ¬v, provided this does not increase the number of clauses.</li>
+ * </ul>
+ * The simplified clause set is equisatisfiable with the original one. Every clause
+ * removed by variable elimination is pushed on a reconstruction stack, so that
+ * {@link #extendModel} can turn any model of the simplified clauses into a model
+ * of the original ones.<br>
+ * Given a {@link DratProof}, the preprocessor records every clause it derives, that
+ * is every resolvent and strengthened clause. Removed clauses are not recorded as
+ * deleted, since restore() may bring them back.<br>
+ * This datatype is mutable and not thread-safe.
+ */
+public class Preprocessor {
+
+	/**
+	 * Variables occurring in more clauses than this are not considered for
+	 * elimination, as the resolvents would be too many to be worth checking.
+	 */
+	private static final int MAX_ELIMINATION_OCCURRENCES = 40;
+	/**
+	 * Elimination of a variable is given up if any resolvent is longer than this.
+	 */
+	private static final int MAX_RESOLVENT_SIZE = 20;
+	/**
+	 * Number of times subsumption and elimination are alternated at most.
+	 */
+	private static final int MAX_ROUNDS = 3;
+
+	private static final byte VALUE_TRUE = 1, VALUE_FALSE = -1;
+
+	// Results of subsumes(), besides a literal.
+	private static final int SUBSUMED = -1, UNRELATED = -2;
+
+	/**
+	 * A clause under simplification, whose literals can be removed in place.
+	 */
+	private static class Candidate {
+		int[] literals;
+		// Bit (v & 63) is set for every variable v of literals.
+		long signature;
+		boolean removed = false;
+		boolean queued = false;
+
+		Candidate (int[] literals) {
+			this.literals = literals;
+			this.signature = signature(literals);
+		}
+
+		int size () {
+			return literals.length;
+		}
+	}
+
+	/*
+	 * Rep invariant
+	 *     every clause of clauses that is not removed has at least two literals, none
+	 *     of them assigned by values, and occurs in occurrences.get(l) for each of its
+	 *     literals l
+	 *     occurrences.get(l) may also hold removed clauses, to be dropped lazily
+	 *     eliminated[v] implies that v occurs in no clause that is not removed
+	 *
+	 * Abstraction function
+	 *     the clauses not removed, together with a unit clause for every literal
+	 *     true in values, form the simplified clause set; reconstruction is a
+	 *     sequence of records (l1, ..., ln, pivot, n), each one a clause removed by
+	 *     variable elimination followed by the literal of the eliminated variable in it
+	 */
+	private final int numVars;
+	private final ArrayList<Candidate> clauses = new ArrayList<>();
+	private final ArrayList<ArrayList<Candidate>> occurrences = new ArrayList<>();
+	private final byte[] values;
+	private final boolean[] eliminated;
+	private final IntVec units = new IntVec();
+	private final ArrayDeque<Candidate> subsumptionQueue = new ArrayDeque<>();
+	private final IntVec reconstruction = new IntVec();
+	private final Statistics statistics;
+	// Non-null iff derived clauses are recorded.
+	private final DratProof proof;
+	private boolean ok = true;
+
+	// Scratch space: marks[l] == stamp iff literal l belongs to the clause last marked.
+	private final int[] marks;
+	private int stamp = 0;
+
+	/**
+	 * Create a preprocessor over variables 0 ... numVars - 1, recording its work in
+	 * statistics.
+	 */
+	public Preprocessor (int numVars, Statistics statistics) {
+		this(numVars, statistics, null);
+	}
+
+	/**
+	 * Create a preprocessor over variables 0 ... numVars - 1, recording its work in
+	 * statistics and the clauses it derives in proof, unless null.
+	 */
+	public Preprocessor (int numVars, Statistics statistics, DratProof proof) {
+		this.numVars = numVars;
+		this.statistics = statistics;
+		this.proof = proof;
+		this.values = new byte[2 * numVars];
+		this.eliminated = new boolean[numVars];
+		this.marks = new int[2 * numVars];
+
+		for (int l = 0; l < 2 * numVars; l++) {
+			occurrences.add(new ArrayList<>());
+		}
+	}
+
+	/**
+	 * Add a clause to the set to be simplified.
+	 *
+	 * @requires every literal of lits is over a variable below numVars, and
+	 * simplify() has not been called yet
+	 */
+	public void addClause (int[] lits) {
+		final int[] sorted = lits.clone();
+		int size = 0;
+
+		Arrays.sort(sorted);
+
+		for (int i = 0; i < sorted.length; i++) {
+			if (size > 0 && sorted[size - 1] == Lit.not(sorted[i])) {
+				return;
+			} else if (size == 0 || sorted[size - 1] != sorted[i]) {
+				sorted[size++] = sorted[i];
+			}
+		}
+
+		attach(Arrays.copyOf(sorted, size));
+	}
+
+	/**
+	 * Simplify the clauses added so far.
+	 *
+	 * @return false if the clauses were found to be unsatisfiable, true otherwise.
+	 */
+	public boolean simplify () {
+		boolean progress = true;
+
+		for (int round = 0; ok && progress && round < MAX_ROUNDS; round++) {
+			propagate();
+			subsume();
+			progress = eliminate();
+		}
+
+		propagate();
+
+		return ok;
+	}
+
+	/**
+	 * @return the simplified clause set: the clauses left after simplification,
+	 * followed by a unit clause for every variable assigned by it.
+	 */
+	public List<int[]> getClauses () {
+		final List<int[]> result = new ArrayList<>();
+
+		for (Candidate c: clauses) {
+			if (!c.removed) {
+				result.add(c.literals);
+			}
+		}
+		for (int l = 0; l < values.length; l++) {
+			if (values[l] == VALUE_TRUE) {
+				result.add(new int[]{l});
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Turn a model of the simplified clause set into a model of the original one,
+	 * by reassigning eliminated variables. Records of the reconstruction stack are
+	 * visited from the most recent: whenever a removed clause is false under model,
+	 * its pivot is made true.
+	 *
+	 * @requires model.length >= numVars, and model[v] holds the value of variable v
+	 * in a model of getClauses()
+	 * @modifies model
+	 */
+	public void extendModel (boolean[] model) {
+		int i = reconstruction.size(), size, pivot;
+		boolean satisfied;
+
+		while (i > 0) {
+			size = reconstruction.get(--i);
+			pivot = reconstruction.get(--i);
+			satisfied = false;
+
+			for (int j = i - size; j < i && !satisfied; j++) {
+				satisfied = model[Lit.var(reconstruction.get(j))] != Lit.isNegated(reconstruction.get(j));
+			}
+			if (!satisfied) {
+				model[Lit.var(pivot)] = !Lit.isNegated(pivot);
+			}
+
+			i -= size;
+		}
+	}
+
+	/**
+	 * @return true iff variable v was eliminated, and so occurs in none of getClauses().
+	 */
+	public boolean isEliminated (int v) {
+		return v < numVars && eliminated[v];
+	}
+
+	/**
+	 * Undo the elimination of v, so that clauses mentioning it can be added to the
+	 * simplified clause set. The clauses removed when eliminating v are taken off the
+	 * reconstruction stack; if they mention variables eliminated afterwards, those are
+	 * restored as well.
+	 *
+	 * @requires isEliminated(v)
+	 * @return the clauses to add back to the simplified clause set.
+	 */
+	public List<int[]> restore (int v) {
+		final List<int[]> result = new ArrayList<>();
+		final IntVec kept = new IntVec(reconstruction.size());
+		final List<int[]> records = new ArrayList<>();
+		final int[] stack = reconstruction.toArray();
+		boolean changed = true;
+		int i = stack.length, size;
+
+		// Split the stack into records (l1, ..., ln, pivot), the most recent first.
+		while (i > 0) {
+			size = stack[--i];
+			records.add(Arrays.copyOfRange(stack, i - size - 1, i));
+			i -= size + 1;
+		}
+
+		eliminated[v] = false;
+
+		while (changed) {
+			changed = false;
+
+			for (int[] r: records) {
+				if (!eliminated[Lit.var(r[r.length - 1])]) {
+					for (int j = 0; j < r.length - 1; j++) {
+						if (eliminated[Lit.var(r[j])]) {
+							eliminated[Lit.var(r[j])] = false;
+							changed = true;
+						}
+					}
+				}
+			}
+		}
+
+		for (int r = records.size() - 1; r >= 0; r--) {
+			if (eliminated[Lit.var(records.get(r)[records.get(r).length - 1])]) {
+				for (int l: records.get(r)) {
+					kept.push(l);
+				}
+				kept.push(records.get(r).length - 1);
+			} else {
+				result.add(Arrays.copyOf(records.get(r), records.get(r).length - 1));
+			}
+		}
+
+		reconstruction.clear();
+
+		for (int j = 0; j < kept.size(); j++) {
+			reconstruction.push(kept.get(j));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Store lits as a clause, or assign it if it is a unit.
+	 */
+	private void attach (int[] lits) {
+		final Candidate c;
+
+		if (lits.length == 0) {
+			ok = false;
+		} else if (lits.length == 1) {
+			assign(lits[0]);
+		} else {
+			c = new Candidate(lits);
+			clauses.add(c);
+
+			for (int l: lits) {
+				occurrences.get(l).add(c);
+			}
+
+			enqueue(c);
+		}
+	}
+
+	private void assign (int lit) {
+		if (values[lit] == VALUE_FALSE) {
+			ok = false;
+		} else if (values[lit] == 0) {
+			values[lit] = VALUE_TRUE;
+			values[Lit.not(lit)] = VALUE_FALSE;
+			units.push(lit);
+		}
+	}
+
+	/**
+	 * Propagate pending units to fixpoint: clauses they satisfy are removed, and
+	 * their negations are removed from every other clause.
+	 */
+	private void propagate () {
+		int lit;
+
+		while (ok && !units.isEmpty()) {
+			lit = units.pop();
+
+			for (Candidate c: occurrences.get(lit)) {
+				remove(c);
+			}
+			occurrences.get(lit).clear();
+
+			for (Candidate c: new ArrayList<>(occurrences.get(Lit.not(lit)))) {
+				if (!c.removed) {
+					strengthen(c, Lit.not(lit));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check every queued clause against all clauses sharing a variable with it, and
+	 * remove or strengthen the ones it subsumes or self-subsumes.
+	 */
+	private void subsume () {
+		Candidate c;
+
+		while (ok && !subsumptionQueue.isEmpty()) {
+			c = subsumptionQueue.poll();
+			c.queued = false;
+
+			if (!c.removed) {
+				backwardSubsume(c);
+			}
+
+			propagate();
+		}
+	}
+
+	private void backwardSubsume (Candidate c) {
+		int best = c.literals[0], result;
+
+		// Clauses subsumed by c contain all of its variables: scan the rarest one.
+		for (int l: c.literals) {
+			if (occurrenceCount(Lit.var(l)) < occurrenceCount(Lit.var(best))) {
+				best = l;
+			}
+		}
+
+		for (int l: new int[]{best, Lit.not(best)}) {
+			for (Candidate d: new ArrayList<>(occurrences.get(l))) {
+				if (c.removed) {
+					return;
+				} else if (d == c || d.removed || d.size() < c.size() || (c.signature & ~d.signature) != 0) {
+					continue;
+				}
+
+				result = subsumes(c, d);
+
+				if (result == SUBSUMED) {
+					statistics.subsumedClauses++;
+					remove(d);
+				} else if (result != UNRELATED) {
+					statistics.strengthenedClauses++;
+					strengthen(d, Lit.not(result));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return SUBSUMED if c is a subset of d; a literal l of c such that ¬l is in d,
+	 * if c with l removed is a subset of d; UNRELATED otherwise.
+	 */
+	private int subsumes (Candidate c, Candidate d) {
+		int result = SUBSUMED;
+
+		mark(d.literals);
+
+		for (int l: c.literals) {
+			if (marks[l] == stamp) {
+				continue;
+			} else if (result == SUBSUMED && marks[Lit.not(l)] == stamp) {
+				result = l;
+			} else {
+				return UNRELATED;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Try eliminating every variable, cheapest first.
+	 *
+	 * @return true iff at least one variable was eliminated.
+	 */
+	private boolean eliminate () {
+		final Integer[] order = new Integer[numVars];
+		boolean progress = false;
+
+		for (int v = 0; v < numVars; v++) {
+			order[v] = v;
+		}
+
+		Arrays.sort(order, (v, w) -> Long.compare(cost(v), cost(w)));
+
+		for (int v: order) {
+			if (!ok) {
+				return progress;
+			}
+
+			if (!eliminated[v] && values[Lit.make(v, false)] == 0 && tryEliminate(v)) {
+				progress = true;
+				propagate();
+				subsume();
+			}
+		}
+
+		return progress;
+	}
+
+	/**
+	 * Eliminate v by distributing its clauses, if this does not increase the
+	 * number of clauses.
+	 *
+	 * @return true iff v was eliminated.
+	 */
+	private boolean tryEliminate (int v) {
+		final List<Candidate>
+				positive = live(Lit.make(v, false)),
+				negative = live(Lit.make(v, true));
+		final List<int[]> resolvents = new ArrayList<>();
+		int[] resolvent;
+
+		if (positive.isEmpty() && negative.isEmpty()
+				|| positive.size() + negative.size() > MAX_ELIMINATION_OCCURRENCES) {
+			return false;
+		}
+
+		for (Candidate p: positive) {
+			for (Candidate n: negative) {
+				resolvent = resolve(p, n, v);
+
+				if (resolvent == null) {
+					continue;
+				} else if (resolvent.length > MAX_RESOLVENT_SIZE
+						|| resolvents.size() == positive.size() + negative.size()) {
+					return false;
+				}
+
+				resolvents.add(resolvent);
+			}
+		}
+
+		eliminated[v] = true;
+		statistics.eliminatedVariables++;
+
+		for (List<Candidate> side: Arrays.asList(positive, negative)) {
+			for (Candidate c: side) {
+				for (int l: c.literals) {
+					reconstruction.push(l);
+				}
+
+				reconstruction.push(side == positive ? Lit.make(v, false) : Lit.make(v, true));
+				reconstruction.push(c.size());
+				remove(c);
+			}
+		}
+
+		for (int[] r: resolvents) {
+			if (proof != null) {
+				proof.add(r);
+			}
+
+			attach(r);
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the resolvent of p and n on v, sorted, or null if it is a tautology.
+	 */
+	private int[] resolve (Candidate p, Candidate n, int v) {
+		final IntVec result = new IntVec(p.size() + n.size() - 2);
+		final int[] sorted;
+
+		mark(p.literals);
+
+		for (int l: p.literals) {
+			if (Lit.var(l) != v) {
+				result.push(l);
+			}
+		}
+		for (int l: n.literals) {
+			if (Lit.var(l) == v || marks[l] == stamp) {
+				continue;
+			} else if (marks[Lit.not(l)] == stamp) {
+				return null;
+			}
+
+			result.push(l);
+		}
+
+		sorted = result.toArray();
+		Arrays.sort(sorted);
+
+		return sorted;
+	}
+
+	/**
+	 * Remove lit from c, assigning or refuting it if it gets shorter than two literals.
+	 */
+	private void strengthen (Candidate c, int lit) {
+		final int[] literals = new int[c.size() - 1];
+		int size = 0;
+
+		for (int l: c.literals) {
+			if (l != lit) {
+				literals[size++] = l;
+			}
+		}
+
+		if (proof != null) {
+			proof.add(literals);
+		}
+
+		occurrences.get(lit).remove(c);
+		c.literals = literals;
+		c.signature = signature(literals);
+
+		if (literals.length == 1) {
+			remove(c);
+			assign(literals[0]);
+		} else {
+			enqueue(c);
+		}
+	}
+
+	private void remove (Candidate c) {
+		c.removed = true;
+	}
+
+	private void enqueue (Candidate c) {
+		if (!c.queued) {
+			c.queued = true;
+			subsumptionQueue.add(c);
+		}
+	}
+
+	/**
+	 * @return the clauses containing lit that are not removed; removed ones are
+	 * dropped from its occurrence list on the way.
+	 */
+	private List<Candidate> live (int lit) {
+		final ArrayList<Candidate> list = occurrences.get(lit);
+
+		list.removeIf(c -> c.removed);
+
+		return new ArrayList<>(list);
+	}
+
+	private int occurrenceCount (int v) {
+		return occurrences.get(Lit.make(v, false)).size() + occurrences.get(Lit.make(v, true)).size();
+	}
+
+	/**
+	 * @return an estimate of the cost of eliminating v: the number of resolvents.
+	 */
+	private long cost (int v) {
+		return (long) occurrences.get(Lit.make(v, false)).size() * occurrences.get(Lit.make(v, true)).size();
+	}
+
+	private void mark (int[] lits) {
+		stamp++;
+
+		for (int l: lits) {
+			marks[l] = stamp;
+		}
+	}
+
+	private static long signature (int[] lits) {
+		long result = 0;
+
+		for (int l: lits) {
+			result |= 1L << (Lit.var(l) & 63);
+		}
+
+		return result;
+	}
+
+}
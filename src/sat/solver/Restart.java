@@ -0,0 +1,35 @@
+package sat.solver;
+
+import java.util.function.Supplier;
+
+/**
+ * The restart policies shipped with the solver, usable wherever a
+ * {@code Supplier<RestartPolicy>} is expected, as in
+ * <pre>
+ *     new SolverOptions().withRestartPolicy(Restart.GLUCOSE)
+ * </pre>
+ */
+public enum Restart implements Supplier<RestartPolicy> {
+
+	NONE, LUBY, GEOMETRIC, GLUCOSE;
+
+	/**
+	 * @return a fresh instance of this policy.
+	 */
+	@Override
+	public RestartPolicy get () {
+		switch (this) {
+			case NONE:
+				return new NoRestartPolicy();
+			case LUBY:
+				return new LubyRestartPolicy();
+			case GEOMETRIC:
+				return new GeometricRestartPolicy();
+			case GLUCOSE:
+				return new GlucoseRestartPolicy();
+			default:
+				throw new AssertionError(this);
+		}
+	}
+
+}
@@ -0,0 +1,33 @@
+package sat.solver;
+
+/**
+ * A RestartPolicy tells the solver when to abandon its current assignment and
+ * start the search over from decision level 0. Learned clauses, heuristic
+ * activities and saved phases all survive a restart, so the solver resumes close
+ * to where it was while getting a chance to escape a bad early decision.<br>
+ * A policy belongs to a single solver: see {@link SolverOptions#withRestartPolicy}
+ * for how to have one created per solve. Restarts only apply to SearchMode.CDCL,
+ * as plain DPLL would lose completeness.
+ */
+public interface RestartPolicy {
+
+	/**
+	 * Called after every conflict.
+	 *
+	 * @param lbd       literal block distance of the clause learned from the conflict,
+	 *                  that is the number of distinct decision levels among its literals.
+	 * @param trailSize number of literals assigned when the conflict was met.
+	 */
+	void conflict (int lbd, int trailSize);
+
+	/**
+	 * @return true if the solver should restart now.
+	 */
+	boolean shouldRestart ();
+
+	/**
+	 * Called when the solver has restarted.
+	 */
+	void restarted ();
+
+}
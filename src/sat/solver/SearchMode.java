@@ -0,0 +1,20 @@
+package sat.solver;
+
+/**
+ * The search strategies offered by {@link Solver}.
+ */
+public enum SearchMode {
+
+	/**
+	 * Conflict-driven clause learning with non-chronological backjumping.
+	 */
+	CDCL,
+
+	/**
+	 * Plain DPLL: no learning, and on a conflict the most recent decision that has
+	 * not been tried both ways is flipped. Like {@link sat.SATSolver#solve(sat.formula.Formula)}
+	 * but undoing assignments on the trail rather than copying the clause list.
+	 */
+	DPLL
+
+}
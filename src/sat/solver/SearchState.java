@@ -0,0 +1,61 @@
+package sat.solver;
+
+/**
+ * A read-only view of a solver's clauses and current assignment, handed to
+ * {@link BranchingHeuristic} implementations so they can inspect the search
+ * without being able to alter it.<br>
+ * Variables and literals are in the integer encoding of {@link Lit}; clauses are
+ * numbered from 0 and only the problem clauses are visible, not learned ones.
+ */
+public interface SearchState {
+
+	/**
+	 * @return number of variables, which are numbered 0..variableCount() - 1.
+	 */
+	int variableCount ();
+
+	/**
+	 * @return true iff var currently has a value.
+	 */
+	boolean isAssigned (int var);
+
+	/**
+	 * @return true iff lit is currently assigned true.
+	 */
+	boolean isTrue (int lit);
+
+	/**
+	 * @return true iff lit is currently assigned false.
+	 */
+	boolean isFalse (int lit);
+
+	/**
+	 * Phase saving: the polarity a variable had when it was last unassigned is the
+	 * one it most likely had in a partial model, so branching on it again rebuilds
+	 * that partial model for free after a backjump or restart.
+	 *
+	 * @return the literal of var that was true when var was last assigned, or the
+	 * literal of the default polarity (see {@link Polarity}) if var was never
+	 * assigned or phase saving is disabled.
+	 */
+	int phase (int var);
+
+	/**
+	 * @return number of problem clauses of at least two literals. Unit clauses are
+	 * assigned straight away, and are never stored.
+	 */
+	int clauseCount ();
+
+	/**
+	 * @requires 0 <= clause < clauseCount()
+	 * @return number of literals of the given clause.
+	 */
+	int clauseSize (int clause);
+
+	/**
+	 * @requires 0 <= clause < clauseCount(), 0 <= position < clauseSize(clause)
+	 * @return the literal at the given position of the given clause.
+	 */
+	int literal (int clause, int position);
+
+}
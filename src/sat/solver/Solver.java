@@ -0,0 +1,1388 @@
+package sat.solver;
+
+import sat.dimacs.Cnf;
+import sat.env.Environment;
+import sat.env.Variable;
+import sat.formula.Clause;
+import sat.formula.Formula;
+import sat.formula.Literal;
+import sat.formula.NegatedLiteral;
+import sat.formula.PositiveLiteral;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+import static sat.env.Boolean.FALSE;
+import static sat.env.Boolean.TRUE;
+
+/**
+ * <p>
+ * A conflict-driven clause-learning (CDCL) SAT solver. See
+ * http://en.wikipedia.org/wiki/Conflict-driven_clause_learning
+ * </p>
+ *
+ * <p>
+ * Unlike the DPLL in {@link sat.SATSolver}, which copies the clause list at every
+ * decision, this solver lowers the formula once into integer clauses (see {@link Lit})
+ * stored back to back in a {@link ClauseArena}, and then works in place on a single
+ * assignment trail:
+ *     <ul>
+ *         <li>unit propagation uses two watched literals per clause, so assigning a
+ *         literal only visits the clauses watching its negation;</li>
+ *         <li>every conflict is analyzed down to its first unique implication point,
+ *         and the resulting clause is learned;</li>
+ *         <li>backtracking is non-chronological: the solver jumps straight back to the
+ *         second highest decision level of the learned clause.</li>
+ *     </ul>
+ * </p>
+ *
+ * <p>
+ * With SearchMode.DPLL the solver learns nothing and backtracks chronologically
+ * instead, flipping the most recent decision not yet tried both ways. Backtracking
+ * just pops the trail, so neither mode allocates anything per decision.
+ * </p>
+ *
+ * <p>
+ * A solver is incremental: clauses can be added between calls to solve(), and each
+ * call can take assumptions, that is literals that must hold for this call only.
+ * Learned clauses and heuristic state carry over from call to call. When a call
+ * fails because of its assumptions, getCore() tells a subset of them that cannot
+ * hold together, and minimizeCore() shrinks it to a minimal one.
+ * </p>
+ *
+ * <p>
+ * In CDCL mode, a solver can record a proof of unsatisfiability in DRAT format (see
+ * {@link DratProof}) as it goes: every clause it learns or deletes, down to the empty
+ * clause if the clauses turn out to be unsatisfiable.
+ * </p>
+ *
+ * <p>
+ * Optionally, the clauses go through a {@link Preprocessor} before search; models of
+ * the simplified clauses are then extended back to every variable of the formula.
+ * </p>
+ *
+ * This datatype is mutable and not thread-safe.
+ */
+public class Solver implements SearchState {
+
+	/**
+	 * Learned clauses up to this size are published to the other workers of a
+	 * Portfolio, as are those whose LBD makes them core clauses.
+	 */
+	private static final int SHARED_SIZE_LIMIT = 8;
+
+	/**
+	 * Propagation checks whether the solve should stop every STOP_CHECK_INTERVAL + 1
+	 * propagated literals, so as to keep clock reads off the hot loop.
+	 */
+	private static final int STOP_CHECK_INTERVAL = 1023;
+
+	// Per-literal values. A literal is UNASSIGNED iff its negation is.
+	private static final byte VALUE_TRUE = 1, VALUE_FALSE = -1, UNASSIGNED = 0;
+
+	private final SolverOptions options;
+	private final BranchingHeuristic heuristic;
+	private final RestartPolicy restartPolicy;
+	private final Statistics statistics = new Statistics();
+	private final VariableIndex variables = new VariableIndex();
+	private final ClauseArena arena = new ClauseArena();
+	// References to the problem clauses of arena, in order of addition.
+	private final IntVec clauses = new IntVec();
+	private final LearnedClauseDatabase learnts;
+	// Non-null iff the clauses were simplified before search, to extend models with.
+	private Preprocessor preprocessor = null;
+	// Non-null iff initial phases are drawn at random.
+	private final Random random;
+	private final boolean phaseSaving;
+	private volatile boolean interrupted = false;
+	// Non-null iff clauses learned and deleted are recorded.
+	private final DratProof proof;
+	// Literals decided first, one per decision level, by the current call to solve().
+	private int[] assumptions = new int[0];
+	// Assumptions of the last call to solve() that made it fail, if it failed.
+	private final IntVec core = new IntVec();
+	// Limits of the current call to solve(); the counts are absolute values of statistics.
+	private Budget budget = Budget.UNLIMITED;
+	private long conflictLimit = Long.MAX_VALUE, decisionLimit = Long.MAX_VALUE;
+
+	// Non-null iff this solver is a worker of a Portfolio sharing learned clauses.
+	private ClauseExchange exchange = null;
+	private int exchangeId;
+	private long exchangeCursor;
+
+	/*
+	 * Rep invariant
+	 *     watches.size() == 2 * numVars, and watches.get(l) holds exactly the live clauses
+	 *         of arena whose literal 0 or literal 1 is l
+	 *     reasons[v] is a live clause of arena whose literal 0 is the literal of v on
+	 *         the trail, or ClauseArena.NONE for decisions, units and unassigned variables
+	 *     values.length >= 2 * numVars; levels, reasons, phases and seen have length >= numVars
+	 *     levelStamps.length > trailLimits.size()
+	 *     trail holds every assigned literal, in assignment order
+	 *     trailLimits.get(d) is the trail index of the decision opening level d + 1
+	 *     flipped.size() == trailLimits.size(), and flipped.get(d) != 0 iff the decision
+	 *         opening level d + 1 is the flip of an earlier decision (DPLL mode only)
+	 *     0 <= propagationHead <= trail.size()
+	 *     !ok implies the clauses added so far are unsatisfiable
+	 */
+	private final ArrayList<IntVec> watches = new ArrayList<>();
+	private byte[] values = new byte[0];
+	private int[] levels = new int[0];
+	private int[] reasons = new int[0];
+	private boolean[] seen = new boolean[0];
+	// Saved phases: phases[v] is the literal of v that was true when v was last assigned,
+	// or that of the default polarity if it never was or phase saving is disabled.
+	private int[] phases = new int[0];
+	private int numVars = 0;
+
+	private final IntVec trail = new IntVec();
+	private final IntVec trailLimits = new IntVec();
+	private final IntVec flipped = new IntVec();
+	private int propagationHead = 0;
+	private boolean ok = true;
+
+	// Scratch space of analyze(), kept around to avoid reallocating it on every conflict.
+	private final IntVec learntClause = new IntVec();
+	private final IntVec redundantLits = new IntVec();
+	// Scratch space of computeLbd(): levelStamps[d] == stamp iff level d was met by the current call.
+	private int[] levelStamps = new int[1];
+	private int stamp = 0;
+
+	/**
+	 * Create a solver with no clauses yet, using the default options.
+	 */
+	public Solver () {
+		this(new Formula());
+	}
+
+	/**
+	 * Create a solver with no clauses yet.
+	 */
+	public Solver (SolverOptions options) {
+		this(new Formula(), options);
+	}
+
+	/**
+	 * Create a solver for the given formula, using the default options.
+	 */
+	public Solver (Formula formula) {
+		this(formula, new SolverOptions());
+	}
+
+	/**
+	 * Create a solver for the given formula.
+	 */
+	public Solver (Formula formula, SolverOptions options) {
+		this(formula, options, null);
+	}
+
+	/**
+	 * Create a solver for the given formula, recording a proof of unsatisfiability
+	 * into proof. The proof is flushed at the end of every call to solve(). It is
+	 * checkable against the clauses of formula together with those passed to
+	 * addClause() later, provided options select SearchMode.CDCL: the DPLL mode
+	 * learns nothing, so it leaves nothing to check.
+	 *
+	 * @param proof where to record the proof, or null to record none
+	 */
+	public Solver (Formula formula, SolverOptions options, DratProof proof) {
+		this(options, proof);
+
+		final Phase encode = Phase.start(Phase.ENCODE, statistics);
+
+		if (options.isPreprocessing()) {
+			final List<int[]> lowered = new ArrayList<>();
+
+			for (Clause c: formula) {
+				lowered.add(lower(c));
+			}
+
+			ensureCapacity(variables.size());
+			statistics.encodeTime += encode.end();
+			preprocess(lowered);
+		} else {
+			for (Clause c: formula) {
+				addLowered(c);
+			}
+
+			statistics.encodeTime += encode.end();
+		}
+	}
+
+	/**
+	 * Create a solver for a formula read from a DIMACS file, using the default options.
+	 */
+	public Solver (Cnf cnf) {
+		this(cnf, new SolverOptions(), null);
+	}
+
+	/**
+	 * Create a solver for a formula read from a DIMACS file, without going through
+	 * Clause objects. Its variables are those of cnf, variable v being solver
+	 * variable v - 1, so that a proof recorded into proof, unless null, is checkable
+	 * against the file.
+	 */
+	public Solver (Cnf cnf, SolverOptions options, DratProof proof) {
+		this(options, proof);
+
+		final Phase encode = Phase.start(Phase.ENCODE, statistics);
+		final List<int[]> lowered = new ArrayList<>();
+		int[] lits;
+
+		for (int v = 1; v <= cnf.variableCount(); v++) {
+			variables.idOf(Cnf.variable(v));
+		}
+
+		ensureCapacity(variables.size());
+
+		for (int c = 0; c < cnf.clauseCount(); c++) {
+			lits = new int[cnf.clauseSize(c)];
+
+			for (int i = 0; i < lits.length; i++) {
+				lits[i] = Lit.fromDimacs(cnf.literal(c, i));
+			}
+
+			if (options.isPreprocessing()) {
+				lowered.add(lits);
+			} else {
+				addClause(lits);
+			}
+		}
+
+		statistics.encodeTime += encode.end();
+
+		if (options.isPreprocessing()) {
+			preprocess(lowered);
+		}
+	}
+
+	private Solver (SolverOptions options, DratProof proof) {
+		this.options = options;
+		this.proof = proof;
+		this.heuristic = options.getHeuristic().get();
+		this.restartPolicy = options.getRestartPolicy().get();
+		this.learnts = new LearnedClauseDatabase(arena, options.getLearnedLiteralsLimit());
+		this.random = options.getPolarity() == Polarity.RANDOM ? new Random(options.getSeed()) : null;
+		this.phaseSaving = options.isPhaseSaving();
+	}
+
+	/**
+	 * Add c to the clauses of this solver: from now on, every call to solve() has to
+	 * satisfy it as well. Clauses learned so far, and the state of the heuristic, are
+	 * kept.
+	 */
+	public void addClause (Clause c) {
+		// Timed without a Phase, so as not to report one flight recorder event per clause.
+		final long started = System.nanoTime();
+
+		addLowered(c);
+		statistics.encodeTime += System.nanoTime() - started;
+	}
+
+	private void addLowered (Clause c) {
+		final int[] lits = lower(c);
+
+		ensureCapacity(variables.size());
+		restoreEliminated(lits);
+		addClause(lits);
+	}
+
+	/**
+	 * Search for a satisfying assignment of the clauses of this solver, that also
+	 * makes every literal of assumptions true. Assumptions hold for this call only:
+	 * unlike clauses, they do not constrain later calls. So a solver can be loaded
+	 * with the clauses common to many problems once, and then solve each problem as
+	 * a set of assumptions, reusing what it learned from the previous ones.<br>
+	 * The returned environment binds every variable of the clauses and assumptions
+	 * to either Boolean.TRUE or Boolean.FALSE.
+	 *
+	 * @return an environment for which the clauses and assumptions evaluate to
+	 * Boolean.TRUE, or null if no such environment exists, or if the solver was
+	 * interrupted.
+	 */
+	public Environment solve (Literal... assumptions) {
+		return solve(Budget.UNLIMITED, assumptions).getModel();
+	}
+
+	/**
+	 * Like solve(Literal...), but giving up once budget runs out. Clauses learned
+	 * before giving up are kept, so a later call resumes with their benefit.
+	 *
+	 * @return the outcome of the search: SATISFIABLE together with an environment
+	 * for which the clauses and assumptions evaluate to Boolean.TRUE, UNSATISFIABLE,
+	 * or UNKNOWN if the budget ran out or the solver was interrupted first.
+	 */
+	public SolverResult solve (Budget budget, Literal... assumptions) {
+		final int[] lits = new int[assumptions.length];
+
+		for (int i = 0; i < assumptions.length; i++) {
+			lits[i] = variables.literalOf(assumptions[i]);
+		}
+
+		ensureCapacity(variables.size());
+		restoreEliminated(lits);
+
+		return solve(lits, budget);
+	}
+
+	/**
+	 * Search for a satisfying assignment that makes every literal of assumptions true.
+	 * Assumptions hold for this call only: unlike clauses, they do not constrain
+	 * later calls.
+	 *
+	 * @requires every literal of assumptions is over a variable below variableCount()
+	 */
+	SolverResult solve (int[] assumptions, Budget budget) {
+		final SolverResult.Status status;
+		final Environment model;
+		final Phase search = Phase.start(Phase.SEARCH, statistics);
+
+		this.assumptions = assumptions;
+		this.budget = budget;
+		core.clear();
+		this.conflictLimit = saturatedSum(statistics.conflicts, budget.getConflicts());
+		this.decisionLimit = saturatedSum(statistics.decisions, budget.getDecisions());
+
+		status = ok ? search() : SolverResult.Status.UNSATISFIABLE;
+		statistics.searchTime += search.end();
+
+		if (status == SolverResult.Status.UNKNOWN) {
+			interrupted = false;
+		}
+
+		if (status == SolverResult.Status.SATISFIABLE) {
+			final Phase decode = Phase.start(Phase.DECODE, statistics);
+
+			model = extractModel();
+			statistics.decodeTime += decode.end();
+		} else {
+			model = null;
+		}
+
+		cancelUntil(0);
+		this.assumptions = new int[0];
+		this.budget = Budget.UNLIMITED;
+
+		if (proof != null) {
+			try {
+				proof.flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		return new SolverResult(status, model, new Statistics(statistics));
+	}
+
+	/**
+	 * After a call to solve() that found no model under its assumptions, tell which
+	 * assumptions are to blame: no model of the clauses satisfies all of them.
+	 * The core comes for free from the search, but need not be minimal.
+	 *
+	 * @return a subset of the assumptions of the last call to solve() that the
+	 * clauses make unsatisfiable. It is empty if the clauses are unsatisfiable on
+	 * their own, or if the last call did not fail.
+	 */
+	public Literal[] getCore () {
+		final Literal[] result = new Literal[core.size()];
+
+		for (int i = 0; i < result.length; i++) {
+			result[i] = toLiteral(core.get(i));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Shrink the core of the last call to solve() down to a minimal one, from which
+	 * no literal can be dropped: every literal of the core is dropped in turn, and
+	 * the rest solved as assumptions. If they are still unsatisfiable, the literal
+	 * goes, and so do those of the rest that the new core leaves out. This costs one
+	 * solve per literal of the core at most, each of them helped by the clauses
+	 * learned by the previous ones.<br>
+	 * If the solver is interrupted meanwhile, the literals left to check are kept,
+	 * so that the result is still a core, just not a minimal one.
+	 *
+	 * @requires the last call to solve() failed
+	 * @return the minimal core, which getCore() returns from now on as well.
+	 */
+	public Literal[] minimizeCore () {
+		final IntVec necessary = new IntVec(), candidates = new IntVec();
+		SolverResult.Status status;
+		int lit, size;
+
+		for (int i = 0; i < core.size(); i++) {
+			candidates.push(core.get(i));
+		}
+
+		while (!candidates.isEmpty()) {
+			lit = candidates.pop();
+
+			final IntVec rest = new IntVec(necessary.size() + candidates.size());
+
+			for (int i = 0; i < necessary.size(); i++) {
+				rest.push(necessary.get(i));
+			}
+			for (int i = 0; i < candidates.size(); i++) {
+				rest.push(candidates.get(i));
+			}
+
+			status = solve(rest.toArray(), Budget.UNLIMITED).getStatus();
+
+			if (status == SolverResult.Status.UNKNOWN) {
+				// Interrupted: keep lit and the candidates left unchecked.
+				necessary.push(lit);
+
+				while (!candidates.isEmpty()) {
+					necessary.push(candidates.pop());
+				}
+
+				break;
+			} else if (status != SolverResult.Status.UNSATISFIABLE) {
+				necessary.push(lit);
+				continue;
+			}
+
+			// The new core is part of necessary and candidates: keep the candidates in it.
+			for (int i = 0; i < core.size(); i++) {
+				seen[Lit.var(core.get(i))] = true;
+			}
+
+			size = 0;
+
+			for (int i = 0; i < candidates.size(); i++) {
+				if (seen[Lit.var(candidates.get(i))]) {
+					candidates.set(size++, candidates.get(i));
+				}
+			}
+
+			candidates.shrink(size);
+
+			for (int i = 0; i < core.size(); i++) {
+				seen[Lit.var(core.get(i))] = false;
+			}
+		}
+
+		core.clear();
+
+		for (int i = 0; i < necessary.size(); i++) {
+			core.push(necessary.get(i));
+		}
+
+		return getCore();
+	}
+
+	/**
+	 * Make the current or next call to solve() give up and return null, which then
+	 * does not mean that the formula is unsatisfiable; solve(Budget, Literal...)
+	 * returns UNKNOWN. This method can be called from any thread; the search notices
+	 * it between two propagations.<br>
+	 * The interruption is used up by the call it stops: later calls search as usual.
+	 */
+	public void interrupt () {
+		interrupted = true;
+	}
+
+	/**
+	 * @return true iff interrupt() has been called, and no call to solve() has been
+	 * stopped by it yet.
+	 */
+	public boolean isInterrupted () {
+		return interrupted;
+	}
+
+	/**
+	 * Publish short learned clauses to exchange, and import the clauses published
+	 * there by other workers at every restart.
+	 *
+	 * @param id identifier of this solver among the workers sharing exchange
+	 */
+	void share (ClauseExchange exchange, int id) {
+		this.exchange = exchange;
+		this.exchangeId = id;
+		this.exchangeCursor = exchange.head();
+	}
+
+	/**
+	 * @return the counters of the work done by this solver so far.
+	 */
+	public Statistics getStatistics () {
+		return statistics;
+	}
+
+	@Override
+	public int variableCount () {
+		return numVars;
+	}
+
+	@Override
+	public boolean isAssigned (int var) {
+		return values[Lit.make(var, false)] != UNASSIGNED;
+	}
+
+	@Override
+	public boolean isTrue (int lit) {
+		return values[lit] == VALUE_TRUE;
+	}
+
+	@Override
+	public boolean isFalse (int lit) {
+		return values[lit] == VALUE_FALSE;
+	}
+
+	@Override
+	public int phase (int var) {
+		return phases[var];
+	}
+
+	@Override
+	public int clauseCount () {
+		return clauses.size();
+	}
+
+	@Override
+	public int clauseSize (int clause) {
+		return arena.size(clauses.get(clause));
+	}
+
+	@Override
+	public int literal (int clause, int position) {
+		return arena.literal(clauses.get(clause), position);
+	}
+
+	/**
+	 * @return the integer literals of c, registering its variables if new.
+	 */
+	private int[] lower (Clause c) {
+		final IntVec lits = new IntVec(c.size());
+
+		for (Literal l: c) {
+			lits.push(variables.literalOf(l));
+		}
+
+		return lits.toArray();
+	}
+
+	/**
+	 * Simplify clauses through a Preprocessor and add the result to the clause store.
+	 *
+	 * @requires every variable of clauses is below variableCount()
+	 */
+	private void preprocess (List<int[]> clauses) {
+		final Phase phase = Phase.start(Phase.PREPROCESS, statistics);
+
+		preprocessor = new Preprocessor(numVars, statistics, proof);
+
+		for (int[] c: clauses) {
+			preprocessor.addClause(c);
+		}
+
+		if (!preprocessor.simplify()) {
+			refute();
+		} else {
+			for (int[] c: preprocessor.getClauses()) {
+				addClause(c);
+			}
+		}
+
+		statistics.preprocessTime += phase.end();
+	}
+
+	/**
+	 * Bring back the variables of lits that preprocessing eliminated, together with
+	 * their clauses, so that lits can refer to them.
+	 */
+	private void restoreEliminated (int[] lits) {
+		if (preprocessor == null) {
+			return;
+		}
+
+		for (int l: lits) {
+			if (preprocessor.isEliminated(Lit.var(l))) {
+				for (int[] c: preprocessor.restore(Lit.var(l))) {
+					addClause(c);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Add a clause at decision level 0, after dropping duplicate literals and literals
+	 * already false. Clauses that are already satisfied, or that contain a literal
+	 * together with its negation, are discarded.
+	 *
+	 * @requires lits is not used by the caller afterwards: it is reordered
+	 */
+	private void addClause (int[] lits) {
+		int size = 0;
+
+		if (!ok) {
+			return;
+		}
+
+		Arrays.sort(lits);
+
+		for (int i = 0; i < lits.length; i++) {
+			final int l = lits[i];
+
+			if (values[l] == VALUE_TRUE || (size > 0 && lits[size - 1] == Lit.not(l))) {
+				return;
+			}
+			if (values[l] != VALUE_FALSE && (size == 0 || lits[size - 1] != l)) {
+				lits[size++] = l;
+			}
+		}
+
+		if (size == 0) {
+			refute();
+		} else if (size == 1) {
+			assign(lits[0], ClauseArena.NONE);
+
+			if (propagate() != ClauseArena.NONE) {
+				refute();
+			}
+		} else {
+			final int c = arena.allocate(lits, size, false, 0);
+
+			clauses.push(c);
+			attach(c);
+		}
+	}
+
+	/**
+	 * The main loop: propagate, and either resolve the conflict (by learning and
+	 * backjumping, or by flipping a decision in DPLL mode) or take a new decision.
+	 * In CDCL mode, the restart policy is asked after every conflict whether to
+	 * restart.
+	 *
+	 * Assumptions are decided first, one per decision level; an assumption found
+	 * false ends the search, without making the clauses themselves unsatisfiable.
+	 *
+	 * @return SATISFIABLE if a satisfying assignment sits on the trail, UNSATISFIABLE
+	 * if the clauses are unsatisfiable under the assumptions, UNKNOWN if the budget
+	 * ran out or the solver was interrupted.
+	 */
+	private SolverResult.Status search () {
+		int conflict, backtrackLevel, next, lbd;
+		int[] learnt;
+
+		// Past this point, stopping is checked between conflicts and by propagate().
+		if (interrupted || budget.isExpired()) {
+			return SolverResult.Status.UNKNOWN;
+		}
+
+		while (true) {
+			conflict = propagate();
+
+			if (conflict == ClauseArena.NONE && propagationHead < trail.size()) {
+				// Propagation was cut short by a request to stop.
+				return SolverResult.Status.UNKNOWN;
+			} else if (conflict != ClauseArena.NONE) {
+				statistics.conflicts++;
+
+				if (decisionLevel() == 0) {
+					refute();
+					return SolverResult.Status.UNSATISFIABLE;
+				}
+
+				if (options.getMode() == SearchMode.DPLL) {
+					if (!flipLastDecision()) {
+						// Assumption levels are never flipped, so the search only proves
+						// the clauses unsatisfiable if there are none; otherwise, it has
+						// no better core than every assumption.
+						ok = assumptions.length > 0;
+						core.clear();
+
+						for (int a: assumptions) {
+							core.push(a);
+						}
+
+						return SolverResult.Status.UNSATISFIABLE;
+					}
+				} else {
+					backtrackLevel = analyze(conflict);
+					learnt = learntClause.toArray();
+					lbd = computeLbd(learnt);
+					heuristic.decay();
+					learnts.decay();
+					restartPolicy.conflict(lbd, trail.size());
+					cancelUntil(backtrackLevel);
+					learn(learnt, lbd);
+
+					if (learnts.shouldReduce()) {
+						reduceLearnts();
+					}
+					if (restartPolicy.shouldRestart()) {
+						statistics.restarts++;
+						cancelUntil(0);
+						restartPolicy.restarted();
+
+						if (exchange != null && !importSharedClauses()) {
+							return SolverResult.Status.UNSATISFIABLE;
+						}
+					}
+				}
+
+				if (statistics.conflicts >= conflictLimit || interrupted || budget.isExpired()) {
+					return SolverResult.Status.UNKNOWN;
+				}
+			} else if (decisionLevel() < assumptions.length) {
+				next = assumptions[decisionLevel()];
+
+				if (isFalse(next)) {
+					analyzeFinal(next);
+					return SolverResult.Status.UNSATISFIABLE;
+				} else if (isTrue(next)) {
+					// Keep assumption i on level i + 1 anyway, with an empty level.
+					newDecisionLevel(true);
+				} else {
+					decide(next, true);
+				}
+			} else {
+				next = pickBranchLiteral();
+
+				if (next == Lit.UNDEF) {
+					return SolverResult.Status.SATISFIABLE;
+				} else if (statistics.decisions >= decisionLimit) {
+					return SolverResult.Status.UNKNOWN;
+				}
+
+				statistics.decisions++;
+				decide(next, false);
+			}
+		}
+	}
+
+	/**
+	 * Propagate every literal on the trail that has not been propagated yet, unless
+	 * the solver is asked to stop on the way.
+	 *
+	 * @return a clause whose literals are all false, or ClauseArena.NONE if no
+	 * conflict arose.
+	 */
+	private int propagate () {
+		// Nothing is allocated in the arena while propagating, so memory stays valid.
+		final int[] memory = arena.memory();
+		int conflict = ClauseArena.NONE;
+
+		while (propagationHead < trail.size()) {
+			if ((statistics.propagations & STOP_CHECK_INTERVAL) == STOP_CHECK_INTERVAL
+					&& (interrupted || budget.isExpired())) {
+				break;
+			}
+
+			final int falseLit = Lit.not(trail.get(propagationHead++));
+			final IntVec watchers = watches.get(falseLit);
+			final int n = watchers.size();
+			int i = 0, j = 0;
+
+			statistics.propagations++;
+
+			nextClause:
+			while (i < n) {
+				final int c = watchers.get(i++);
+				// The literals of c are memory[first ... end - 1].
+				final int first = c + ClauseArena.HEADER_SIZE, end = first + arena.size(c);
+
+				// Make sure the false literal is literal 1.
+				if (memory[first] == falseLit) {
+					memory[first] = memory[first + 1];
+					memory[first + 1] = falseLit;
+				}
+
+				if (values[memory[first]] == VALUE_TRUE) {
+					watchers.set(j++, c);
+					continue;
+				}
+
+				// Look for a new literal to watch.
+				for (int k = first + 2; k < end; k++) {
+					if (values[memory[k]] != VALUE_FALSE) {
+						memory[first + 1] = memory[k];
+						memory[k] = falseLit;
+						watches.get(memory[first + 1]).push(c);
+						continue nextClause;
+					}
+				}
+
+				// The clause is unit or conflicting under the current assignment.
+				watchers.set(j++, c);
+
+				if (values[memory[first]] == VALUE_FALSE) {
+					conflict = c;
+					propagationHead = trail.size();
+
+					while (i < n) {
+						watchers.set(j++, watchers.get(i++));
+					}
+				} else {
+					assign(memory[first], c);
+				}
+			}
+
+			watchers.shrink(j);
+		}
+
+		return conflict;
+	}
+
+	/**
+	 * Analyze conflict down to its first unique implication point, leaving the
+	 * learned clause in learntClause with the asserting literal in position 0
+	 * and a literal of the backtrack level in position 1.
+	 *
+	 * @requires decisionLevel() > 0
+	 * @return the decision level to backjump to.
+	 */
+	private int analyze (int conflict) {
+		int reason = conflict;
+		int pathCount = 0, p = Lit.UNDEF, index = trail.size() - 1;
+		int backtrackLevel = 0;
+
+		learntClause.clear();
+		learntClause.push(Lit.UNDEF); // Room for the asserting literal.
+
+		do {
+			if (arena.isLearnt(reason)) {
+				learnts.bump(reason);
+				refreshLbd(reason);
+			}
+
+			// The implied literal of a reason clause sits at position 0, and is p itself.
+			for (int k = (p == Lit.UNDEF) ? 0 : 1; k < arena.size(reason); k++) {
+				final int q = arena.literal(reason, k);
+				final int v = Lit.var(q);
+
+				if (!seen[v] && levels[v] > 0) {
+					seen[v] = true;
+					heuristic.bump(v);
+
+					if (levels[v] >= decisionLevel()) {
+						pathCount++;
+					} else {
+						learntClause.push(q);
+					}
+				}
+			}
+
+			// Select the next literal of the current level to expand.
+			while (!seen[Lit.var(trail.get(index--))]);
+			p = trail.get(index + 1);
+			reason = reasons[Lit.var(p)];
+			seen[Lit.var(p)] = false;
+			pathCount--;
+		} while (pathCount > 0);
+
+		learntClause.set(0, Lit.not(p));
+		minimize();
+
+		// Move a literal of the highest remaining level to position 1, to be watched.
+		if (learntClause.size() > 1) {
+			int max = 1;
+
+			for (int k = 2; k < learntClause.size(); k++) {
+				if (levels[Lit.var(learntClause.get(k))] > levels[Lit.var(learntClause.get(max))]) {
+					max = k;
+				}
+			}
+
+			final int swap = learntClause.get(max);
+			learntClause.set(max, learntClause.get(1));
+			learntClause.set(1, swap);
+			backtrackLevel = levels[Lit.var(swap)];
+		}
+
+		return backtrackLevel;
+	}
+
+	/**
+	 * Drop from learntClause every literal whose reason clause is made only of
+	 * literals already in learntClause (or fixed at level 0): such literals are
+	 * implied by the others and add nothing to the clause. Also resets seen.
+	 */
+	private void minimize () {
+		final int size = learntClause.size();
+		int j = 1;
+
+		for (int i = 1; i < size; i++) {
+			final int q = learntClause.get(i);
+			final int reason = reasons[Lit.var(q)];
+			boolean redundant = reason != ClauseArena.NONE;
+
+			if (redundant) {
+				for (int k = 1; k < arena.size(reason); k++) {
+					final int v = Lit.var(arena.literal(reason, k));
+
+					if (!seen[v] && levels[v] > 0) {
+						redundant = false;
+						break;
+					}
+				}
+			}
+
+			if (redundant) {
+				redundantLits.push(q);
+			} else {
+				learntClause.set(j++, q);
+			}
+		}
+
+		learntClause.shrink(j);
+
+		for (int i = 1; i < learntClause.size(); i++) {
+			seen[Lit.var(learntClause.get(i))] = false;
+		}
+		for (int i = 0; i < redundantLits.size(); i++) {
+			seen[Lit.var(redundantLits.get(i))] = false;
+		}
+		redundantLits.clear();
+	}
+
+	/**
+	 * @return the literal block distance of lits, that is the number of distinct
+	 * decision levels among them. Clauses of low LBD tie together few decisions,
+	 * and tend to be the most useful ones to learn.
+	 */
+	private int computeLbd (int[] lits) {
+		return computeLbd(lits, 0, lits.length);
+	}
+
+	/**
+	 * @return the literal block distance of lits[from ... to - 1].
+	 */
+	private int computeLbd (int[] lits, int from, int to) {
+		int lbd = 0, level;
+
+		stamp++;
+
+		for (int i = from; i < to; i++) {
+			level = levels[Lit.var(lits[i])];
+
+			if (levelStamps[level] != stamp) {
+				levelStamps[level] = stamp;
+				lbd++;
+			}
+		}
+
+		return lbd;
+	}
+
+	/**
+	 * Lower the LBD of learned clause c if it is now lower than when c was learned,
+	 * as in Glucose. Enough of a drop can make c a core clause.
+	 */
+	private void refreshLbd (int c) {
+		final int lbd;
+
+		if (arena.lbd(c) > LearnedClauseDatabase.CORE_LBD) {
+			lbd = computeLbd(arena.memory(), c + ClauseArena.HEADER_SIZE, c + ClauseArena.HEADER_SIZE + arena.size(c));
+
+			if (lbd + 1 < arena.lbd(c)) {
+				arena.setLbd(c, lbd);
+			}
+		}
+	}
+
+	/**
+	 * Record learnt, the clause computed by analyze(), and assign its asserting
+	 * literal. Must be called right after backjumping.
+	 */
+	private void learn (int[] learnt, int lbd) {
+		final int c;
+
+		statistics.learnedClauses++;
+
+		if (proof != null) {
+			proof.add(learnt);
+		}
+
+		if (exchange != null && (learnt.length <= SHARED_SIZE_LIMIT || lbd <= LearnedClauseDatabase.CORE_LBD)) {
+			statistics.exportedClauses++;
+			exchange.publish(exchangeId, learnt.clone());
+		}
+
+		if (learnt.length == 1) {
+			assign(learnt[0], ClauseArena.NONE);
+		} else {
+			c = arena.allocate(learnt, learnt.length, true, lbd);
+			learnts.add(c);
+			attach(c);
+			assign(learnt[0], c);
+		}
+	}
+
+	/**
+	 * Add the clauses published by other workers since the last import, as learned
+	 * clauses.
+	 *
+	 * @requires decisionLevel() == 0
+	 * @return false if the clauses are now known to be unsatisfiable.
+	 */
+	private boolean importSharedClauses () {
+		exchangeCursor = exchange.read(exchangeId, exchangeCursor, this::importClause);
+
+		return ok;
+	}
+
+	private void importClause (int[] lits) {
+		final int[] kept = new int[lits.length];
+		int size = 0;
+
+		if (!ok) {
+			return;
+		}
+
+		for (int l: lits) {
+			if (values[l] == VALUE_TRUE) {
+				return;
+			} else if (values[l] != VALUE_FALSE) {
+				kept[size++] = l;
+			}
+		}
+
+		statistics.importedClauses++;
+
+		if (size == 0) {
+			ok = false;
+		} else if (size == 1) {
+			assign(kept[0], ClauseArena.NONE);
+			ok = propagate() == ClauseArena.NONE;
+		} else {
+			final int c = arena.allocate(kept, size, true, size);
+
+			learnts.add(c);
+			attach(c);
+		}
+	}
+
+	/**
+	 * Compute into core the assumptions that force lit false: lit itself, and every
+	 * assumption the reasons of ¬lit lead back to.
+	 *
+	 * @requires lit is an assumption found false
+	 */
+	private void analyzeFinal (int lit) {
+		int reason, v;
+
+		core.clear();
+		core.push(lit);
+
+		if (decisionLevel() == 0) {
+			return;
+		}
+
+		seen[Lit.var(lit)] = true;
+
+		// Every decision on the trail is an assumption, since they are decided first.
+		for (int i = trail.size() - 1; i >= trailLimits.get(0); i--) {
+			v = Lit.var(trail.get(i));
+
+			if (seen[v]) {
+				reason = reasons[v];
+
+				if (reason == ClauseArena.NONE) {
+					core.push(trail.get(i));
+				} else {
+					for (int j = 1; j < arena.size(reason); j++) {
+						if (levels[Lit.var(arena.literal(reason, j))] > 0) {
+							seen[Lit.var(arena.literal(reason, j))] = true;
+						}
+					}
+				}
+
+				seen[v] = false;
+			}
+		}
+
+		seen[Lit.var(lit)] = false;
+	}
+
+	/**
+	 * The clauses are unsatisfiable: record it, and close the proof, if any, with
+	 * the empty clause.
+	 */
+	private void refute () {
+		ok = false;
+
+		if (proof != null) {
+			proof.add(new int[0]);
+		}
+	}
+
+	/**
+	 * Delete the less useful half of the learned clauses, and detach them. Once
+	 * deleted clauses make up enough of the arena, compact it.
+	 */
+	private void reduceLearnts () {
+		int size;
+
+		statistics.deletedClauses += learnts.reduce(
+				c -> reasons[Lit.var(arena.literal(c, 0))] == c && isTrue(arena.literal(c, 0)),
+				c -> {
+					if (proof != null) {
+						proof.delete(arena.literals(c));
+					}
+				}
+		);
+
+		for (IntVec watchers: watches) {
+			size = 0;
+
+			for (int i = 0; i < watchers.size(); i++) {
+				if (!arena.isDeleted(watchers.get(i))) {
+					watchers.set(size++, watchers.get(i));
+				}
+			}
+
+			watchers.shrink(size);
+		}
+
+		if (arena.shouldCompact()) {
+			compactArena();
+		}
+	}
+
+	/**
+	 * Compact the arena, and update every reference to its clauses.
+	 *
+	 * @requires no deleted clause is watched or the reason of an assignment
+	 */
+	private void compactArena () {
+		final IntUnaryOperator relocation = arena.compact();
+
+		for (IntVec watchers: watches) {
+			for (int i = 0; i < watchers.size(); i++) {
+				watchers.set(i, relocation.applyAsInt(watchers.get(i)));
+			}
+		}
+
+		for (int i = 0; i < trail.size(); i++) {
+			final int v = Lit.var(trail.get(i));
+
+			if (reasons[v] != ClauseArena.NONE) {
+				reasons[v] = relocation.applyAsInt(reasons[v]);
+			}
+		}
+
+		for (int i = 0; i < clauses.size(); i++) {
+			clauses.set(i, relocation.applyAsInt(clauses.get(i)));
+		}
+
+		learnts.relocate(relocation);
+	}
+
+	/**
+	 * Chronological backtracking: undo the most recent decision that has not been
+	 * tried both ways, and take its negation as a decision on the same level.
+	 *
+	 * @return false if every decision has already been flipped, that is the whole
+	 * search space has been explored.
+	 */
+	private boolean flipLastDecision () {
+		int level = decisionLevel();
+		final int decision;
+
+		while (level > 0 && flipped.get(level - 1) != 0) {
+			level--;
+		}
+
+		if (level == 0) {
+			return false;
+		}
+
+		decision = trail.get(trailLimits.get(level - 1));
+		cancelUntil(level - 1);
+		decide(Lit.not(decision), true);
+
+		return true;
+	}
+
+	/**
+	 * Open a new decision level with lit as its decision, and propagate it. This is
+	 * how lookahead probes the consequences of a literal.
+	 *
+	 * @requires lit is unassigned, and the clauses are not known to be unsatisfiable
+	 * @return false iff propagation met a conflict. The level stays open either way,
+	 * until backtrack() closes it.
+	 */
+	boolean assume (int lit) {
+		decide(lit, false);
+
+		return propagate() == ClauseArena.NONE;
+	}
+
+	/**
+	 * Undo every decision level above level.
+	 */
+	void backtrack (int level) {
+		cancelUntil(level);
+	}
+
+	/**
+	 * @return false if the clauses are known to be unsatisfiable.
+	 */
+	boolean isOk () {
+		return ok;
+	}
+
+	/**
+	 * @return number of assigned literals.
+	 */
+	int trailSize () {
+		return trail.size();
+	}
+
+	/**
+	 * @return lit as a literal of the formula.
+	 */
+	Literal toLiteral (int lit) {
+		final Variable v = variables.variable(Lit.var(lit));
+
+		return Lit.isNegated(lit) ? NegatedLiteral.make(v) : PositiveLiteral.make(v);
+	}
+
+	/**
+	 * Open a new decision level with lit as its decision.
+	 */
+	private void decide (int lit, boolean isFlip) {
+		newDecisionLevel(isFlip);
+		statistics.maxDepth = Math.max(statistics.maxDepth, trailLimits.size());
+		assign(lit, ClauseArena.NONE);
+	}
+
+	/**
+	 * Open a new decision level, the flip of an earlier decision iff isFlip. Levels
+	 * can outnumber variables, as assumptions already true open empty ones.
+	 */
+	private void newDecisionLevel (boolean isFlip) {
+		trailLimits.push(trail.size());
+		flipped.push(isFlip ? 1 : 0);
+
+		if (trailLimits.size() >= levelStamps.length) {
+			levelStamps = Arrays.copyOf(levelStamps, 2 * levelStamps.length);
+		}
+	}
+
+	/**
+	 * Pick the next decision literal, as told by the branching heuristic.
+	 *
+	 * @return a literal, or Lit.UNDEF if every variable is assigned.
+	 */
+	private int pickBranchLiteral () {
+		final int next = heuristic.pick(this);
+
+		assert next == Lit.UNDEF || !isAssigned(Lit.var(next)) : "Solver: heuristic picked an assigned literal";
+
+		return next;
+	}
+
+	private void attach (int c) {
+		watches.get(arena.literal(c, 0)).push(c);
+		watches.get(arena.literal(c, 1)).push(c);
+	}
+
+	/**
+	 * Make lit true at the current decision level, implied by clause reason unless
+	 * it is ClauseArena.NONE.
+	 *
+	 * @requires lit is unassigned
+	 */
+	private void assign (int lit, int reason) {
+		final int v = Lit.var(lit);
+
+		values[lit] = VALUE_TRUE;
+		values[Lit.not(lit)] = VALUE_FALSE;
+		levels[v] = decisionLevel();
+		reasons[v] = reason;
+		trail.push(lit);
+	}
+
+	/**
+	 * Undo every assignment made above decision level level.
+	 */
+	private void cancelUntil (int level) {
+		if (decisionLevel() > level) {
+			final int limit = trailLimits.get(level);
+
+			for (int i = trail.size() - 1; i >= limit; i--) {
+				final int lit = trail.get(i);
+
+				values[lit] = UNASSIGNED;
+				values[Lit.not(lit)] = UNASSIGNED;
+				reasons[Lit.var(lit)] = ClauseArena.NONE;
+				if (phaseSaving) {
+					phases[Lit.var(lit)] = lit;
+				}
+
+				heuristic.unassigned(Lit.var(lit));
+			}
+
+			trail.shrink(limit);
+			trailLimits.shrink(level);
+			flipped.shrink(level);
+			propagationHead = limit;
+		}
+	}
+
+	private static long saturatedSum (long a, long b) {
+		return a + b < a ? Long.MAX_VALUE : a + b;
+	}
+
+	int decisionLevel () {
+		return trailLimits.size();
+	}
+
+	/**
+	 * Grow the per-variable tables to hold n variables.
+	 */
+	private void ensureCapacity (int n) {
+		if (n > levels.length) {
+			final int capacity = Math.max(n, 2 * levels.length);
+
+			reasons = Arrays.copyOf(reasons, capacity);
+			Arrays.fill(reasons, levels.length, capacity, ClauseArena.NONE);
+			values = Arrays.copyOf(values, 2 * capacity);
+			levels = Arrays.copyOf(levels, capacity);
+			seen = Arrays.copyOf(seen, capacity);
+			phases = Arrays.copyOf(phases, capacity);
+		}
+
+		while (numVars < n) {
+			watches.add(new IntVec());
+			watches.add(new IntVec());
+			phases[numVars] = Lit.make(
+					numVars, random == null ? options.getPolarity() == Polarity.NEGATIVE : random.nextBoolean()
+			);
+			heuristic.newVariable(numVars++);
+		}
+	}
+
+	/**
+	 * @requires every variable is assigned
+	 * @return the current assignment as an Environment.
+	 */
+	private Environment extractModel () {
+		final boolean[] model = new boolean[numVars];
+		Environment result = new Environment();
+
+		for (int v = 0; v < numVars; v++) {
+			model[v] = values[Lit.make(v, false)] == VALUE_TRUE;
+		}
+
+		if (preprocessor != null) {
+			preprocessor.extendModel(model);
+		}
+
+		for (int v = 0; v < numVars; v++) {
+			result = result.put(variables.variable(v), model[v] ? TRUE : FALSE);
+		}
+
+		return result;
+	}
+
+}
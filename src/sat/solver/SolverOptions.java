@@ -0,0 +1,222 @@
+package sat.solver;
+
+import java.util.function.Supplier;
+
+/**
+ * SolverOptions is an immutable set of tuning knobs for {@link Solver}.<br>
+ * The no-argument constructor yields the defaults; every with*() method returns a
+ * copy with a single option changed, so options can be chained:
+ * <pre>
+ *     new SolverOptions().withMode(SearchMode.DPLL)
+ * </pre>
+ */
+public class SolverOptions {
+
+	/**
+	 * Default cap on learned literals: some 20MB worth of ints.
+	 */
+	public static final long DEFAULT_LEARNED_LITERALS_LIMIT = 5000000;
+
+	/*
+	 * Rep invariant
+	 *     mode != null
+	 *     heuristic != null
+	 *     restartPolicy != null
+	 *     learnedLiteralsLimit > 0
+	 *     polarity != null
+	 *
+	 * Fields are only ever written by the with*() methods, on a fresh copy.
+	 */
+	private SearchMode mode = SearchMode.CDCL;
+	private Supplier<? extends BranchingHeuristic> heuristic = Heuristic.EVSIDS;
+	private Supplier<? extends RestartPolicy> restartPolicy = Restart.LUBY;
+	private long learnedLiteralsLimit = DEFAULT_LEARNED_LITERALS_LIMIT;
+	private boolean preprocessing = false;
+	private Polarity polarity = Polarity.NEGATIVE;
+	private boolean phaseSaving = true;
+	private long seed = 0;
+
+	public SolverOptions () {
+	}
+
+	private SolverOptions (SolverOptions other) {
+		this.mode = other.mode;
+		this.heuristic = other.heuristic;
+		this.restartPolicy = other.restartPolicy;
+		this.learnedLiteralsLimit = other.learnedLiteralsLimit;
+		this.preprocessing = other.preprocessing;
+		this.polarity = other.polarity;
+		this.phaseSaving = other.phaseSaving;
+		this.seed = other.seed;
+	}
+
+	/**
+	 * @return the search strategy, SearchMode.CDCL by default.
+	 */
+	public SearchMode getMode () {
+		return mode;
+	}
+
+	/**
+	 * @requires mode != null
+	 * @return a copy of these options using the given search strategy.
+	 */
+	public SolverOptions withMode (SearchMode mode) {
+		final SolverOptions result = new SolverOptions(this);
+		result.mode = mode;
+
+		return result;
+	}
+
+	/**
+	 * @return the factory of the branching heuristic, Heuristic.EVSIDS by default.
+	 */
+	public Supplier<? extends BranchingHeuristic> getHeuristic () {
+		return heuristic;
+	}
+
+	/**
+	 * Since heuristics keep per-solve state, the options hold a factory rather than a
+	 * heuristic: each solver asks it for a fresh instance.
+	 *
+	 * @requires heuristic != null, and heuristic.get() returns a new object on every call
+	 * @return a copy of these options using the given branching heuristic.
+	 */
+	public SolverOptions withHeuristic (Supplier<? extends BranchingHeuristic> heuristic) {
+		final SolverOptions result = new SolverOptions(this);
+		result.heuristic = heuristic;
+
+		return result;
+	}
+
+	/**
+	 * @return the factory of the restart policy, Restart.LUBY by default.
+	 */
+	public Supplier<? extends RestartPolicy> getRestartPolicy () {
+		return restartPolicy;
+	}
+
+	/**
+	 * @requires restartPolicy != null, and restartPolicy.get() returns a new object on every call
+	 * @return a copy of these options using the given restart policy.
+	 */
+	public SolverOptions withRestartPolicy (Supplier<? extends RestartPolicy> restartPolicy) {
+		final SolverOptions result = new SolverOptions(this);
+		result.restartPolicy = restartPolicy;
+
+		return result;
+	}
+
+	/**
+	 * @return the cap on the total number of literals of learned clauses,
+	 * DEFAULT_LEARNED_LITERALS_LIMIT by default.
+	 */
+	public long getLearnedLiteralsLimit () {
+		return learnedLiteralsLimit;
+	}
+
+	/**
+	 * Cap the memory taken by learned clauses: whenever they hold more than limit
+	 * literals in total, the less useful half of them is deleted. Core clauses are
+	 * never deleted, so the cap is soft in principle; in practice they are few.
+	 *
+	 * @requires limit > 0
+	 * @return a copy of these options with the given cap on learned literals.
+	 */
+	public SolverOptions withLearnedLiteralsLimit (long limit) {
+		final SolverOptions result = new SolverOptions(this);
+		result.learnedLiteralsLimit = limit;
+
+		return result;
+	}
+
+	/**
+	 * @return true iff clauses are simplified before search, false by default.
+	 */
+	public boolean isPreprocessing () {
+		return preprocessing;
+	}
+
+	/**
+	 * Simplify the clauses through a {@link Preprocessor} before search: unit
+	 * propagation, subsumption, strengthening and bounded variable elimination.
+	 * Eliminated variables are still bound in the environments the solver returns.
+	 *
+	 * @return a copy of these options with preprocessing enabled or disabled.
+	 */
+	public SolverOptions withPreprocessing (boolean preprocessing) {
+		final SolverOptions result = new SolverOptions(this);
+		result.preprocessing = preprocessing;
+
+		return result;
+	}
+
+	/**
+	 * @return the polarity variables are first branched on, Polarity.NEGATIVE by default.
+	 */
+	public Polarity getPolarity () {
+		return polarity;
+	}
+
+	/**
+	 * @requires polarity != null
+	 * @return a copy of these options branching first on the given polarity.
+	 */
+	public SolverOptions withPolarity (Polarity polarity) {
+		final SolverOptions result = new SolverOptions(this);
+		result.polarity = polarity;
+
+		return result;
+	}
+
+	/**
+	 * @return whether variables are branched on in the polarity they last had,
+	 * true by default.
+	 */
+	public boolean isPhaseSaving () {
+		return phaseSaving;
+	}
+
+	/**
+	 * Phase saving branches on a variable in the polarity it had when it was last
+	 * unassigned, so that the search rebuilds the partial model it had before a
+	 * backjump or restart. Without it, every decision takes the default polarity.
+	 *
+	 * @return a copy of these options with phase saving enabled or disabled.
+	 */
+	public SolverOptions withPhaseSaving (boolean phaseSaving) {
+		final SolverOptions result = new SolverOptions(this);
+		result.phaseSaving = phaseSaving;
+
+		return result;
+	}
+
+	/**
+	 * @return the seed of the random choices of the solver, 0 by default.
+	 */
+	public long getSeed () {
+		return seed;
+	}
+
+	/**
+	 * Random choices, such as the polarities of Polarity.RANDOM, are drawn from seed.
+	 * Solvers with different seeds explore the search space in different orders,
+	 * which is how a Portfolio diversifies its workers.
+	 *
+	 * @return a copy of these options with the given seed.
+	 */
+	public SolverOptions withSeed (long seed) {
+		final SolverOptions result = new SolverOptions(this);
+		result.seed = seed;
+
+		return result;
+	}
+
+	@Override
+	public String toString () {
+		return "SolverOptions[mode=" + mode + ", heuristic=" + heuristic + ", restarts=" + restartPolicy
+				+ ", learnedLiteralsLimit=" + learnedLiteralsLimit + ", preprocessing=" + preprocessing + ", polarity=" + polarity
+				+ ", phaseSaving=" + phaseSaving + ", seed=" + seed + "]";
+	}
+
+}
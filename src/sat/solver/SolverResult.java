@@ -0,0 +1,64 @@
+package sat.solver;
+
+import sat.env.Environment;
+
+/**
+ * The outcome of a call to {@link Solver#solve(Budget, sat.formula.Literal...)}.
+ * Unlike a bare environment, where null stands for unsatisfiable, it tells a proof
+ * of unsatisfiability apart from a search given up for lack of budget, and it
+ * carries the statistics of the solver as they stood when the call returned.<br>
+ * This datatype is immutable.
+ */
+public class SolverResult {
+
+	public enum Status {
+		SATISFIABLE, UNSATISFIABLE,
+		/**
+		 * The search was given up before an answer was found: the budget ran out,
+		 * the solve was cancelled or the solver interrupted.
+		 */
+		UNKNOWN
+	}
+
+	/*
+	 * Rep invariant
+	 *     status != null
+	 *     model != null iff status == SATISFIABLE
+	 *     statistics != null, and is not modified
+	 */
+	private final Status status;
+	private final Environment model;
+	private final Statistics statistics;
+
+	SolverResult (Status status, Environment model, Statistics statistics) {
+		this.status = status;
+		this.model = model;
+		this.statistics = statistics;
+	}
+
+	public Status getStatus () {
+		return status;
+	}
+
+	/**
+	 * @return an environment for which the clauses and assumptions solved evaluate
+	 * to Boolean.TRUE if getStatus() == SATISFIABLE, null otherwise.
+	 */
+	public Environment getModel () {
+		return model;
+	}
+
+	/**
+	 * @return the statistics of the solver when this result was found. They are
+	 * cumulative over the calls made to the solver so far.
+	 */
+	public Statistics getStatistics () {
+		return statistics;
+	}
+
+	@Override
+	public String toString () {
+		return status == Status.SATISFIABLE ? status + " " + model : status.toString();
+	}
+
+}
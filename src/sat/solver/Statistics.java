@@ -0,0 +1,179 @@
+package sat.solver;
+
+/**
+ * Counters describing the work done by a {@link Solver}, and the time it spent in
+ * each phase: encoding clauses into integers, preprocessing them, searching, and
+ * decoding models back into environments. They accumulate over the lifetime of the
+ * solver; read them through {@link Solver#getStatistics()}, or from the snapshot
+ * that comes with every {@link SolverResult}.
+ */
+public class Statistics {
+
+	long decisions = 0;
+	long propagations = 0;
+	long conflicts = 0;
+	long restarts = 0;
+	long learnedClauses = 0;
+	long deletedClauses = 0;
+	long eliminatedVariables = 0;
+	long subsumedClauses = 0;
+	long strengthenedClauses = 0;
+	long exportedClauses = 0;
+	long importedClauses = 0;
+	long maxDepth = 0;
+	long encodeTime = 0;
+	long preprocessTime = 0;
+	long searchTime = 0;
+	long decodeTime = 0;
+
+	public Statistics () {
+	}
+
+	/**
+	 * Copy other, which the copy does not follow afterwards.
+	 */
+	Statistics (Statistics other) {
+		this.decisions = other.decisions;
+		this.propagations = other.propagations;
+		this.conflicts = other.conflicts;
+		this.restarts = other.restarts;
+		this.learnedClauses = other.learnedClauses;
+		this.deletedClauses = other.deletedClauses;
+		this.eliminatedVariables = other.eliminatedVariables;
+		this.subsumedClauses = other.subsumedClauses;
+		this.strengthenedClauses = other.strengthenedClauses;
+		this.exportedClauses = other.exportedClauses;
+		this.importedClauses = other.importedClauses;
+		this.maxDepth = other.maxDepth;
+		this.encodeTime = other.encodeTime;
+		this.preprocessTime = other.preprocessTime;
+		this.searchTime = other.searchTime;
+		this.decodeTime = other.decodeTime;
+	}
+
+	/**
+	 * @return number of decisions taken, that is of nodes of the search tree.
+	 */
+	public long getDecisions () {
+		return decisions;
+	}
+
+	/**
+	 * @return number of assigned literals whose consequences were propagated.
+	 */
+	public long getPropagations () {
+		return propagations;
+	}
+
+	/**
+	 * @return number of conflicts met.
+	 */
+	public long getConflicts () {
+		return conflicts;
+	}
+
+	/**
+	 * @return number of restarts triggered by the restart policy.
+	 */
+	public long getRestarts () {
+		return restarts;
+	}
+
+	/**
+	 * @return number of clauses learned, units included.
+	 */
+	public long getLearnedClauses () {
+		return learnedClauses;
+	}
+
+	/**
+	 * @return number of learned clauses deleted by reductions of the clause database.
+	 */
+	public long getDeletedClauses () {
+		return deletedClauses;
+	}
+
+	/**
+	 * @return number of variables removed by preprocessing through variable elimination.
+	 */
+	public long getEliminatedVariables () {
+		return eliminatedVariables;
+	}
+
+	/**
+	 * @return number of clauses removed by preprocessing for being subsumed by another.
+	 */
+	public long getSubsumedClauses () {
+		return subsumedClauses;
+	}
+
+	/**
+	 * @return number of literals removed by preprocessing through self-subsuming resolution.
+	 */
+	public long getStrengthenedClauses () {
+		return strengthenedClauses;
+	}
+
+	/**
+	 * @return number of learned clauses published to the other workers of a portfolio.
+	 */
+	public long getExportedClauses () {
+		return exportedClauses;
+	}
+
+	/**
+	 * @return number of clauses learned by other workers of a portfolio and imported.
+	 */
+	public long getImportedClauses () {
+		return importedClauses;
+	}
+
+	/**
+	 * @return highest decision level reached, assumption levels included.
+	 */
+	public long getMaxDepth () {
+		return maxDepth;
+	}
+
+	/**
+	 * @return time spent lowering clauses into integer clauses, in nanoseconds.
+	 */
+	public long getEncodeTime () {
+		return encodeTime;
+	}
+
+	/**
+	 * @return time spent in the {@link Preprocessor}, in nanoseconds.
+	 */
+	public long getPreprocessTime () {
+		return preprocessTime;
+	}
+
+	/**
+	 * @return time spent searching, in nanoseconds.
+	 */
+	public long getSearchTime () {
+		return searchTime;
+	}
+
+	/**
+	 * @return time spent turning assignments into environments, in nanoseconds.
+	 */
+	public long getDecodeTime () {
+		return decodeTime;
+	}
+
+	@Override
+	public String toString () {
+		return String.format(
+				"Statistics[decisions=%d, propagations=%d, conflicts=%d, restarts=%d, learned=%d, deleted=%d, "
+						+ "eliminated=%d, subsumed=%d, strengthened=%d, exported=%d, imported=%d, maxDepth=%d, "
+						+ "encode=%.2fms, preprocess=%.2fms, search=%.2fms, decode=%.2fms]",
+				decisions, propagations, conflicts, restarts, learnedClauses, deletedClauses,
+				eliminatedVariables, subsumedClauses, strengthenedClauses, exportedClauses, importedClauses, maxDepth,
+				encodeTime / Math.pow(10, 6), preprocessTime / Math.pow(10, 6), searchTime / Math.pow(10, 6),
+				decodeTime / Math.pow(10, 6)
+		);
+	}
+
+}
@@ -0,0 +1,31 @@
+package sat.solver;
+
+/**
+ * Variable State Independent Decaying Sum, as introduced by Chaff: every variable
+ * involved in a conflict gets its activity raised by one, and every DECAY_PERIOD
+ * conflicts all activities are halved, so that recent conflicts weigh more.
+ */
+public class VSIDSHeuristic extends ActivityHeuristic {
+
+	private static final int DECAY_PERIOD = 256;
+
+	private int conflicts = 0;
+
+	@Override
+	public void bump (int var) {
+		order.bump(var, 1);
+	}
+
+	@Override
+	public void decay () {
+		if (++conflicts % DECAY_PERIOD == 0) {
+			order.rescale(0.5);
+		}
+	}
+
+	@Override
+	public String toString () {
+		return "VSIDS";
+	}
+
+}
@@ -0,0 +1,90 @@
+package sat.solver;
+
+import sat.env.Variable;
+import sat.formula.Literal;
+import sat.formula.NegatedLiteral;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bijection between the Variable objects of a formula and the dense ints the
+ * solver works with. Ids are handed out in order of first appearance, starting
+ * from 0, and looked up in constant time.<br>
+ * An index belongs to one problem, and goes away with it, rather than to the
+ * whole program. It is safe to share between threads: lookups take no lock, and
+ * only the allocation of a new id is serialized.
+ */
+public class VariableIndex {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/*
+	 * Rep invariant
+	 *     0 <= size <= variables.length, size == ids.size() once no idOf() is running
+	 *     for every 0 <= i < size, ids.get(variables[i]) == i
+	 *     every id in ids is below size, and variables[id] is written before the id
+	 *     is published in ids
+	 */
+	private final ConcurrentHashMap<Variable, Integer> ids = new ConcurrentHashMap<>();
+	private volatile Variable[] variables = new Variable[DEFAULT_CAPACITY];
+	private volatile int size = 0;
+
+	/**
+	 * @return the id of v, allocating a fresh one if v was never seen before.
+	 */
+	public int idOf (Variable v) {
+		final Integer id = ids.get(v);
+
+		return id != null ? id : allocate(v);
+	}
+
+	private synchronized int allocate (Variable v) {
+		final Integer id = ids.get(v);
+
+		if (id != null) {
+			return id;
+		}
+
+		if (size == variables.length) {
+			variables = Arrays.copyOf(variables, 2 * variables.length);
+		}
+
+		variables[size] = v;
+		ids.put(v, size);
+
+		return size++;
+	}
+
+	/**
+	 * @return the id of v, or -1 if v has not been indexed.
+	 */
+	public int lookup (Variable v) {
+		final Integer id = ids.get(v);
+
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @return the integer literal corresponding to l, indexing its variable if needed.
+	 */
+	public int literalOf (Literal l) {
+		return Lit.make(idOf(l.getVariable()), l instanceof NegatedLiteral);
+	}
+
+	/**
+	 * @requires 0 <= id < size()
+	 * @return the variable with the given id.
+	 */
+	public Variable variable (int id) {
+		return variables[id];
+	}
+
+	/**
+	 * @return number of indexed variables.
+	 */
+	public int size () {
+		return size;
+	}
+
+}
@@ -0,0 +1,137 @@
+package sat.solver;
+
+import java.util.Arrays;
+
+/**
+ * A binary max-heap of variables keyed on a per-variable activity, stored in
+ * primitive arrays: the priority queue behind the VSIDS family of heuristics.<br>
+ * This datatype is mutable and not thread-safe.
+ */
+class VariableOrder {
+
+	/*
+	 * Rep invariant
+	 *     heap[0..size - 1] holds distinct variables, and for 0 < i < size
+	 *         activity[heap[i]] <= activity[heap[(i - 1) / 2]]
+	 *     indices[v] == i iff heap[i] == v, and indices[v] == -1 iff v is not in the heap
+	 */
+	private double[] activity = new double[0];
+	private int[] heap = new int[0];
+	private int[] indices = new int[0];
+	private int size = 0;
+
+	/**
+	 * Make room for variable var, with activity 0 and outside the heap.
+	 */
+	void grow (int var) {
+		if (var >= indices.length) {
+			final int capacity = Math.max(var + 1, 2 * indices.length);
+			final int oldCapacity = indices.length;
+
+			activity = Arrays.copyOf(activity, capacity);
+			heap = Arrays.copyOf(heap, capacity);
+			indices = Arrays.copyOf(indices, capacity);
+			Arrays.fill(indices, oldCapacity, capacity, -1);
+		}
+	}
+
+	boolean contains (int var) {
+		return indices[var] >= 0;
+	}
+
+	boolean isEmpty () {
+		return size == 0;
+	}
+
+	double activity (int var) {
+		return activity[var];
+	}
+
+	/**
+	 * @requires !contains(var)
+	 */
+	void insert (int var) {
+		heap[size] = var;
+		indices[var] = size;
+		percolateUp(size++);
+	}
+
+	/**
+	 * @requires !isEmpty()
+	 * @return the variable of highest activity, which is removed from the heap.
+	 */
+	int removeMax () {
+		final int max = heap[0];
+
+		heap[0] = heap[--size];
+		indices[heap[0]] = 0;
+		indices[max] = -1;
+
+		if (size > 1) {
+			percolateDown(0);
+		}
+
+		return max;
+	}
+
+	/**
+	 * Add amount to the activity of var, restoring the heap order.
+	 *
+	 * @requires amount >= 0
+	 */
+	void bump (int var, double amount) {
+		activity[var] += amount;
+
+		if (contains(var)) {
+			percolateUp(indices[var]);
+		}
+	}
+
+	/**
+	 * Multiply every activity by factor. The heap order is preserved.
+	 *
+	 * @requires factor > 0
+	 */
+	void rescale (double factor) {
+		for (int v = 0; v < activity.length; v++) {
+			activity[v] *= factor;
+		}
+	}
+
+	private void percolateUp (int i) {
+		final int var = heap[i];
+		int parent = (i - 1) >> 1;
+
+		while (i > 0 && activity[var] > activity[heap[parent]]) {
+			heap[i] = heap[parent];
+			indices[heap[i]] = i;
+			i = parent;
+			parent = (i - 1) >> 1;
+		}
+
+		heap[i] = var;
+		indices[var] = i;
+	}
+
+	private void percolateDown (int i) {
+		final int var = heap[i];
+		int child;
+
+		while ((child = 2 * i + 1) < size) {
+			if (child + 1 < size && activity[heap[child + 1]] > activity[heap[child]]) {
+				child++;
+			}
+			if (activity[heap[child]] <= activity[var]) {
+				break;
+			}
+
+			heap[i] = heap[child];
+			indices[heap[i]] = i;
+			i = child;
+		}
+
+		heap[i] = var;
+		indices[var] = i;
+	}
+
+}
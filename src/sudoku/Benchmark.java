@@ -0,0 +1,156 @@
+package sudoku;
+
+import sat.formula.Formula;
+import sat.solver.Heuristic;
+import sat.solver.Polarity;
+import sat.solver.Restart;
+import sat.solver.Solver;
+import sat.solver.SolverOptions;
+import sat.solver.Statistics;
+
+import java.io.IOException;
+
+/**
+ * Solves every 9x9 sample with each solver configuration under comparison, and
+ * prints search tree size and wall time per puzzle.
+ */
+public class Benchmark {
+
+	private static final String DIR_SAMPLES = "samples/";
+	private static final String[] SAMPLES_9X9 = {
+			"sudoku_easy.txt",
+			"sudoku_easy2.txt",
+			"sudoku_hard.txt",
+			"sudoku_hard2.txt",
+			"sudoku_hard3.txt",
+			"sudoku_hard4.txt",
+	};
+
+	/**
+	 * Number of times each puzzle is solved; the fastest run is reported, so as to
+	 * leave out JIT warm-up.
+	 */
+	private static final int RUNS = 5;
+
+	public static void main (String[] args) throws IOException, ParseException {
+		final Formula[] problems = new Formula[SAMPLES_9X9.length];
+		final Sudoku[] puzzles = new Sudoku[SAMPLES_9X9.length];
+		final Solver incremental = new Solver(new Sudoku(3).getRules());
+
+		for (int i = 0; i < SAMPLES_9X9.length; i++) {
+			puzzles[i] = Sudoku.fromFile(3, DIR_SAMPLES + SAMPLES_9X9[i]);
+			problems[i] = puzzles[i].getProblem();
+		}
+
+		System.out.println("Branching heuristics:");
+		printHeader();
+
+		for (Heuristic h: Heuristic.values()) {
+			for (int i = 0; i < problems.length; i++) {
+				run(h.toString(), SAMPLES_9X9[i], problems[i], new SolverOptions().withHeuristic(h));
+			}
+		}
+
+		System.out.println("\nRestart policies:");
+		printHeader();
+
+		for (Restart r: Restart.values()) {
+			for (int i = 0; i < problems.length; i++) {
+				run(r.toString(), SAMPLES_9X9[i], problems[i], new SolverOptions().withRestartPolicy(r));
+			}
+		}
+
+		System.out.println("\nPreprocessing:");
+		printHeader();
+
+		for (boolean preprocessing: new boolean[]{false, true}) {
+			for (int i = 0; i < problems.length; i++) {
+				run(
+						preprocessing ? "preprocessed" : "plain", SAMPLES_9X9[i], problems[i],
+						new SolverOptions().withPreprocessing(preprocessing)
+				);
+			}
+		}
+
+		System.out.println("\nDefault polarity and phase saving:");
+		printHeader();
+
+		for (Polarity p: Polarity.values()) {
+			for (boolean saving: new boolean[]{true, false}) {
+				for (int i = 0; i < problems.length; i++) {
+					run(
+							p + (saving ? "+saving" : ""), SAMPLES_9X9[i], problems[i],
+							new SolverOptions().withPolarity(p).withPhaseSaving(saving).withSeed(1)
+					);
+				}
+			}
+		}
+
+		System.out.println("\nIncremental, one solver loaded with the rules, givens as assumptions:");
+		printHeader();
+
+		for (int i = 0; i < puzzles.length; i++) {
+			runIncremental(SAMPLES_9X9[i], incremental, puzzles[i]);
+		}
+	}
+
+	/**
+	 * Solve puzzle RUNS times on solver, and print one line of results. Search tree
+	 * size is that of the first run, since solver learns from every run.
+	 */
+	private static void runIncremental (String puzzle, Solver solver, Sudoku sudoku) {
+		final Statistics statistics = solver.getStatistics();
+		final long decisions = statistics.getDecisions(), conflicts = statistics.getConflicts(),
+				restarts = statistics.getRestarts();
+		long best = Long.MAX_VALUE, started;
+
+		started = System.nanoTime();
+		solver.solve(sudoku.getGivens());
+		best = Math.min(best, System.nanoTime() - started);
+
+		System.out.format(
+				"%-24s %-18s %10d %10d %10d",
+				"incremental", puzzle, statistics.getDecisions() - decisions, statistics.getConflicts() - conflicts,
+				statistics.getRestarts() - restarts
+		);
+
+		for (int run = 1; run < RUNS; run++) {
+			started = System.nanoTime();
+			solver.solve(sudoku.getGivens());
+			best = Math.min(best, System.nanoTime() - started);
+		}
+
+		System.out.format(" %10.2f\n", best / Math.pow(10, 6));
+	}
+
+	private static void printHeader () {
+		System.out.format(
+				"%-24s %-18s %10s %10s %10s %10s\n",
+				"configuration", "puzzle", "decisions", "conflicts", "restarts", "time (ms)"
+		);
+	}
+
+	/**
+	 * Solve problem RUNS times with options, and print one line of results.
+	 */
+	private static void run (String label, String puzzle, Formula problem, SolverOptions options) {
+		Statistics statistics = null;
+		long best = Long.MAX_VALUE, started;
+		Solver solver;
+
+		for (int run = 0; run < RUNS; run++) {
+			started = System.nanoTime();
+			solver = new Solver(problem, options);
+			solver.solve();
+			best = Math.min(best, System.nanoTime() - started);
+			statistics = solver.getStatistics();
+		}
+
+		System.out.format(
+				"%-24s %-18s %10d %10d %10d %10.2f\n",
+				label, puzzle, statistics.getDecisions(), statistics.getConflicts(), statistics.getRestarts(),
+				best / Math.pow(10, 6)
+		);
+	}
+
+}
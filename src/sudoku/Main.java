@@ -69,7 +69,11 @@ public class Main {
 			timeTaken = (System.nanoTime() - started);
 			System.out.format("Time: %.2fms.\n", timeTaken / Math.pow(10, 6));
 		} else {
-			System.err.println("Failed solving selected Sudoku.");
+			System.err.println("Failed solving selected Sudoku. These digits conflict:");
+
+			for (Sudoku.SudokuCell cell: sudoku.getConflictingGivens()) {
+				System.err.format("  %d at row %d, column %d\n", cell.value, cell.row + 1, cell.column + 1);
+			}
 		}
 
 		System.out.println("\n");
@@ -6,16 +6,23 @@
  */
 package sudoku;
 
+import sat.SATSolver;
 import sat.env.Environment;
 import sat.env.Variable;
 import sat.formula.Clause;
 import sat.formula.Formula;
+import sat.formula.Literal;
 import sat.formula.NegatedLiteral;
 import sat.formula.PositiveLiteral;
+import sat.solver.Solver;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 import static sat.env.Boolean.TRUE;
@@ -368,6 +375,97 @@ public class Sudoku {
 		return new ProblemFactory().getProblem();
 	}
 
+	/**
+	 * Produce the rules of Sudoku for puzzles of this blockSize, without the digits
+	 * filled in. Together with getGivens() as assumptions, they make an incremental
+	 * solver equivalent to getProblem(): so a single solver loaded with the rules can
+	 * solve any number of puzzles.
+	 *
+	 * @return a formula that is satisfiable by any filled-in grid of this blockSize
+	 * that obeys the rules.
+	 */
+	public Formula getRules () {
+		return new ProblemFactory().getRules();
+	}
+
+	/**
+	 * @return one literal per digit filled in this puzzle, true iff the digit
+	 * occupies its square.
+	 */
+	public Literal[] getGivens () {
+		final List<Literal> result = new ArrayList<>();
+
+		for (Variable[][] row: occupies) {
+			for (Variable[] square: row) {
+				for (Variable v: square) {
+					if (v != null) {
+						result.add(PositiveLiteral.make(v));
+					}
+				}
+			}
+		}
+
+		return result.toArray(new Literal[0]);
+	}
+
+	/**
+	 * Check whether this puzzle is well-posed, by looking for two solutions. This
+	 * costs at most two solves of getProblem().
+	 *
+	 * @return true iff exactly one filled-in grid obeying the rules agrees with
+	 * this puzzle.
+	 */
+	public boolean hasUniqueSolution () {
+		final List<Variable> projection = new ArrayList<>();
+
+		for (int row = 0; row < size; row++) {
+			for (int column = 0; column < size; column++) {
+				for (int value = CELL_MIN_VALID; value <= CELL_MAX_VALID; value++) {
+					projection.add(variableFactory(row, column, value));
+				}
+			}
+		}
+
+		return SATSolver.solveAll(getProblem(), projection).limit(2).count() == 1;
+	}
+
+	/**
+	 * Explain why this puzzle has no solution, by finding a minimal set of its
+	 * digits that break the rules together: without any one of them, the others
+	 * could be completed. A single solver is loaded with getRules(), and solves
+	 * getGivens() as assumptions; the digits to blame are the core of the failed
+	 * solve, shrunk by at most one more solve per digit in it.
+	 *
+	 * @return the cells of the conflicting digits, together with their values, or
+	 * an empty list if the puzzle has a solution.
+	 */
+	public List<SudokuCell> getConflictingGivens () {
+		final Solver solver = new Solver(getRules());
+		final Map<Variable, SudokuCell> cells = new HashMap<>();
+		final List<SudokuCell> result = new ArrayList<>();
+
+		if (solver.solve(getGivens()) != null) {
+			return result;
+		}
+
+		for (int row = 0; row < size; row++) {
+			for (int column = 0; column < size; column++) {
+				if (squares[row][column] != CELL_EMPTY) {
+					cells.put(
+							occupies[row][column][squares[row][column]],
+							new SudokuCell(row, column, squares[row][column])
+					);
+				}
+			}
+		}
+
+		for (Literal l: solver.minimizeCore()) {
+			result.add(cells.get(l.getVariable()));
+		}
+
+		return result;
+	}
+
 	/**
 	 * Interpret the solved SAT problem as a filled-in grid.
 	 *
@@ -476,6 +574,17 @@ public class Sudoku {
 			return result;
 		}
 
+		public Formula getRules () {
+			Formula result = new Formula();
+
+			result = atMostOneDigitPerSquare(result);
+			result = exactlyOncePerRow(result);
+			result = exactlyOncePerColumn(result);
+			result = exactlyOncePerBlock(result);
+
+			return result;
+		}
+
 		private Formula loadFromGrid (Formula previous) {
 			//Solution must be consistent with the starting grid.
 			for (int row = 0; row < occupies.length; row++) {
@@ -2,10 +2,13 @@ package tests;
 
 import org.junit.Assert;
 import org.junit.Test;
+import sat.env.Variable;
 import sat.formula.Clause;
 import sat.formula.Literal;
 import sat.formula.PositiveLiteral;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.Assert.assertTrue;
 
 public class ClauseTest {
@@ -65,6 +68,114 @@ public class ClauseTest {
 		}
 	}
 
+	/**
+	 * Reduces a clause far longer than the stack of the thread doing it would allow
+	 * with a recursive implementation.
+	 */
+	@Test
+	public void testReduceLongClause () throws InterruptedException {
+		final Literal[] literals = new Literal[1000];
+		final AtomicReference<Clause> result = new AtomicReference<>();
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final Clause c;
+		final Thread reducer;
+
+		for (int i = 0; i < literals.length; i++) {
+			literals[i] = PositiveLiteral.make("x" + i);
+		}
+
+		c = new Clause(literals);
+		reducer = new Thread(null, () -> {
+			try {
+				result.set(c.reduce(literals[0].getNegation()));
+			} catch (Throwable t) {
+				failure.set(t);
+			}
+		}, "small-stack", 64 * 1024);
+		reducer.start();
+		reducer.join();
+
+		Assert.assertNull(failure.get());
+		Assert.assertEquals(literals.length - 1, result.get().size());
+		assertTrue(!result.get().contains(literals[0]));
+	}
+
+	/**
+	 * Clauses of the same literals are equal, with the same hash code, whatever the
+	 * order and repetitions of the literals they were built from.
+	 */
+	@Test
+	public void testEquals () {
+		final Literal s = PositiveLiteral.make("S"), notS = s.getNegation();
+		final Clause c = new Clause(p, notQ, r);
+		final Clause[] equal = {
+				new Clause(r, p, notQ),
+				makeClause(notQ, r, p, r),
+				new Clause(p, notQ).add(r),
+				new Clause(notQ).merge(new Clause(r, p)),
+				new Clause(p, notQ, notS, r).reduce(s),
+		};
+
+		for (Clause d: equal) {
+			Assert.assertEquals(c, d);
+			Assert.assertEquals(c.hashCode(), d.hashCode());
+			Assert.assertSame(c.intern(), d.intern());
+		}
+
+		Assert.assertNotEquals(c, new Clause(p, q, r));
+		Assert.assertNotEquals(c, new Clause(p, notQ));
+		Assert.assertNotSame(c.intern(), new Clause(p, q, r).intern());
+		Assert.assertNotEquals(c.intern(), new Clause(p, q, r).intern());
+		Assert.assertEquals(c.intern(), new Clause(r, notQ, p));
+		Assert.assertEquals(new Clause(), new Clause(p).reduce(notP));
+		Assert.assertSame(c, c.add(r));
+		Assert.assertSame(c, c.merge(new Clause(notQ, p)));
+	}
+
+	/**
+	 * Literals made from many threads at once are still interned, and equal
+	 * variables hash alike.
+	 */
+	@Test
+	public void testMakeConcurrently () throws InterruptedException {
+		final Thread[] threads = new Thread[8];
+		final Literal[][] made = new Literal[threads.length][100];
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		for (int t = 0; t < threads.length; t++) {
+			final Literal[] mine = made[t];
+
+			threads[t] = new Thread(() -> {
+				try {
+					for (int i = 0; i < mine.length; i++) {
+						mine[i] = PositiveLiteral.make("concurrent" + i);
+					}
+				} catch (Throwable e) {
+					failure.set(e);
+				}
+			});
+			threads[t].start();
+		}
+
+		for (Thread thread: threads) {
+			thread.join();
+		}
+
+		Assert.assertNull(failure.get());
+
+		for (int i = 0; i < made[0].length; i++) {
+			for (Literal[] mine: made) {
+				Assert.assertSame(made[0][i], mine[i]);
+			}
+
+			Assert.assertSame(made[0][i], PositiveLiteral.make(made[0][i].getVariable()));
+			Assert.assertEquals(
+					made[0][i].getVariable().hashCode(),
+					new Variable(made[0][i].getVariable().getName()).hashCode()
+			);
+		}
+	}
+
 	private Clause makeClause (Literal... e) {
 		Clause c = new Clause();
 
@@ -75,4 +186,4 @@ public class ClauseTest {
 		return c;
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import sat.dimacs.Cnf;
+import sat.dimacs.Dimacs;
+import sat.dimacs.DimacsException;
+import sat.env.Environment;
+import sat.formula.Clause;
+import sat.formula.Formula;
+import sat.formula.PositiveLiteral;
+import sat.solver.Solver;
+import sudoku.ParseException;
+import sudoku.Sudoku;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static sat.env.Boolean.TRUE;
+
+public class DimacsTest {
+
+	@Test
+	public void testRead () throws IOException, DimacsException {
+		final Cnf cnf = read(
+				"c a comment\n" +
+				"  c an indented one\n" +
+				"p cnf 4 3\n" +
+				"1 -3 0 2\n" +
+				"3   -1\t0\r\n" +
+				"-4 0\n" +
+				"%\n" +
+				"0\n"
+		);
+
+		Assert.assertEquals(4, cnf.variableCount());
+		Assert.assertEquals(3, cnf.clauseCount());
+		Assert.assertEquals(2, cnf.clauseSize(0));
+		Assert.assertEquals(-3, cnf.literal(0, 1));
+		Assert.assertEquals(3, cnf.clauseSize(1));
+		Assert.assertEquals(2, cnf.literal(1, 0));
+		Assert.assertEquals(-1, cnf.literal(1, 2));
+		Assert.assertEquals(-4, cnf.literal(2, 0));
+
+		// A missing final 0 and a variable above the declared count are tolerated.
+		Assert.assertEquals(7, read("p cnf 2 1\n1 7").variableCount());
+		Assert.assertEquals(1, read("p cnf 2 1\n1 7").clauseCount());
+		Assert.assertEquals(0, read("p cnf 0 1\n0\n").clauseSize(0));
+	}
+
+	@Test
+	public void testMalformed () throws IOException {
+		final String[] inputs = {
+				"1 2 0\n",
+				"p cnf 2 1\n1 x 0\n",
+				"p cnf 2 1\n1 - 2 0\n",
+				"p dnf 2 1\n1 2 0\n",
+				"p cnf 2 1\np cnf 2 1\n",
+				"p cnf 2 1\n1 99999999999 0\n",
+		};
+
+		for (String input: inputs) {
+			try {
+				read(input);
+				Assert.fail(input);
+			} catch (DimacsException e) {
+				// Expected.
+			}
+		}
+	}
+
+	/**
+	 * A formula written out and read back is solved the same way.
+	 */
+	@Test
+	public void testRoundTrip () throws IOException, ParseException, DimacsException {
+		final Formula problem = Sudoku.fromFile(3, "samples/sudoku_hard.txt").getProblem();
+		final StringWriter out = new StringWriter();
+		final Cnf cnf;
+		final Environment model;
+
+		Dimacs.write(problem, out);
+		cnf = read(out.toString());
+		model = new Solver(cnf).solve();
+
+		Assert.assertEquals(problem.getSize(), cnf.clauseCount());
+		Assert.assertNotNull(model);
+
+		for (int c = 0; c < cnf.clauseCount(); c++) {
+			boolean satisfied = false;
+
+			for (int i = 0; i < cnf.clauseSize(c); i++) {
+				final int l = cnf.literal(c, i);
+
+				satisfied |= (model.get(Cnf.variable(Math.abs(l))) == TRUE) == (l > 0);
+			}
+
+			Assert.assertTrue(satisfied);
+		}
+
+		out.getBuffer().setLength(0);
+		Dimacs.write(
+				new Formula(new Clause(PositiveLiteral.make("a")), new Clause(PositiveLiteral.make("a").getNegation())),
+				out
+		);
+
+		Assert.assertTrue(out.toString().startsWith("c 1 a\np cnf 1 2\n"));
+		Assert.assertTrue(out.toString().contains("\n1 0\n"));
+		Assert.assertTrue(out.toString().contains("\n-1 0\n"));
+		Assert.assertNull(new Solver(read(out.toString())).solve());
+	}
+
+	private static Cnf read (String contents) throws IOException, DimacsException {
+		final Path file = Files.createTempFile("dimacs", ".cnf");
+
+		try {
+			Files.write(file, contents.getBytes(StandardCharsets.US_ASCII));
+
+			return Dimacs.read(file);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+}
@@ -6,8 +6,13 @@ import sat.formula.Clause;
 import sat.formula.Formula;
 import sat.formula.Literal;
 import sat.formula.PositiveLiteral;
+import sat.solver.Solver;
+import sudoku.Sudoku;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 public class FormulaTest {
 
@@ -148,6 +153,131 @@ public class FormulaTest {
 		}
 	}
 
+	/**
+	 * A formula holds each clause once, however many times it was added.
+	 */
+	@Test
+	public void testDeduplication () {
+		final Formula f = new Formula(make(a, b), make(c), make(b, a), make(c));
+		final Formula g = new Formula(make(c), make(a, b));
+
+		Assert.assertEquals(f.getSize(), 2);
+		Assert.assertSame(f.addClause(make(c)), f);
+		Assert.assertEquals(f.addClause(make(notC)).getSize(), 3);
+		Assert.assertEquals(f.and(g).getSize(), 2);
+		Assert.assertEquals(f.and(g.addClause(make(d))).getSize(), 3);
+		Assert.assertEquals((Object) f, (Object) g);
+		Assert.assertEquals(f.hashCode(), g.hashCode());
+		Assert.assertTrue(f.contains(make(b, a)));
+
+		// (a ^ b) v (a ^ b) distributes into a, a v b and b, the two copies of a v b
+		// merging into one.
+		Assert.assertEquals(new Formula(make(a), make(b)).or(new Formula(make(a), make(b))).getSize(), 3);
+	}
+
+	/**
+	 * The encoded disjunction holds under exactly the assignments of the original
+	 * variables that satisfy the distributed one, for fresh auxiliary variables.
+	 */
+	@Test
+	public void testTseitinOr () {
+		final Formula[] firstInput = {
+				new Formula(make(a, b), make(c, d)),
+				new Formula(make(a), make(b, c, d)),
+				new Formula(make(notA), make(notB)),
+				new Formula(make(a, b), make(notA, notB), make(c)),
+				new Formula(),
+				new Formula(make(a, b), make()),
+		};
+		final Formula[] secondInput = {
+				new Formula(make(e, f), make(g, h)),
+				new Formula(make(e, f, g), make(h)),
+				new Formula(make(notC)),
+				new Formula(make(notA, c), make(notC, d), make(notD)),
+				new Formula(make(a), make(notB)),
+				new Formula(make(c, d), make(notC)),
+		};
+		final Literal[] variables = {a, b, c, d, e, f, g, h};
+		Formula chain = new Formula(make(a, b), make(c, d));
+
+		for (int i = 0; i < firstInput.length; i++) {
+			assertEquisatisfiable(firstInput[i].tseitinOr(secondInput[i]), firstInput[i].or(secondInput[i]), variables);
+		}
+
+		// Distributing 16 disjunctions of two clauses would take 2^17 clauses.
+		for (int i = 0; i < 16; i++) {
+			chain = chain.tseitinOr(new Formula(make(e, notF), make(g, notH)));
+		}
+
+		Assert.assertEquals(chain.getSize(), 34);
+		Assert.assertNotNull(new Solver(chain).solve(notA, notB, f, h));
+		Assert.assertNull(new Solver(chain).solve(notA, notB, notE, f));
+	}
+
+	@Test
+	public void testTseitinNot () {
+		final Formula[] formulas = {
+				new Formula(make(a, b), make(c)),
+				new Formula(make(a, b), make(a, c)),
+				new Formula(make(a), make(b), make(c)),
+				new Formula(make(a, notB, c), make(notA, d), make(b, notC, notD)),
+				new Formula(make(a, b), make()),
+		};
+		final Literal[] variables = {a, b, c, d};
+
+		for (Formula f: formulas) {
+			assertEquisatisfiable(f.tseitinNot(), f.not(), variables);
+		}
+
+		// The negation of true is false, and the distributive version gets it wrong.
+		Assert.assertNull(new Solver(new Formula().tseitinNot()).solve());
+	}
+
+	/**
+	 * Assert that for every assignment of variables, which include every variable of
+	 * expected, expected holds iff encoded can be satisfied.
+	 */
+	private static void assertEquisatisfiable (Formula encoded, Formula expected, Literal... variables) {
+		final Literal[] assumptions = new Literal[variables.length];
+
+		for (int bits = 0; bits < 1 << variables.length; bits++) {
+			for (int i = 0; i < variables.length; i++) {
+				assumptions[i] = (bits & 1 << i) != 0 ? variables[i] : variables[i].getNegation();
+			}
+
+			Assert.assertEquals(
+					new Solver(encoded).solve(assumptions) != null,
+					new Solver(expected).solve(assumptions) != null,
+					encoded + " under " + Arrays.toString(assumptions)
+			);
+		}
+	}
+
+	/**
+	 * Parallel streams of a formula and of its clauses see every clause and literal
+	 * once, in order.
+	 */
+	@Test
+	public void testStreams () {
+		final Formula rules = new Sudoku(3).getRules();
+		final List<Clause> clauses = new ArrayList<>();
+		final Clause clause = make(a, notB, c, notD);
+
+		for (Clause c: rules) {
+			clauses.add(c);
+		}
+
+		Assert.assertEquals(rules.spliterator().getExactSizeIfKnown(), rules.getSize());
+		Assert.assertEquals(rules.parallelStream().collect(Collectors.toList()), clauses);
+		Assert.assertEquals(
+				rules.parallelStream().mapToLong(Clause::size).sum(),
+				rules.stream().mapToLong(Clause::size).sum()
+		);
+		Assert.assertEquals(rules.parallelStream().distinct().count(), rules.getSize());
+		Assert.assertEquals(clause.parallelStream().collect(Collectors.toList()), Arrays.asList(clause.stream().toArray()));
+		Assert.assertEquals(clause.spliterator().getExactSizeIfKnown(), 4);
+	}
+
 	private void testFormulaConstructor (Clause... clauses) {
 		final Formula f = new Formula(clauses);
 
@@ -176,4 +306,4 @@ public class FormulaTest {
 		return c;
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package tests;
+
+import immutable.ImmutableList;
+import immutable.ImmutableVector;
+import immutable.primitive.ImmutableIntList;
+import immutable.primitive.ImmutableIntMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class ImmutablePrimitiveTest {
+
+	/**
+	 * An int list goes through the same operations as a vector of Integers, and
+	 * always holds the same elements.
+	 */
+	@Test
+	public void testIntList () {
+		final Random random = new Random(1);
+		ImmutableList<Integer> expected = new ImmutableVector<>();
+		ImmutableIntList list = new ImmutableIntList();
+		final ImmutableIntList empty = list;
+
+		for (int i = 0; i < 40000; i++) {
+			expected = expected.add(i);
+			list = list.add(i);
+		}
+
+		assertSameElements(expected, list);
+
+		for (int i = 0; i < 2000; i++) {
+			final int index = random.nextInt(list.size());
+
+			Assert.assertEquals((int) expected.get(index), list.get(index));
+			expected = expected.set(index, -i);
+			list = list.set(index, -i);
+		}
+
+		assertSameElements(expected, list);
+
+		for (int i = 0; i < 200; i++) {
+			final int e = list.get(random.nextInt(Math.min(list.size(), 500)));
+
+			Assert.assertTrue(list.contains(e));
+			expected = expected.remove(e);
+			list = list.remove(e);
+		}
+
+		assertSameElements(expected, list);
+
+		while (!expected.isEmpty()) {
+			Assert.assertEquals((int) expected.first(), list.first());
+			expected = expected.rest();
+			list = list.rest();
+		}
+
+		Assert.assertEquals(empty, list);
+		Assert.assertEquals(0, empty.size());
+		Assert.assertArrayEquals(new int[]{3, 1, 2}, ImmutableIntList.of(3, 1, 2).toArray());
+		Assert.assertEquals(ImmutableIntList.of(3, 1, 2), new ImmutableIntList().add(2).add(1).add(3));
+		Assert.assertEquals(6, ImmutableIntList.of(3, 1, 2).stream().sum());
+	}
+
+	/**
+	 * An int map holds the same bindings as a HashMap given the same puts, and the
+	 * maps it was put to are left unchanged.
+	 */
+	@Test
+	public void testIntMap () {
+		final Random random = new Random(1);
+		final Map<Integer, Integer> expected = new HashMap<>();
+		ImmutableIntMap map = new ImmutableIntMap();
+		final ImmutableIntMap empty = map;
+		ImmutableIntMap half = map;
+
+		for (int i = 0; i < 50000; i++) {
+			final int k = i % 3 == 0 ? random.nextInt() : random.nextInt(20000) - 10000, v = random.nextInt();
+
+			if (i == 25000) {
+				half = map;
+			}
+
+			expected.put(k, v);
+			map = map.put(k, v);
+		}
+
+		Assert.assertEquals(expected.size(), map.size());
+		Assert.assertEquals(expected.size(), map.keys().length);
+
+		for (int k: map.keys()) {
+			Assert.assertEquals((int) expected.get(k), map.get(k, 0));
+		}
+
+		for (int k = -10000; k < 10000; k++) {
+			Assert.assertEquals(expected.containsKey(k), map.containsKey(k));
+		}
+
+		Assert.assertTrue(half.size() < map.size());
+		Assert.assertEquals(-1, empty.get(0, -1));
+		Assert.assertTrue(empty.isEmpty());
+		Assert.assertSame(map, map.put(map.keys()[0], map.get(map.keys()[0], 0)));
+		Assert.assertEquals(new ImmutableIntMap().put(1, 2).put(3, 4), new ImmutableIntMap().put(3, 4).put(1, 2));
+		Assert.assertEquals("[1->2, 3->4]", new ImmutableIntMap().put(3, 4).put(1, 5).put(1, 2).toString());
+	}
+
+	private static void assertSameElements (ImmutableList<Integer> expected, ImmutableIntList actual) {
+		final int[] array = new int[expected.size()];
+		int i = 0;
+
+		for (Integer e: expected) {
+			array[i++] = e;
+		}
+
+		Assert.assertEquals(expected.size(), actual.size());
+		Assert.assertArrayEquals(array, actual.toArray());
+		Assert.assertEquals(expected.hashCode(), actual.hashCode());
+		Assert.assertEquals(Arrays.toString(array), actual.toString());
+	}
+
+}
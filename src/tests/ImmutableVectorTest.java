@@ -0,0 +1,136 @@
+package tests;
+
+import immutable.EmptyImmutableList;
+import immutable.ImmutableList;
+import immutable.ImmutableVector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class ImmutableVectorTest {
+
+	/**
+	 * A vector goes through the same operations as a cons list, past the sizes at
+	 * which its trie gains and loses levels, and always holds the same elements.
+	 */
+	@Test
+	public void testAgainstConsList () {
+		final Random random = new Random(1);
+		ImmutableList<Integer> vector = new ImmutableVector<>(), list = new EmptyImmutableList<>();
+
+		for (int i = 0; i < 40000; i++) {
+			vector = vector.add(i);
+			list = list.add(i);
+		}
+
+		assertSameElements(list, vector);
+
+		for (int i = 0; i < 2000; i++) {
+			final int index = random.nextInt(list.size());
+
+			Assert.assertEquals(list.get(index), vector.get(index));
+			list = list.set(index, -i);
+			vector = vector.set(index, -i);
+		}
+
+		assertSameElements(list, vector);
+
+		for (int i = 0; i < 200; i++) {
+			final Integer e = list.get(random.nextInt(Math.min(list.size(), 500)));
+
+			Assert.assertTrue(vector.contains(e));
+			list = list.remove(e);
+			vector = vector.remove(e);
+		}
+
+		assertSameElements(list, vector);
+
+		while (!list.isEmpty()) {
+			Assert.assertEquals(list.first(), vector.first());
+			list = list.rest();
+			vector = vector.rest();
+		}
+
+		Assert.assertTrue(vector.isEmpty());
+		Assert.assertEquals(new EmptyImmutableList<Integer>(), vector);
+		Assert.assertEquals(vector, new EmptyImmutableList<Integer>());
+	}
+
+	/**
+	 * Operations leave the vector they are applied to unchanged.
+	 */
+	@Test
+	public void testPersistence () {
+		final List<ImmutableList<Integer>> versions = new ArrayList<>();
+		ImmutableList<Integer> vector = new ImmutableVector<>();
+
+		for (int i = 0; i < 2000; i++) {
+			versions.add(vector);
+			vector = vector.add(i);
+		}
+
+		for (int i = 0; i < versions.size(); i += 37) {
+			versions.get(i).add(-1);
+
+			if (i > 0) {
+				versions.get(i).set(0, -1).rest();
+				versions.get(i).rest();
+			}
+		}
+
+		for (int i = 0; i < versions.size(); i++) {
+			Assert.assertEquals(i, versions.get(i).size());
+
+			for (int j = 0; j < i; j += 7) {
+				Assert.assertEquals(Integer.valueOf(i - 1 - j), versions.get(i).get(j));
+			}
+		}
+	}
+
+	/**
+	 * Streams of vectors and cons lists, split down to single elements, hold the
+	 * elements of the list in order.
+	 */
+	@Test
+	public void testStreams () {
+		ImmutableList<Integer> vector = new ImmutableVector<>(), list = new EmptyImmutableList<>();
+		final List<Integer> expected = new ArrayList<>();
+
+		for (int i = 0; i < 5000; i++) {
+			vector = vector.add(i);
+			list = list.add(i);
+			expected.add(0, i);
+		}
+
+		Assert.assertEquals(expected, vector.parallelStream().collect(Collectors.toList()));
+		Assert.assertEquals(expected, list.parallelStream().collect(Collectors.toList()));
+		Assert.assertEquals(5000, vector.spliterator().getExactSizeIfKnown());
+		Assert.assertEquals(5000, list.spliterator().getExactSizeIfKnown());
+		Assert.assertEquals(
+				expected.stream().mapToLong(Integer::longValue).sum(),
+				vector.parallelStream().mapToLong(Integer::longValue).sum()
+		);
+		Assert.assertEquals(0, new ImmutableVector<Integer>().parallelStream().count());
+	}
+
+	private static void assertSameElements (ImmutableList<Integer> expected, ImmutableList<Integer> actual) {
+		final Iterator<Integer> it = actual.iterator();
+
+		Assert.assertEquals(expected.size(), actual.size());
+
+		for (Integer e: expected) {
+			Assert.assertEquals(e, it.next());
+		}
+
+		Assert.assertFalse(it.hasNext());
+		Assert.assertEquals(expected, actual);
+		Assert.assertEquals(actual, expected);
+		Assert.assertEquals(expected.hashCode(), actual.hashCode());
+	}
+
+}
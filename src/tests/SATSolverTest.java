@@ -3,12 +3,19 @@ package tests;
 import org.junit.Assert;
 import org.junit.Test;
 import sat.SATSolver;
+import sat.env.Assignment;
 import sat.env.Environment;
+import sat.env.Variable;
 import sat.formula.Clause;
 import sat.formula.Formula;
 import sat.formula.Literal;
 import sat.formula.PositiveLiteral;
+import sat.solver.VariableIndex;
 
+import java.util.concurrent.atomic.AtomicReference;
+
+import static sat.env.Boolean.FALSE;
+import static sat.env.Boolean.TRUE;
 import static sat.env.Boolean.UNDEFINED;
 
 public class SATSolverTest {
@@ -81,4 +88,102 @@ public class SATSolverTest {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Solves a chain of implications x0, x0 -> x1, ..., x(n-1) -> xn, which takes one
+	 * unit propagation per variable, on a thread with a deliberately small stack.
+	 */
+	@Test
+	public void testLongImplicationChain () throws InterruptedException {
+		final int length = 1000;
+		final AtomicReference<Environment> result = new AtomicReference<>();
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		Formula f = new Formula(new Clause(PositiveLiteral.make("x0")));
+		final Formula chain;
+		final Thread solver;
+
+		for (int i = 1; i <= length; i++) {
+			f = f.addClause(new Clause(PositiveLiteral.make("x" + (i - 1)).getNegation(), PositiveLiteral.make("x" + i)));
+		}
+
+		chain = f;
+		solver = new Thread(null, () -> {
+			try {
+				result.set(SATSolver.solve(chain));
+			} catch (Throwable t) {
+				failure.set(t);
+			}
+		}, "small-stack", 128 * 1024);
+		solver.start();
+		solver.join();
+
+		Assert.assertNull(failure.get());
+		Assert.assertNotNull(result.get());
+		Assert.assertEquals(TRUE, result.get().get(PositiveLiteral.make("x" + length).getVariable()));
+	}
+
+	/**
+	 * Environments of many bindings: later bindings overwrite earlier ones, and
+	 * the environments extended are left as they were.
+	 */
+	@Test
+	public void testEnvironment () {
+		final int size = 5000;
+		Environment env = new Environment();
+		final Environment half;
+
+		for (int i = 0; i < size; i++) {
+			env = env.putTrue(new Variable("v" + i));
+		}
+
+		half = env;
+
+		for (int i = 0; i < size; i += 2) {
+			env = env.putFalse(new Variable("v" + i));
+		}
+
+		for (int i = 0; i < size; i++) {
+			Assert.assertEquals(TRUE, half.get(new Variable("v" + i)));
+			Assert.assertEquals(i % 2 == 0 ? FALSE : TRUE, env.get(new Variable("v" + i)));
+		}
+
+		Assert.assertEquals(UNDEFINED, env.get(new Variable("v" + size)));
+		Assert.assertTrue(half.isEquivalentTo(half.put(new Variable("v0"), TRUE)));
+		Assert.assertFalse(half.isEquivalentTo(env));
+	}
+
+	/**
+	 * Packed assignments compare like the environments they come from.
+	 */
+	@Test
+	public void testPack () {
+		final VariableIndex index = new VariableIndex();
+		final Environment model = new Environment().putTrue(a.getVariable()).putFalse(b.getVariable());
+		final Environment partial = new Environment().putTrue(a.getVariable());
+		final Environment other = model.putTrue(b.getVariable()).putTrue(c.getVariable());
+		Environment wide = model;
+		final Assignment packed = model.pack(index::idOf);
+
+		for (int i = 0; i < 200; i++) {
+			wide = wide.putFalse(new Variable("w" + i));
+		}
+
+		Assert.assertEquals(TRUE, packed.get(index.lookup(a.getVariable())));
+		Assert.assertEquals(FALSE, packed.get(index.lookup(b.getVariable())));
+		Assert.assertEquals(UNDEFINED, packed.get(1000));
+		Assert.assertEquals(202, wide.pack(index::idOf).size());
+
+		for (Environment e: new Environment[]{model, partial, other, wide}) {
+			for (Environment f: new Environment[]{model, partial, other, wide}) {
+				Assert.assertEquals(e.isEquivalentTo(f), e.pack(index::idOf).isEquivalentTo(f.pack(index::idOf)));
+			}
+		}
+
+		Assert.assertEquals(packed, model.put(c.getVariable(), UNDEFINED).pack(index::idOf));
+		Assert.assertArrayEquals(
+				new int[]{index.lookup(b.getVariable()), index.lookup(c.getVariable())},
+				packed.differences(other.pack(index::idOf))
+		);
+		Assert.assertEquals(200, wide.pack(index::idOf).differences(packed).length);
+	}
+
+}
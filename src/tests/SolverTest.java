@@ -0,0 +1,843 @@
+package tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import sat.SATSolver;
+import sat.env.Environment;
+import sat.formula.Clause;
+import sat.formula.Formula;
+import sat.formula.Literal;
+import sat.formula.NegatedLiteral;
+import sat.formula.PositiveLiteral;
+import sat.solver.Budget;
+import sat.solver.CancellationToken;
+import sat.solver.CubeAndConquer;
+import sat.solver.DratProof;
+import sat.solver.Heuristic;
+import sat.solver.ModelEnumerator;
+import sat.solver.Polarity;
+import sat.solver.Portfolio;
+import sat.solver.Restart;
+import sat.solver.SearchMode;
+import sat.solver.Solver;
+import sat.solver.SolverOptions;
+import sat.solver.SolverResult;
+import sat.solver.Statistics;
+import sudoku.ParseException;
+import sudoku.Sudoku;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.stream.IntStream;
+
+import static sat.env.Boolean.FALSE;
+import static sat.env.Boolean.TRUE;
+import static sat.env.Boolean.UNDEFINED;
+
+public class SolverTest {
+
+	private static final String DIR_SAMPLES = "samples/";
+	private static final SolverOptions[] OPTIONS = {
+			new SolverOptions(),
+			new SolverOptions().withMode(SearchMode.DPLL),
+			new SolverOptions().withHeuristic(Heuristic.VSIDS),
+			new SolverOptions().withHeuristic(Heuristic.DLIS),
+			new SolverOptions().withHeuristic(Heuristic.MOMS),
+			new SolverOptions().withHeuristic(Heuristic.JEROSLOW_WANG),
+			new SolverOptions().withMode(SearchMode.DPLL).withHeuristic(Heuristic.JEROSLOW_WANG),
+			new SolverOptions().withRestartPolicy(Restart.NONE),
+			new SolverOptions().withRestartPolicy(Restart.GEOMETRIC),
+			new SolverOptions().withRestartPolicy(Restart.GLUCOSE),
+			new SolverOptions().withLearnedLiteralsLimit(20),
+			new SolverOptions().withPreprocessing(true),
+			new SolverOptions().withPreprocessing(true).withMode(SearchMode.DPLL),
+			new SolverOptions().withPolarity(Polarity.RANDOM).withSeed(42),
+			new SolverOptions().withPolarity(Polarity.POSITIVE),
+			new SolverOptions().withPhaseSaving(false),
+	};
+
+	private Literal
+			a = PositiveLiteral.make("a"),
+			b = PositiveLiteral.make("b"),
+			c = PositiveLiteral.make("c"),
+			notA = a.getNegation(),
+			notB = b.getNegation(),
+			notC = c.getNegation();
+
+	/**
+		make sure assertions are turned on!
+		we don't want to run sudoku.test.test cases without assertions too.
+		see the handout to find out how to turn them on.
+	 */
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled () {
+		assert false;
+	}
+
+	@Test
+	public void testSolve () {
+		final Formula[] formulae = new Formula[]{
+				new Formula(new Clause(a, notB), new Clause(a, b)),
+				new Formula(new Clause(a), new Clause(b), new Clause(a), new Clause(notB)),
+				new Formula(new Clause(a), new Clause(b), new Clause(notB, c)),
+
+				new Formula(),
+				new Formula(new Clause()),
+				new Formula(new Clause(a), new Clause(notA)),
+
+				new Formula(new Clause(notA, b), new Clause(notA, notB)),
+				new Formula(new Clause(a, notA), new Clause(b)),
+		};
+		final Environment[] expectedResults = new Environment[]{
+				new Environment().putTrue(a.getVariable()).put(b.getVariable(), UNDEFINED),
+				null,
+				new Environment().putTrue(a.getVariable()).putTrue(b.getVariable()).putTrue(c.getVariable()),
+
+				new Environment(),
+				null,
+				null,
+
+				new Environment().putFalse(a.getVariable()),
+				new Environment().putTrue(b.getVariable()),
+		};
+		Environment result;
+
+		for (SolverOptions options: OPTIONS) {
+			for (int i = 0; i < formulae.length; i++) {
+				result = SATSolver.solve(formulae[i], options);
+
+				Assert.assertTrue(
+						(expectedResults[i] == null && result == null) ||
+								expectedResults[i].isEquivalentTo(result)
+				);
+			}
+		}
+	}
+
+	/**
+	 * Cross-checks every search mode against the DPLL of SATSolver on random 3-SAT
+	 * formulae around the satisfiability threshold.
+	 */
+	@Test
+	public void testAgreesWithDPLL () {
+		final Random random = new Random(6005);
+		final int variables = 12, clauses = 52;
+		Formula f;
+		Environment expected, result;
+
+		for (int round = 0; round < 200; round++) {
+			f = randomFormula(random, variables, clauses);
+			expected = SATSolver.solve(f);
+
+			for (SolverOptions options: OPTIONS) {
+				result = SATSolver.solve(f, options);
+
+				Assert.assertEquals(expected == null, result == null);
+
+				if (result != null) {
+					Assert.assertTrue(satisfies(result, f));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSolveSamples () throws IOException, ParseException {
+		final String[] samples = {
+				"sudoku_easy.txt",
+				"sudoku_easy2.txt",
+				"sudoku_hard.txt",
+				"sudoku_hard2.txt",
+				"sudoku_hard3.txt",
+				"sudoku_hard4.txt",
+		};
+		Sudoku s, solution;
+		Formula problem;
+		Environment e;
+
+		for (String sample: samples) {
+			s = Sudoku.fromFile(3, DIR_SAMPLES + sample);
+			problem = s.getProblem();
+
+			for (SolverOptions options: OPTIONS) {
+				e = SATSolver.solve(problem, options);
+
+				Assert.assertNotNull(sample, e);
+
+				solution = s.interpretSolution(e);
+
+				Assert.assertTrue(sample, solution.isValid());
+				Assert.assertFalse(sample, solution.toString().contains("."));
+			}
+		}
+	}
+
+	@Test
+	public void testWrongSamplesUnsatisfiable () throws IOException, ParseException {
+		final String[] samples = {
+				"sudoku_wrong_easy.txt",
+				"sudoku_wrong_hard2.txt",
+				"sudoku_wrong_evil.txt",
+		};
+
+		Formula problem;
+
+		for (String sample: samples) {
+			problem = Sudoku.fromFile(3, DIR_SAMPLES + sample).getProblem();
+
+			for (SolverOptions options: OPTIONS) {
+				Assert.assertNull(sample, SATSolver.solve(problem, options));
+			}
+		}
+	}
+
+	/**
+	 * The pigeonhole formula for 7 pigeons and 6 holes takes the solver through
+	 * thousands of conflicts, enough to trigger restarts.
+	 */
+	@Test
+	public void testRestartPolicies () {
+		final Formula pigeonhole = pigeonholeFormula(6);
+		Solver solver;
+
+		for (Restart r: Restart.values()) {
+			solver = new Solver(pigeonhole, new SolverOptions().withRestartPolicy(r));
+
+			Assert.assertNull(r.toString(), solver.solve());
+
+			if (r == Restart.NONE) {
+				Assert.assertEquals(0, solver.getStatistics().getRestarts());
+			} else if (r != Restart.GLUCOSE) {
+				Assert.assertTrue(r.toString(), solver.getStatistics().getRestarts() > 0);
+			}
+		}
+	}
+
+	/**
+	 * With a tight cap on learned literals, the clause database keeps being reduced,
+	 * without affecting the result.
+	 */
+	@Test
+	public void testLearnedLiteralsLimit () {
+		final Formula pigeonhole = pigeonholeFormula(6);
+		final Solver solver = new Solver(pigeonhole, new SolverOptions().withLearnedLiteralsLimit(200));
+
+		Assert.assertNull(solver.solve());
+		Assert.assertTrue(solver.getStatistics().getLearnedClauses() > 0);
+		Assert.assertTrue(solver.getStatistics().getDeletedClauses() > 0);
+	}
+
+	/**
+	 * Variable elimination collapses an implication chain x0 → x1 → ... → xn, and the
+	 * returned environment still binds every variable of the chain consistently.
+	 */
+	@Test
+	public void testPreprocessingEliminatesVariables () {
+		final int length = 50;
+		final SolverOptions options = new SolverOptions().withPreprocessing(true);
+		Formula f = new Formula(new Clause(PositiveLiteral.make("x0"), PositiveLiteral.make("x" + length)));
+		Solver solver;
+		Environment e;
+
+		for (int i = 0; i < length; i++) {
+			f = f.addClause(new Clause(NegatedLiteral.make("x" + i), PositiveLiteral.make("x" + (i + 1))));
+		}
+
+		solver = new Solver(f, options);
+		e = solver.solve();
+
+		Assert.assertNotNull(e);
+		Assert.assertTrue(solver.getStatistics().getEliminatedVariables() > 0);
+		Assert.assertTrue(satisfies(e, f));
+
+		for (int i = 0; i <= length; i++) {
+			Assert.assertNotEquals(UNDEFINED, e.get(PositiveLiteral.make("x" + i).getVariable()));
+		}
+
+		Assert.assertNull(new Solver(f.addClause(new Clause(NegatedLiteral.make("x" + length))), options).solve());
+	}
+
+	@Test
+	public void testPortfolio () throws IOException, ParseException, InterruptedException {
+		final String[] samples = {"sudoku_hard.txt", "sudoku_hard4.txt"};
+		final String[] wrongSamples = {"sudoku_wrong_easy.txt", "sudoku_wrong_evil.txt"};
+		Sudoku s;
+		Environment e;
+
+		for (boolean sharing: new boolean[]{false, true}) {
+			for (String sample: samples) {
+				s = Sudoku.fromFile(3, DIR_SAMPLES + sample);
+				e = new Portfolio(s.getProblem(), Portfolio.diversify(3), sharing).solve();
+
+				Assert.assertNotNull(sample, e);
+				Assert.assertTrue(sample, s.interpretSolution(e).isValid());
+			}
+			for (String sample: wrongSamples) {
+				s = Sudoku.fromFile(3, DIR_SAMPLES + sample);
+
+				Assert.assertNull(sample, new Portfolio(s.getProblem(), Portfolio.diversify(3), sharing).solve());
+			}
+		}
+
+		Assert.assertNull(SATSolver.solvePortfolio(pigeonholeFormula(5), 4));
+	}
+
+	@Test
+	public void testCubeAndConquer () throws IOException, ParseException {
+		final Random random = new Random(6005);
+		final Sudoku s = Sudoku.fromFile(3, DIR_SAMPLES + "sudoku_hard.txt");
+		CubeAndConquer solver;
+		Formula f;
+		Environment e;
+
+		for (int round = 0; round < 50; round++) {
+			f = randomFormula(random, 12, 52);
+			e = new CubeAndConquer(f, 3, new SolverOptions(), 2).solve();
+
+			Assert.assertEquals(SATSolver.solve(f) == null, e == null);
+			Assert.assertTrue(e == null || satisfies(e, f));
+		}
+
+		solver = new CubeAndConquer(pigeonholeFormula(6), 3, new SolverOptions(), 2);
+
+		Assert.assertNull(solver.solve());
+		Assert.assertTrue(solver.getCubeStatistics().size() > 1);
+
+		for (CubeAndConquer.CubeStatistics cube: solver.getCubeStatistics()) {
+			Assert.assertEquals(SolverResult.Status.UNSATISFIABLE, cube.getResult());
+			Assert.assertTrue(cube.getCube().size() >= 3);
+		}
+
+		e = SATSolver.solveCubeAndConquer(s.getProblem(), 4);
+
+		Assert.assertNotNull(e);
+		Assert.assertTrue(s.interpretSolution(e).isValid());
+	}
+
+	/**
+	 * Clauses added to a solver constrain every later call, assumptions only the
+	 * current one.
+	 */
+	@Test
+	public void testIncremental () {
+		final Solver solver = new Solver();
+
+		solver.addClause(new Clause(a, b));
+
+		Assert.assertNotNull(solver.solve());
+		Assert.assertNull(solver.solve(notA, notB));
+		Assert.assertEquals(TRUE, solver.solve(notA).get(b.getVariable()));
+
+		solver.addClause(new Clause(notB));
+
+		Assert.assertEquals(TRUE, solver.solve().get(a.getVariable()));
+		Assert.assertNull(solver.solve(notA));
+		Assert.assertNotNull(solver.solve(c));
+
+		solver.addClause(new Clause(notA));
+
+		Assert.assertNull(solver.solve());
+	}
+
+	/**
+	 * Assumptions already true still take a decision level each, so repeating one
+	 * many times makes levels outnumber variables.
+	 */
+	@Test
+	public void testDuplicateAssumptions () {
+		final Literal z = PositiveLiteral.make("z");
+		final Literal[] assumptions = new Literal[100];
+		final Solver solver = new Solver(pigeonholeFormula(3));
+
+		solver.addClause(new Clause(z, PositiveLiteral.make("p0,0")));
+		Arrays.fill(assumptions, z);
+
+		Assert.assertNull(solver.solve(assumptions));
+		Assert.assertEquals(0, solver.getCore().length);
+	}
+
+	/**
+	 * A single solver loaded with the rules of Sudoku solves every sample, given as
+	 * assumptions.
+	 */
+	@Test
+	public void testIncrementalSamples () throws IOException, ParseException {
+		final String[] samples = {
+				"sudoku_easy.txt",
+				"sudoku_hard.txt",
+				"sudoku_wrong_easy.txt",
+				"sudoku_hard2.txt",
+				"sudoku_wrong_evil.txt",
+				"sudoku_hard4.txt",
+		};
+		Sudoku s;
+		Environment e;
+
+		for (SolverOptions options: OPTIONS) {
+			final Solver solver = new Solver(new Sudoku(3).getRules(), options);
+
+			for (String sample: samples) {
+				s = Sudoku.fromFile(3, DIR_SAMPLES + sample);
+				e = solver.solve(s.getGivens());
+
+				if (sample.contains("wrong")) {
+					Assert.assertNull(sample, e);
+				} else {
+					Assert.assertNotNull(sample, e);
+					Assert.assertTrue(sample, s.interpretSolution(e).isValid());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Assumptions and clauses may mention variables eliminated by preprocessing.
+	 */
+	@Test
+	public void testIncrementalPreprocessing () {
+		final int length = 20;
+		Formula f = new Formula();
+		Solver solver;
+		Environment e;
+
+		for (int i = 0; i < length; i++) {
+			f = f.addClause(new Clause(NegatedLiteral.make("x" + i), PositiveLiteral.make("x" + (i + 1))));
+		}
+
+		solver = new Solver(f, new SolverOptions().withPreprocessing(true));
+
+		Assert.assertNotNull(solver.solve());
+		Assert.assertTrue(solver.getStatistics().getEliminatedVariables() > 0);
+		Assert.assertNull(solver.solve(PositiveLiteral.make("x0"), NegatedLiteral.make("x" + (length / 2))));
+
+		solver.addClause(new Clause(PositiveLiteral.make("x" + (length / 2))));
+		e = solver.solve();
+
+		Assert.assertNotNull(e);
+		Assert.assertTrue(satisfies(e, f));
+		Assert.assertEquals(TRUE, e.get(PositiveLiteral.make("x" + length).getVariable()));
+		Assert.assertNull(solver.solve(NegatedLiteral.make("x" + length)));
+	}
+
+	@Test
+	public void testModelEnumeration () {
+		final Formula f = new Formula(new Clause(a, b), new Clause(c, notC));
+		final ModelEnumerator all = new ModelEnumerator(new Solver(f));
+		final Set<String> seen = new HashSet<>();
+		Environment e;
+
+		while (all.hasNext()) {
+			e = all.next();
+
+			Assert.assertTrue(satisfies(e, f));
+			Assert.assertTrue(seen.add(e.get(a.getVariable()) + " " + e.get(b.getVariable()) + " " + e.get(c.getVariable())));
+		}
+
+		Assert.assertEquals(6, seen.size());
+		Assert.assertEquals(3, SATSolver.solveAll(f, Arrays.asList(a.getVariable(), b.getVariable())).count());
+		Assert.assertEquals(2, SATSolver.solveAll(f, Collections.singletonList(a.getVariable())).count());
+		Assert.assertEquals(1, SATSolver.solveAll(f, Collections.emptyList()).count());
+		Assert.assertEquals(
+				1,
+				new ModelEnumerator(new Solver(f), Collections.singletonList(b.getVariable()), notA).stream().count()
+		);
+		Assert.assertEquals(0, SATSolver.solveAll(new Formula(new Clause(a), new Clause(notA))).count());
+		Assert.assertEquals(
+				2,
+				SATSolver.solveAll(new Formula(new Clause(a, b, c), new Clause(notA, notB), new Clause(notB, notC),
+						new Clause(notA, notC))).limit(2).count()
+		);
+
+		// An interrupted solve ends neither the enumeration nor the stream quietly.
+		final Solver interrupted = new Solver(f);
+		final ModelEnumerator resumed = new ModelEnumerator(interrupted);
+
+		interrupted.interrupt();
+
+		try {
+			resumed.hasNext();
+			Assert.fail("interrupted enumeration ended silently");
+		} catch (CancellationException expected) {
+			// The next call resumes the enumeration.
+		}
+
+		Assert.assertEquals(6, resumed.stream().count());
+	}
+
+	/**
+	 * With nothing else to go by, every variable is branched on in the default
+	 * polarity.
+	 */
+	@Test
+	public void testPolarity () {
+		final Formula f = new Formula(new Clause(a, notA), new Clause(b, notB), new Clause(c, notC));
+
+		for (Polarity polarity: new Polarity[]{Polarity.NEGATIVE, Polarity.POSITIVE}) {
+			final Environment e = new Solver(f, new SolverOptions().withPolarity(polarity)).solve();
+
+			for (Literal l: new Literal[]{a, b, c}) {
+				Assert.assertEquals(polarity == Polarity.POSITIVE ? TRUE : FALSE, e.get(l.getVariable()));
+			}
+		}
+	}
+
+	/**
+	 * A failed solve blames a subset of its assumptions, which minimizeCore() shrinks
+	 * until every literal is needed.
+	 */
+	@Test
+	public void testCore () {
+		final Literal[] x = new Literal[6];
+		final Solver solver = new Solver();
+		final Set<Literal> assumptions = new HashSet<>();
+		Literal[] core;
+
+		for (int i = 0; i < x.length; i++) {
+			x[i] = PositiveLiteral.make("x" + i);
+		}
+
+		// At most one of x0 ... x4, and x5 unconstrained.
+		for (int i = 0; i < 5; i++) {
+			for (int j = i + 1; j < 5; j++) {
+				solver.addClause(new Clause(x[i].getNegation(), x[j].getNegation()));
+			}
+		}
+
+		Assert.assertNotNull(solver.solve(x[0], x[5]));
+		Assert.assertEquals(0, solver.getCore().length);
+		Assert.assertNull(solver.solve(x));
+
+		assumptions.addAll(Arrays.asList(x));
+		core = solver.getCore();
+
+		Assert.assertTrue(assumptions.containsAll(Arrays.asList(core)));
+		Assert.assertNull(solver.solve(core));
+
+		core = solver.minimizeCore();
+
+		Assert.assertEquals(2, core.length);
+		Assert.assertFalse(Arrays.asList(core).contains(x[5]));
+		Assert.assertArrayEquals(core, solver.getCore());
+
+		solver.addClause(new Clause(x[5].getNegation()));
+
+		Assert.assertNull(solver.solve(x[5]));
+		Assert.assertEquals(1, solver.getCore().length);
+
+		solver.addClause(new Clause(x[5]));
+
+		Assert.assertNull(solver.solve(x[0]));
+		Assert.assertEquals(0, solver.getCore().length);
+	}
+
+	/**
+	 * The proof of an unsatisfiable formula is a refutation, each added clause
+	 * following from the previous ones by unit propagation.
+	 */
+	@Test
+	public void testDratProof () throws IOException {
+		final Formula pigeonhole = pigeonholeFormula(5);
+		ByteArrayOutputStream out;
+		DratProof proof;
+
+		for (SolverOptions options: new SolverOptions[]{new SolverOptions(), new SolverOptions().withPreprocessing(true)}) {
+			out = new ByteArrayOutputStream();
+			proof = new DratProof(Channels.newChannel(out));
+
+			Assert.assertNull(new Solver(pigeonhole, options, proof).solve());
+			Assert.assertEquals(proof.size(), out.size());
+			Assert.assertTrue(isRefutation(pigeonhole, out.toByteArray()));
+		}
+
+		out = new ByteArrayOutputStream();
+
+		Assert.assertNotNull(SATSolver.solve(new Formula(new Clause(a, b), new Clause(notA)), Channels.newChannel(out)));
+		Assert.assertFalse(isRefutation(new Formula(new Clause(a, b), new Clause(notA)), out.toByteArray()));
+	}
+
+	/**
+	 * A naive DRAT checker.
+	 *
+	 * @return true iff proof, in binary DRAT format, ends with the empty clause and
+	 * only adds clauses implied by formula and the clauses added before them by
+	 * reverse unit propagation. Variables are numbered in order of first appearance
+	 * in formula.
+	 */
+	private static boolean isRefutation (Formula formula, byte[] proof) {
+		final Map<String, Integer> ids = new HashMap<>();
+		final List<int[]> clauses = new ArrayList<>();
+		final List<Integer> lits = new ArrayList<>();
+		boolean refuted = false;
+		int[] clause;
+		byte kind;
+		int u, shift;
+
+		for (Clause c: formula) {
+			clause = new int[c.size()];
+			u = 0;
+
+			for (Literal l: c) {
+				ids.putIfAbsent(l.getVariable().getName(), ids.size() + 1);
+				clause[u++] = (l instanceof NegatedLiteral ? -1 : 1) * ids.get(l.getVariable().getName());
+			}
+
+			clauses.add(clause);
+		}
+
+		for (int i = 0; i < proof.length; ) {
+			kind = proof[i++];
+			lits.clear();
+
+			while (proof[i] != 0) {
+				u = 0;
+				shift = 0;
+
+				do {
+					u |= (proof[i] & 0x7f) << shift;
+					shift += 7;
+				} while ((proof[i++] & 0x80) != 0);
+
+				lits.add((u & 1) == 1 ? -(u >> 1) : u >> 1);
+			}
+
+			i++;
+			clause = lits.stream().mapToInt(Integer::intValue).sorted().toArray();
+
+			if (kind == 'a') {
+				if (!isImplied(clauses, clause)) {
+					return false;
+				}
+
+				clauses.add(clause);
+				refuted = clause.length == 0;
+			} else {
+				Assert.assertEquals('d', kind);
+
+				for (int j = 0; j < clauses.size(); j++) {
+					if (Arrays.equals(IntStream.of(clauses.get(j)).sorted().toArray(), clause)) {
+						clauses.remove(j);
+						break;
+					}
+				}
+			}
+		}
+
+		return refuted;
+	}
+
+	/**
+	 * @return true iff assigning every literal of clause false and propagating
+	 * over clauses leads to a conflict.
+	 */
+	private static boolean isImplied (List<int[]> clauses, int[] clause) {
+		final Set<Integer> trueLits = new HashSet<>();
+		boolean changed = true;
+		int unassigned, unit;
+
+		for (int l: clause) {
+			trueLits.add(-l);
+		}
+
+		while (changed) {
+			changed = false;
+
+			next:
+			for (int[] c: clauses) {
+				unassigned = 0;
+				unit = 0;
+
+				for (int l: c) {
+					if (trueLits.contains(l)) {
+						continue next;
+					} else if (!trueLits.contains(-l)) {
+						unassigned++;
+						unit = l;
+					}
+				}
+
+				if (unassigned == 0) {
+					return true;
+				} else if (unassigned == 1) {
+					trueLits.add(unit);
+					changed = true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * A solve running out of budget gives up with UNKNOWN rather than a wrong
+	 * answer, and the solver can still be used afterwards.
+	 */
+	@Test
+	public void testBudget () throws InterruptedException {
+		final Solver solver = new Solver(pigeonholeFormula(7));
+		final CancellationToken token = new CancellationToken();
+		final Thread canceller = new Thread(token::cancel);
+		SolverResult result;
+
+		result = solver.solve(new Budget().withConflicts(100));
+
+		Assert.assertEquals(SolverResult.Status.UNKNOWN, result.getStatus());
+		Assert.assertNull(result.getModel());
+		Assert.assertEquals(100, solver.getStatistics().getConflicts());
+
+		Assert.assertEquals(SolverResult.Status.UNKNOWN, solver.solve(new Budget().withDecisions(10)).getStatus());
+		Assert.assertEquals(SolverResult.Status.UNKNOWN, solver.solve(new Budget().withDeadline(Instant.now())).getStatus());
+		Assert.assertEquals(
+				SolverResult.Status.UNKNOWN,
+				SATSolver.solve(pigeonholeFormula(10), new Budget().withTimeout(Duration.ofMillis(50))).getStatus()
+		);
+		Assert.assertEquals(SolverResult.Status.UNSATISFIABLE, solver.solve(Budget.UNLIMITED).getStatus());
+
+		canceller.start();
+		canceller.join();
+
+		Assert.assertEquals(
+				SolverResult.Status.UNKNOWN,
+				SATSolver.solve(pigeonholeFormula(10), new Budget().withCancellation(token)).getStatus()
+		);
+
+		result = SATSolver.solve(new Formula(new Clause(a, b), new Clause(notA)), new Budget().withConflicts(0));
+
+		Assert.assertEquals(SolverResult.Status.SATISFIABLE, result.getStatus());
+		Assert.assertEquals(TRUE, result.getModel().get(b.getVariable()));
+	}
+
+	/**
+	 * An interrupted solver gives up, even before it starts searching, and searches
+	 * again on the next call.
+	 */
+	@Test
+	public void testInterrupt () {
+		final Solver solver = new Solver(pigeonholeFormula(4));
+
+		solver.interrupt();
+
+		Assert.assertTrue(solver.isInterrupted());
+		Assert.assertNull(solver.solve());
+		Assert.assertEquals(0, solver.getStatistics().getConflicts());
+		Assert.assertFalse(solver.isInterrupted());
+		Assert.assertEquals(SolverResult.Status.UNSATISFIABLE, solver.solve(Budget.UNLIMITED).getStatus());
+	}
+
+	/**
+	 * Results carry a snapshot of the statistics, with the time of every phase the
+	 * solve went through.
+	 */
+	@Test
+	public void testStatistics () {
+		final Solver solver = new Solver(pigeonholeFormula(5));
+		final SolverResult unsatisfiable = solver.solve(Budget.UNLIMITED);
+		final Statistics statistics = unsatisfiable.getStatistics();
+		SolverResult result;
+
+		Assert.assertTrue(statistics.getConflicts() > 0);
+		Assert.assertTrue(statistics.getMaxDepth() > 0);
+		Assert.assertTrue(statistics.getEncodeTime() > 0);
+		Assert.assertTrue(statistics.getSearchTime() > 0);
+		Assert.assertEquals(0, statistics.getPreprocessTime());
+		Assert.assertEquals(0, statistics.getDecodeTime());
+
+		solver.solve(Budget.UNLIMITED);
+
+		Assert.assertEquals(statistics.getConflicts(), unsatisfiable.getStatistics().getConflicts());
+		Assert.assertTrue(solver.getStatistics().getSearchTime() > statistics.getSearchTime());
+
+		result = SATSolver.solve(new Formula(new Clause(a, b), new Clause(notA)), Budget.UNLIMITED);
+
+		Assert.assertTrue(result.getStatistics().getDecodeTime() > 0);
+
+		result = new Solver(pigeonholeFormula(4), new SolverOptions().withPreprocessing(true)).solve(Budget.UNLIMITED);
+
+		Assert.assertEquals(SolverResult.Status.UNSATISFIABLE, result.getStatus());
+		Assert.assertTrue(result.getStatistics().getPreprocessTime() > 0);
+	}
+
+	/**
+	 * @return a formula stating that holes + 1 pigeons sit in holes holes, no two
+	 * in the same hole.
+	 */
+	private static Formula pigeonholeFormula (int holes) {
+		Formula f = new Formula();
+		Clause somewhere;
+
+		for (int pigeon = 0; pigeon <= holes; pigeon++) {
+			somewhere = new Clause();
+
+			for (int hole = 0; hole < holes; hole++) {
+				somewhere = somewhere.add(PositiveLiteral.make("p" + pigeon + "," + hole));
+			}
+
+			f = f.addClause(somewhere);
+		}
+
+		for (int hole = 0; hole < holes; hole++) {
+			for (int first = 0; first <= holes; first++) {
+				for (int second = first + 1; second <= holes; second++) {
+					f = f.addClause(new Clause(
+							NegatedLiteral.make("p" + first + "," + hole),
+							NegatedLiteral.make("p" + second + "," + hole)
+					));
+				}
+			}
+		}
+
+		return f;
+	}
+
+	private static Formula randomFormula (Random random, int variables, int clauses) {
+		Formula f = new Formula();
+		Clause c;
+		Literal l;
+
+		for (int i = 0; i < clauses; i++) {
+			c = new Clause();
+
+			while (c.size() < 3) {
+				l = PositiveLiteral.make("x" + random.nextInt(variables));
+				c = c.add(random.nextBoolean() ? l : l.getNegation());
+			}
+
+			f = f.addClause(c);
+		}
+
+		return f;
+	}
+
+	private static boolean satisfies (Environment e, Formula f) {
+		boolean satisfied;
+
+		for (Clause c: f) {
+			satisfied = false;
+
+			for (Literal l: c) {
+				if ((e.get(l.getVariable()) == TRUE) != (l instanceof NegatedLiteral)) {
+					satisfied = true;
+				}
+			}
+
+			if (!satisfied) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+}
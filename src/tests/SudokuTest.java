@@ -2,6 +2,7 @@ package tests;
 
 import org.junit.Test;
 import org.testng.Assert;
+import sat.SATSolver;
 import sudoku.ParseException;
 import sudoku.Sudoku;
 
@@ -9,6 +10,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.TreeSet;
@@ -196,6 +198,56 @@ public class SudokuTest {
 		);
 	}
 
+	@Test
+	public void testHasUniqueSolution () throws IOException, ParseException {
+		Assert.assertTrue(Sudoku.fromFile(3, "samples/sudoku_hard.txt").hasUniqueSolution());
+		Assert.assertTrue(Sudoku.fromFile(3, "samples/sudoku_easy.txt").hasUniqueSolution());
+		Assert.assertFalse(new Sudoku(3).hasUniqueSolution());
+		Assert.assertFalse(Sudoku.fromFile(3, "samples/sudoku_wrong_easy.txt").hasUniqueSolution());
+	}
+
+	/**
+	 * The digits to blame for a wrong grid conflict on their own, and each of them
+	 * is needed for the conflict.
+	 */
+	@Test
+	public void testConflictingGivens () throws IOException, ParseException {
+		final String[] files = {
+				"sudoku_wrong_easy.txt",
+				"sudoku_wrong_hard2.txt",
+				"sudoku_wrong_evil.txt"
+		};
+		List<Sudoku.SudokuCell> cells;
+
+		Assert.assertTrue(Sudoku.fromFile(3, "samples/sudoku_hard.txt").getConflictingGivens().isEmpty());
+
+		for (String file: files) {
+			cells = Sudoku.fromFile(3, "samples/" + file).getConflictingGivens();
+
+			Assert.assertFalse(cells.isEmpty(), file);
+			Assert.assertNull(SATSolver.solveCDCL(new Sudoku(3, grid(cells, null)).getProblem()), file);
+
+			for (Sudoku.SudokuCell dropped: cells) {
+				Assert.assertNotNull(SATSolver.solveCDCL(new Sudoku(3, grid(cells, dropped)).getProblem()), file);
+			}
+		}
+	}
+
+	/**
+	 * @return a 9x9 grid filled in with the values of cells, except dropped.
+	 */
+	private static int[][] grid (List<Sudoku.SudokuCell> cells, Sudoku.SudokuCell dropped) {
+		final int[][] result = new int[9][9];
+
+		for (Sudoku.SudokuCell c: cells) {
+			if (c != dropped) {
+				result[c.row][c.column] = c.value;
+			}
+		}
+
+		return result;
+	}
+
 	private String readFile (File file) throws FileNotFoundException {
 		Scanner in = null;
 		final StringBuilder b = new StringBuilder();
@@ -215,4 +267,4 @@ public class SudokuTest {
 		return b.toString();
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file